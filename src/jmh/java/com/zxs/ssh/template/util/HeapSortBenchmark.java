@@ -0,0 +1,96 @@
+package com.zxs.ssh.template.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project Name:sort-alg
+ * File Name:HeapSortBenchmark
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:堆排序各实现的基准测试，数据量1千万和5千万，远超CPU缓存，比较缓存未命中的影响
+ * CLASSIC为SortUtil.heapSort（二叉堆普通下沉），QUICK作为参照
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class HeapSortBenchmark {
+
+    @Param({"COPY", "CLASSIC", "BOTTOM_UP", "QUATERNARY", "QUICK"})
+    public Algorithm algorithm;
+
+    @Param({"10000000", "50000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE"})
+    public Distribution distribution;
+
+    private int[] origin;
+
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        origin = distribution.generate(size, 20181128L);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(origin, 0, work, 0, size);
+        algorithm.sort(work, size);
+        return work;
+    }
+
+    /**
+     * 参与测试的算法
+     */
+    public enum Algorithm {
+        COPY {
+            @Override
+            void sort(int[] a, int length) {
+            }
+        },
+        CLASSIC {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.heapSort(a, length);
+            }
+        },
+        BOTTOM_UP {
+            @Override
+            void sort(int[] a, int length) {
+                HeapSortUtil.bottomUpHeapSort(a, length);
+            }
+        },
+        QUATERNARY {
+            @Override
+            void sort(int[] a, int length) {
+                HeapSortUtil.quaternaryHeapSort(a, length);
+            }
+        },
+        QUICK {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.quickSort(a, length);
+            }
+        };
+
+        abstract void sort(int[] a, int length);
+    }
+}
@@ -0,0 +1,89 @@
+package com.zxs.ssh.template.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project Name:sort-alg
+ * File Name:QuadraticSortBenchmark
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:O(n²)排序算法基准测试，数据量只取1千和1万，更大的数据量单次排序超过秒级，没有测试意义
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuadraticSortBenchmark {
+
+    @Param({"COPY", "BUBBLE", "SELECT", "INSERT"})
+    public Algorithm algorithm;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "SAWTOOTH", "ZIPFIAN"})
+    public Distribution distribution;
+
+    private int[] origin;
+
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        origin = distribution.generate(size, 20181128L);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(origin, 0, work, 0, size);
+        algorithm.sort(work, size);
+        return work;
+    }
+
+    /**
+     * 参与测试的算法
+     */
+    public enum Algorithm {
+        COPY {
+            @Override
+            void sort(int[] a, int length) {
+            }
+        },
+        BUBBLE {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.bubbleSort(a, length);
+            }
+        },
+        SELECT {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.selectSort(a, length);
+            }
+        },
+        INSERT {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.insertSort(a, length);
+            }
+        };
+
+        abstract void sort(int[] a, int length);
+    }
+}
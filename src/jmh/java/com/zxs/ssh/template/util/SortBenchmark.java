@@ -0,0 +1,149 @@
+package com.zxs.ssh.template.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project Name:sort-alg
+ * File Name:SortBenchmark
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:O(nlogn)排序算法基准测试（算法 × 数据量 × 数据分布）
+ * 吞吐量和耗时分位数同时输出，加上-prof gc可得到分配速率
+ * COPY只复制数组不排序，作为其他算法结果的扣除基线
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms12g", "-Xmx12g"})
+public class SortBenchmark {
+
+    @Param({"COPY", "QUICK", "QUICK_3WAY", "MERGE", "SHELL", "HEAP", "RADIX", "COUNTING", "ADAPTIVE", "PARALLEL_QUICK",
+            "PARALLEL_MERGE", "PARALLEL_COUNTING", "AUTO"})
+    public Algorithm algorithm;
+
+    @Param({"1000", "100000", "1000000", "10000000", "50000000"})
+    public int size;
+
+    @Param({"RANDOM", "GAUSSIAN", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE", "ALL_EQUAL", "SAWTOOTH",
+            "ORGAN_PIPE", "ZIPFIAN", "MEDIAN_OF_3_KILLER"})
+    public Distribution distribution;
+
+    private int[] origin;
+
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        origin = distribution.generate(size, 20181128L);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] sort() {
+        System.arraycopy(origin, 0, work, 0, size);
+        algorithm.sort(work, size);
+        return work;
+    }
+
+    /**
+     * 参与测试的算法
+     */
+    public enum Algorithm {
+        COPY {
+            @Override
+            void sort(int[] a, int length) {
+            }
+        },
+        QUICK {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.quickSort(a, length);
+            }
+        },
+        QUICK_3WAY {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.quickSort3Way(a, 0, length, true);
+            }
+        },
+        MERGE {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.mergeSort(a, length);
+            }
+        },
+        SHELL {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.shellSort(a, length);
+            }
+        },
+        HEAP {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.heapSort(a, length);
+            }
+        },
+        RADIX {
+            @Override
+            void sort(int[] a, int length) {
+                SortUtil.radixSort(a, length);
+            }
+        },
+        COUNTING {
+            @Override
+            void sort(int[] a, int length) {
+                CountingSortUtil.countingSort(a, length);
+            }
+        },
+        ADAPTIVE {
+            @Override
+            void sort(int[] a, int length) {
+                AdaptiveSortUtil.adaptiveSort(a, length);
+            }
+        },
+        PARALLEL_QUICK {
+            @Override
+            void sort(int[] a, int length) {
+                ParallelSortUtil.parallelQuickSort(a, length);
+            }
+        },
+        PARALLEL_MERGE {
+            @Override
+            void sort(int[] a, int length) {
+                ParallelSortUtil.parallelMergeSort(a, length);
+            }
+        },
+        PARALLEL_COUNTING {
+            @Override
+            void sort(int[] a, int length) {
+                CountingSortUtil.parallelCountingSort(a, length);
+            }
+        },
+        AUTO {
+            private final SortPlanner planner = new SortPlanner();
+
+            @Override
+            void sort(int[] a, int length) {
+                planner.sort(a, length);
+            }
+        };
+
+        abstract void sort(int[] a, int length);
+    }
+}
@@ -0,0 +1,173 @@
+package com.zxs.ssh.template.dao.common.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:BatchResult
+ * Package Name:com.zxs.ssh.template.dao.common.api
+ * Date:2026/10/18
+ * Description:批量添加、更新、删除的结果，按批次记录条数、是否成功、耗时
+ * 没有事务时每批在独立的事务中执行，成功的批次已经提交；某一批失败时只回滚该批，后续批次不再执行，记为跳过
+ * 加入调用方事务时成功只表示该批已刷新到数据库，随调用方事务提交或回滚
+ */
+
+
+public class BatchResult {
+    private final int total;
+    private final List<Batch> batches = new ArrayList<>();
+
+    /**
+     * @param total 实体对象总数
+     */
+    public BatchResult(int total) {
+        this.total = total;
+    }
+
+    /**
+     * 记录一个批次
+     *
+     * @param batch 批次结果
+     */
+    public void add(Batch batch) {
+        batches.add(batch);
+    }
+
+    /**
+     * @return 实体对象总数
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return 成功批次中的实体对象数
+     */
+    public int getSucceeded() {
+        int succeeded = 0;
+        for (Batch batch : batches) {
+            if (batch.isSuccess()) {
+                succeeded += batch.getSize();
+            }
+        }
+        return succeeded;
+    }
+
+    /**
+     * @return 失败批次中的实体对象数
+     */
+    public int getFailed() {
+        int failed = 0;
+        for (Batch batch : batches) {
+            if (!batch.isSuccess()) {
+                failed += batch.getSize();
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * @return 因前面的批次失败而未执行的实体对象数
+     */
+    public int getSkipped() {
+        return total - getSucceeded() - getFailed();
+    }
+
+    /**
+     * @return 全部成功
+     */
+    public boolean isSuccess() {
+        return getSucceeded() == total;
+    }
+
+    /**
+     * @return 各批次结果
+     */
+    public List<Batch> getBatches() {
+        return Collections.unmodifiableList(batches);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{total=" + total + ", succeeded=" + getSucceeded() + ", failed=" + getFailed()
+                + ", skipped=" + getSkipped() + ", batches=" + batches.size() + "}";
+    }
+
+    /**
+     * 单个批次的结果
+     */
+    public static class Batch {
+        private final int index;
+        private final int offset;
+        private final int size;
+        private final boolean success;
+        private final String error;
+        private final long elapsedMillis;
+
+        /**
+         * @param index         批次序号，从0开始
+         * @param offset        批次第一个实体对象在集合中的位置
+         * @param size          批次实体对象数
+         * @param error         失败原因，成功时为null
+         * @param elapsedMillis 耗时（毫秒），包括刷新或提交到数据库
+         */
+        public Batch(int index, int offset, int size, String error, long elapsedMillis) {
+            this.index = index;
+            this.offset = offset;
+            this.size = size;
+            this.success = error == null;
+            this.error = error;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        /**
+         * @return 批次序号，从0开始
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return 批次第一个实体对象在集合中的位置
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return 批次实体对象数
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @return 批次是否成功
+         */
+        public boolean isSuccess() {
+            return success;
+        }
+
+        /**
+         * @return 失败原因，成功时为null
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return 耗时（毫秒）
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Batch{index=" + index + ", offset=" + offset + ", size=" + size + ", success=" + success
+                    + (error != null ? ", error=" + error : "") + ", elapsedMillis=" + elapsedMillis + "}";
+        }
+    }
+}
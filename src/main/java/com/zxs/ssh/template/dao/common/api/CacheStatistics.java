@@ -0,0 +1,76 @@
+package com.zxs.ssh.template.dao.common.api;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:CacheStatistics
+ * Package Name:com.zxs.ssh.template.dao.common.api
+ * Date:2026/10/18
+ * Description:计数缓存统计快照
+ */
+
+
+public class CacheStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+    private final long invalidationCount;
+    private final int size;
+
+    /**
+     * @param hitCount          命中次数
+     * @param missCount         未命中次数（查询了数据库）
+     * @param evictionCount     超过容量按最近最少使用淘汰的条目数
+     * @param expirationCount   超过存活时间失效的条目数
+     * @param invalidationCount 因实体添加、更新、删除而清除的条目数
+     * @param size              当前条目数
+     */
+    public CacheStatistics(long hitCount, long missCount, long evictionCount, long expirationCount,
+                           long invalidationCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.invalidationCount = invalidationCount;
+        this.size = size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return 命中率，没有查询时为0
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount
+                + ", expirationCount=" + expirationCount + ", invalidationCount=" + invalidationCount + ", size=" + size
+                + ", hitRate=" + String.format("%.4f", getHitRate()) + "}";
+    }
+}
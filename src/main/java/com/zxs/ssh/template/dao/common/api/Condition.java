@@ -0,0 +1,342 @@
+package com.zxs.ssh.template.dao.common.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:Condition
+ * Package Name:com.zxs.ssh.template.dao.common.api
+ * Date:2026/10/18
+ * Description:查询条件构造器，值一律作为绑定参数，不拼进HQL
+ * 生成的HQL只与条件结构（属性、运算符、组合方式）有关，与参数值无关，同一结构的查询共用hibernate的查询计划缓存；
+ * 属性名按标识符校验，值不进入语句，不存在注入
+ * 用法：Condition.and().eq("name", name).ge("createTime", start).add(Condition.or().eq("state", 1).isNull("state"))
+ */
+
+
+public class Condition {
+    /**
+     * 属性名：实体属性或以点分隔的嵌入属性
+     */
+    private static final Pattern PROPERTY = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
+    private final String junction;
+    private final List<Object> items = new ArrayList<>();
+
+    private Condition(String junction) {
+        this.junction = junction;
+    }
+
+    /**
+     * @return 各项之间为“与”的条件
+     */
+    public static Condition and() {
+        return new Condition(" and ");
+    }
+
+    /**
+     * @return 各项之间为“或”的条件
+     */
+    public static Condition or() {
+        return new Condition(" or ");
+    }
+
+    /**
+     * 等于，值为null时为is null
+     *
+     * @param property 属性名
+     * @param value    值
+     * @return this
+     */
+    public Condition eq(String property, Object value) {
+        return value == null ? isNull(property) : predicate(property, " = ", value);
+    }
+
+    /**
+     * 不等于，值为null时为is not null
+     *
+     * @param property 属性名
+     * @param value    值
+     * @return this
+     */
+    public Condition ne(String property, Object value) {
+        return value == null ? isNotNull(property) : predicate(property, " <> ", value);
+    }
+
+    /**
+     * 大于
+     *
+     * @param property 属性名
+     * @param value    值
+     * @return this
+     */
+    public Condition gt(String property, Object value) {
+        return predicate(property, " > ", value);
+    }
+
+    /**
+     * 大于等于
+     *
+     * @param property 属性名
+     * @param value    值
+     * @return this
+     */
+    public Condition ge(String property, Object value) {
+        return predicate(property, " >= ", value);
+    }
+
+    /**
+     * 小于
+     *
+     * @param property 属性名
+     * @param value    值
+     * @return this
+     */
+    public Condition lt(String property, Object value) {
+        return predicate(property, " < ", value);
+    }
+
+    /**
+     * 小于等于
+     *
+     * @param property 属性名
+     * @param value    值
+     * @return this
+     */
+    public Condition le(String property, Object value) {
+        return predicate(property, " <= ", value);
+    }
+
+    /**
+     * 模糊匹配，通配符由调用方写在值里
+     *
+     * @param property 属性名
+     * @param pattern  匹配模式，如"abc%"
+     * @return this
+     */
+    public Condition like(String property, String pattern) {
+        return predicate(property, " like ", pattern);
+    }
+
+    /**
+     * 闭区间
+     *
+     * @param property 属性名
+     * @param low      下限
+     * @param high     上限
+     * @return this
+     */
+    public Condition between(String property, Object low, Object high) {
+        return ge(property, low).le(property, high);
+    }
+
+    /**
+     * 属于集合
+     * hibernate按集合大小把参数展开成(?, ?, ...)，不同大小是不同的语句；集合补齐到2的幂次（重复最后一个值），
+     * 语句种数从集合大小的种数降到其对数；空集合为恒假
+     *
+     * @param property 属性名
+     * @param values   值集合
+     * @return this
+     */
+    public Condition in(String property, Collection<?> values) {
+        if (values.isEmpty()) {
+            checkProperty(property);
+            items.add(new Predicate(null, "1 = 0", null));
+            return this;
+        }
+        return predicate(property, " in ", pad(values));
+    }
+
+    /**
+     * 不属于集合，空集合为恒真
+     *
+     * @param property 属性名
+     * @param values   值集合
+     * @return this
+     */
+    public Condition notIn(String property, Collection<?> values) {
+        if (values.isEmpty()) {
+            checkProperty(property);
+            items.add(new Predicate(null, "1 = 1", null));
+            return this;
+        }
+        return predicate(property, " not in ", pad(values));
+    }
+
+    /**
+     * 为空
+     *
+     * @param property 属性名
+     * @return this
+     */
+    public Condition isNull(String property) {
+        checkProperty(property);
+        items.add(new Predicate(property, " is null", null));
+        return this;
+    }
+
+    /**
+     * 不为空
+     *
+     * @param property 属性名
+     * @return this
+     */
+    public Condition isNotNull(String property) {
+        checkProperty(property);
+        items.add(new Predicate(property, " is not null", null));
+        return this;
+    }
+
+    /**
+     * 加入子条件，子条件整体加括号
+     *
+     * @param condition 子条件，为null或没有条件项时忽略
+     * @return this
+     */
+    public Condition add(Condition condition) {
+        if (condition == this) {
+            throw new IllegalArgumentException("condition must not contain itself");
+        }
+        if (condition != null && !condition.isEmpty()) {
+            items.add(condition);
+        }
+        return this;
+    }
+
+    /**
+     * @return 没有任何条件项
+     */
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * 生成HQL条件（实体别名为model）及绑定参数，参数依次命名为p0、p1、...
+     *
+     * @return 生成结果，没有条件项时其HQL为null
+     */
+    public Rendered render() {
+        if (isEmpty()) {
+            return new Rendered(null, Collections.emptyMap());
+        }
+        StringBuilder hql = new StringBuilder();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        render(hql, parameters);
+        return new Rendered(hql.toString(), parameters);
+    }
+
+    private void render(StringBuilder hql, Map<String, Object> parameters) {
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                hql.append(junction);
+            }
+            Object item = items.get(i);
+            if (item instanceof Condition) {
+                hql.append('(');
+                ((Condition) item).render(hql, parameters);
+                hql.append(')');
+                continue;
+            }
+            Predicate predicate = (Predicate) item;
+            if (predicate.property == null) {
+                hql.append(predicate.operator);
+                continue;
+            }
+            hql.append("model.").append(predicate.property).append(predicate.operator);
+            if (predicate.value != null) {
+                String name = "p" + parameters.size();
+                parameters.put(name, predicate.value);
+                hql.append(predicate.value instanceof Collection ? "(:" + name + ")" : ":" + name);
+            }
+        }
+    }
+
+    private Condition predicate(String property, String operator, Object value) {
+        checkProperty(property);
+        if (value == null) {
+            throw new IllegalArgumentException("value of " + property + " must not be null");
+        }
+        items.add(new Predicate(property, operator, value));
+        return this;
+    }
+
+    private static void checkProperty(String property) {
+        if (property == null || !PROPERTY.matcher(property).matches()) {
+            throw new IllegalArgumentException("invalid property name: " + property);
+        }
+    }
+
+    private static List<Object> pad(Collection<?> values) {
+        int size = Integer.highestOneBit(values.size());
+        if (size < values.size()) {
+            size <<= 1;
+        }
+        List<Object> padded = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value == null) {
+                throw new IllegalArgumentException("in values must not contain null");
+            }
+            padded.add(value);
+        }
+        Object last = padded.get(padded.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    @Override
+    public String toString() {
+        Rendered rendered = render();
+        return "Condition{hql=" + rendered.getHql() + ", parameters=" + rendered.getParameters() + "}";
+    }
+
+    /**
+     * 单个条件项，property为null时operator为常量条件
+     */
+    private static final class Predicate {
+        private final String property;
+        private final String operator;
+        private final Object value;
+
+        Predicate(String property, String operator, Object value) {
+            this.property = property;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 生成的HQL条件及绑定参数
+     */
+    public static class Rendered {
+        private final String hql;
+        private final Map<String, Object> parameters;
+
+        Rendered(String hql, Map<String, Object> parameters) {
+            this.hql = hql;
+            this.parameters = parameters;
+        }
+
+        /**
+         * @return HQL条件，没有条件项时为null
+         */
+        public String getHql() {
+            return hql;
+        }
+
+        /**
+         * @return 参数名到值，集合值按参数列表绑定
+         */
+        public Map<String, Object> getParameters() {
+            return Collections.unmodifiableMap(parameters);
+        }
+    }
+}
@@ -3,8 +3,11 @@ package com.zxs.ssh.template.dao.common.api;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Project Name:log-analysis-platform
@@ -57,12 +60,44 @@ public interface ICommonDao {
      */
     boolean update(Object object);
 
+    /**
+     * 批量添加，每batchSize条刷新一次，同一批的insert通过JDBC批处理一次发送
+     * 调用方有事务时加入该事务，每批刷新后清空session（调用方session中的实体对象随之脱管），失败时抛出异常由调用方回滚；
+     * 没有事务时每批在独立的事务中提交一次，某一批失败时后续批次不再执行
+     * 主键使用数据库自增（IDENTITY）的实体Hibernate无法批量insert，需使用序列或表生成主键
+     *
+     * @param objects   实体对象集合
+     * @param batchSize 每批条数，必须大于0
+     * @return 各批次结果
+     */
+    BatchResult saveAll(Collection<?> objects, int batchSize);
+
+    /**
+     * 批量更新，每batchSize条刷新一次，事务处理同{@link #saveAll(Collection, int)}
+     *
+     * @param objects   实体对象集合
+     * @param batchSize 每批条数，必须大于0
+     * @return 各批次结果
+     */
+    BatchResult updateAll(Collection<?> objects, int batchSize);
+
+    /**
+     * 批量删除，每batchSize条刷新一次，事务处理同{@link #saveAll(Collection, int)}
+     *
+     * @param objects   实体对象集合
+     * @param batchSize 每批条数，必须大于0
+     * @return 各批次结果
+     */
+    BatchResult deleteAll(Collection<?> objects, int batchSize);
+
     /**
      * 获取与综合条件
      *
      * @param conditions 条件队列
      * @return 综合条件
+     * @deprecated 条件值拼接在语句中，每个值都是新语句且有注入风险，使用{@link Condition}
      */
+    @Deprecated
     String getAndCondition(HashSet<String> conditions);
 
     /**
@@ -70,7 +105,9 @@ public interface ICommonDao {
      *
      * @param conditions 条件队列
      * @return 综合条件
+     * @deprecated 条件值拼接在语句中，每个值都是新语句且有注入风险，使用{@link Condition}
      */
+    @Deprecated
     String getOrCondition(HashSet<String> conditions);
 
     /**
@@ -104,6 +141,21 @@ public interface ICommonDao {
      */
     <T> List<T> queryPage(int start, int limit, Class<T> model);
 
+    /**
+     * 键集分页查询实体，按createTime、id降序，从续页令牌对应的(createTime, id)之后取limit条
+     * 不扫描前面的页，代价与页码无关；要求createTime非空，(create_time, id)上建索引
+     * 查询失败时抛出异常，不返回空页：空页且令牌为null表示已到最后一页，吞掉异常会让调用方误以为翻完了
+     *
+     * @param condition hibernate 查询条件，为空时查询全部
+     * @param pageToken 上一页返回的续页令牌，为空时查询第一页
+     * @param limit     条数限制
+     * @param model     实体类
+     * @param <T>       类型
+     * @return 本页实体对象及下一页的续页令牌
+     * @throws IllegalArgumentException limit不大于0或续页令牌无效
+     */
+    <T> KeysetPage<T> queryKeysetPage(String condition, String pageToken, int limit, Class<T> model);
+
     /**
      * 条件查询实体总数
      *
@@ -154,4 +206,81 @@ public interface ICommonDao {
      * @return 实体对象列表
      */
     <T> List<T> queryModels(int start, int limit, String hql, Class<T> model);
+
+    /**
+     * 流式条件查询实体对象，只向前滚动结果集，每个实体处理完后从session中移除，内存占用与行数无关
+     * 使用流式查询专用数据源（mysql.streamUrl，开启useCursorFetch按fetchSize分批读取）的独立连接和只读session，
+     * 只能读到已提交的数据，看不到调用方事务中未提交的修改；流必须关闭（try-with-resources），关闭时释放结果集和连接
+     *
+     * @param condition hibernate 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param fetchSize 每次从数据库读取的行数
+     * @param <T>       类型
+     * @return 实体对象流，查询失败时抛出异常，不返回空流
+     */
+    <T> Stream<T> streamModels(String condition, Class<T> model, int fetchSize);
+
+    /**
+     * 流式条件查询实体对象，逐个回调，回调返回后实体从session中移除，返回前关闭流
+     *
+     * @param condition hibernate 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param fetchSize 每次从数据库读取的行数
+     * @param consumer  实体对象回调
+     * @param <T>       类型
+     * @return 处理的实体对象数
+     */
+    <T> long forEachModel(String condition, Class<T> model, int fetchSize, Consumer<? super T> consumer);
+
+    /**
+     * 按条件构造器查询实体总数，条件值作为绑定参数
+     *
+     * @param condition 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param <T>       实体泛型
+     * @return 实体总数
+     */
+    <T> long queryTotalCountBy(Condition condition, Class<T> model);
+
+    /**
+     * 按条件构造器查询一个实体对象，条件值作为绑定参数
+     *
+     * @param condition 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param <T>       类型
+     * @return 实体对象，没有时为null
+     */
+    <T> T queryModelBy(Condition condition, Class<T> model);
+
+    /**
+     * 按条件构造器查询实体对象，条件值作为绑定参数
+     *
+     * @param condition 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param <T>       类型
+     * @return 实体对象列表
+     */
+    <T> List<T> queryModelsBy(Condition condition, Class<T> model);
+
+    /**
+     * 查询计划缓存命中统计，统计经本DAO执行的所有HQL语句
+     *
+     * @return 统计快照
+     */
+    QueryPlanStatistics getQueryPlanStatistics();
+
+    /**
+     * 计数缓存统计
+     * 只有queryTotalCount、queryTotalCountBy的结果经过缓存，默认最多1000条（query.cache.maxSize，每条约600字节），
+     * 非只读事务中不使用缓存；实体对象查询不经过本缓存，标注@Cacheable的实体由hibernate二级缓存和查询缓存缓存；
+     * 只有经本DAO的添加、更新、删除会清除缓存，脏检查或其他途径修改的数据在存活时间内可能读到旧的计数
+     *
+     * @return 统计快照
+     */
+    CacheStatistics getCacheStatistics();
+
+    /**
+     * 清空计数缓存，其他途径修改数据后调用
+     */
+    void clearCache();
 }
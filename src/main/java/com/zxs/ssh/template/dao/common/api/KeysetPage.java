@@ -0,0 +1,193 @@
+package com.zxs.ssh.template.dao.common.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:KeysetPage
+ * Package Name:com.zxs.ssh.template.dao.common.api
+ * Date:2026/10/18
+ * Description:键集分页（seek分页）结果，按(createTime, id)降序，下一页从本页最后一条的(createTime, id)之后开始
+ * 不用偏移量，任意深度的翻页代价只与页大小有关；翻页期间插入新数据不会造成重复或遗漏
+ */
+
+
+public class KeysetPage<T> {
+    private final List<T> models;
+    private final String nextToken;
+
+    /**
+     * @param models  本页实体对象
+     * @param nextKey 本页最后一条的键，没有下一页时为null
+     */
+    public KeysetPage(List<T> models, Key nextKey) {
+        this.models = models;
+        this.nextToken = nextKey != null ? nextKey.toToken() : null;
+    }
+
+    /**
+     * @return 本页实体对象
+     */
+    public List<T> getModels() {
+        return Collections.unmodifiableList(models);
+    }
+
+    /**
+     * @return 下一页的续页令牌，没有下一页时为null
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * @return 是否有下一页
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPage{size=" + models.size() + ", nextToken=" + nextToken + "}";
+    }
+
+    /**
+     * 分页键(createTime, id)，与续页令牌互相转换
+     * 令牌中记录值的类型，解析后按原类型绑定参数；支持Date、Timestamp（含纳秒）、LocalDateTime、Long、Integer、String
+     */
+    public static class Key {
+        private static final byte DATE = 'D';
+        private static final byte TIMESTAMP = 'T';
+        private static final byte LOCAL_DATE_TIME = 'L';
+        private static final byte LONG = 'J';
+        private static final byte INTEGER = 'I';
+        private static final byte STRING = 'S';
+
+        private final Object createTime;
+        private final Object id;
+
+        /**
+         * @param createTime 创建时间
+         * @param id         唯一标识
+         */
+        public Key(Object createTime, Object id) {
+            if (createTime == null || id == null) {
+                throw new IllegalArgumentException("createTime and id must not be null");
+            }
+            this.createTime = createTime;
+            this.id = id;
+        }
+
+        /**
+         * @return 创建时间，类型与实体的createTime属性相同
+         */
+        public Object getCreateTime() {
+            return createTime;
+        }
+
+        /**
+         * @return 唯一标识，类型与实体的id属性相同
+         */
+        public Object getId() {
+            return id;
+        }
+
+        /**
+         * 转换为续页令牌（URL安全的Base64）
+         *
+         * @return 令牌
+         */
+        public String toToken() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                write(out, createTime);
+                write(out, id);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        }
+
+        /**
+         * 解析续页令牌
+         *
+         * @param token 令牌
+         * @return 分页键
+         */
+        public static Key parse(String token) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+                Object createTime = read(in);
+                Object id = read(in);
+                if (in.read() != -1) {
+                    throw new IllegalArgumentException("invalid page token: " + token);
+                }
+                return new Key(createTime, id);
+            } catch (IOException | IllegalArgumentException | DateTimeException e) {
+                throw new IllegalArgumentException("invalid page token: " + token, e);
+            }
+        }
+
+        private static void write(DataOutputStream out, Object value) throws IOException {
+            if (value instanceof Timestamp) {
+                out.writeByte(TIMESTAMP);
+                out.writeLong(((Timestamp) value).getTime());
+                out.writeInt(((Timestamp) value).getNanos());
+            } else if (value instanceof Date) {
+                out.writeByte(DATE);
+                out.writeLong(((Date) value).getTime());
+            } else if (value instanceof LocalDateTime) {
+                out.writeByte(LOCAL_DATE_TIME);
+                out.writeUTF(value.toString());
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(INTEGER);
+                out.writeInt((Integer) value);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                out.writeUTF((String) value);
+            } else {
+                throw new IllegalArgumentException("unsupported key type: " + value.getClass().getName());
+            }
+        }
+
+        private static Object read(DataInputStream in) throws IOException {
+            byte type = in.readByte();
+            switch (type) {
+                case TIMESTAMP:
+                    Timestamp timestamp = new Timestamp(in.readLong());
+                    timestamp.setNanos(in.readInt());
+                    return timestamp;
+                case DATE:
+                    return new Date(in.readLong());
+                case LOCAL_DATE_TIME:
+                    return LocalDateTime.parse(in.readUTF());
+                case LONG:
+                    return in.readLong();
+                case INTEGER:
+                    return in.readInt();
+                case STRING:
+                    return in.readUTF();
+                default:
+                    throw new IllegalArgumentException("unsupported key type: " + type);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Key{createTime=" + createTime + ", id=" + id + "}";
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.zxs.ssh.template.dao.common.api;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:QueryPlanStatistics
+ * Package Name:com.zxs.ssh.template.dao.common.api
+ * Date:2026/10/18
+ * Description:查询计划缓存命中统计快照
+ * hibernate 5.2的Statistics没有查询计划缓存的命中数，由CommonDaoImpl按HQL语句统计：
+ * 与hibernate查询计划缓存同样大小、同样LIRS淘汰的并发表中已有该语句记为命中，否则记为未命中（hibernate需要重新解析）；
+ * 是按相同规则得到的估计值，不是hibernate内部的计数
+ */
+
+
+public class QueryPlanStatistics {
+    private final long hitCount;
+    private final long missCount;
+    private final int planCount;
+
+    /**
+     * @param hitCount  命中次数
+     * @param missCount 未命中次数
+     * @param planCount 当前缓存的不同语句数
+     */
+    public QueryPlanStatistics(long hitCount, long missCount, int planCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.planCount = planCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public int getPlanCount() {
+        return planCount;
+    }
+
+    /**
+     * @return 命中率，没有查询时为0
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlanStatistics{hitCount=" + hitCount + ", missCount=" + missCount + ", planCount=" + planCount
+                + ", hitRate=" + String.format("%.4f", getHitRate()) + "}";
+    }
+}
@@ -1,19 +1,54 @@
 package com.zxs.ssh.template.dao.common.impl;
 
+import com.zxs.ssh.template.dao.common.api.BatchResult;
+import com.zxs.ssh.template.dao.common.api.CacheStatistics;
+import com.zxs.ssh.template.dao.common.api.Condition;
 import com.zxs.ssh.template.dao.common.api.ICommonDao;
+import com.zxs.ssh.template.dao.common.api.KeysetPage;
+import com.zxs.ssh.template.dao.common.api.QueryPlanStatistics;
+import org.hibernate.CacheMode;
+import org.hibernate.MappingException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.query.Query;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Project Name:log-analysis-platform
@@ -33,6 +68,45 @@ public class CommonDaoImpl implements ICommonDao {
     @Resource(name = "sessionFactory")
     private SessionFactory sessionFactory;
 
+    @Resource(name = "transactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 流式查询专用数据源，连接参数开启useCursorFetch
+     */
+    @Resource(name = "mysql-stream-DS")
+    private DataSource streamDataSource;
+
+    private QueryPlanTracker queryPlanTracker;
+
+    /**
+     * 计数缓存最大条目数，为0时不缓存，每条约600字节
+     */
+    @Value("${query.cache.maxSize:1000}")
+    private int queryCacheMaxSize = 1000;
+
+    /**
+     * 计数缓存条目存活时间（毫秒）
+     */
+    @Value("${query.cache.ttlMillis:60000}")
+    private long queryCacheTtlMillis = 60000;
+
+    private QueryCache queryCache;
+
+    /**
+     * 实体类是否启用了二级缓存，实体查询据此决定是否使用查询缓存
+     */
+    private final ConcurrentMap<Class<?>, Boolean> cachedModels = new ConcurrentHashMap<>();
+
+    /**
+     * 按配置创建计数缓存，按hibernate配置的查询计划缓存大小创建查询计划统计
+     */
+    @PostConstruct
+    public void init() {
+        this.queryCache = new QueryCache(queryCacheMaxSize, queryCacheTtlMillis);
+        this.queryPlanTracker = new QueryPlanTracker(this.sessionFactory.getProperties());
+    }
+
     /**
      * 获取session
      *
@@ -61,6 +135,7 @@ public class CommonDaoImpl implements ICommonDao {
         } catch (Exception e) {
             logger.error("实体对象数据库保存错误", e);
         }
+        this.invalidateQueryCache(Collections.singleton(object));
         return state;
     }
 
@@ -81,6 +156,7 @@ public class CommonDaoImpl implements ICommonDao {
         } catch (Exception e) {
             logger.error("实体对象数据库保存错误", e);
         }
+        this.invalidateQueryCache(Collections.singleton(object));
         return id;
     }
 
@@ -102,6 +178,7 @@ public class CommonDaoImpl implements ICommonDao {
         } catch (Exception e) {
             logger.error("实体对象数据库删除错误", e);
         }
+        this.invalidateQueryCache(Collections.singleton(object));
         return state;
     }
 
@@ -123,15 +200,164 @@ public class CommonDaoImpl implements ICommonDao {
         } catch (Exception e) {
             logger.error("实体对象数据库更新错误", e);
         }
+        this.invalidateQueryCache(Collections.singleton(object));
         return state;
     }
 
+    /**
+     * 批量添加
+     *
+     * @param objects   实体对象集合
+     * @param batchSize 每批条数，必须大于0
+     * @return 各批次结果
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BatchResult saveAll(Collection<?> objects, int batchSize) {
+        return this.executeBatch(objects, batchSize, Session::save, "保存");
+    }
+
+    /**
+     * 批量更新
+     *
+     * @param objects   实体对象集合
+     * @param batchSize 每批条数，必须大于0
+     * @return 各批次结果
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BatchResult updateAll(Collection<?> objects, int batchSize) {
+        return this.executeBatch(objects, batchSize, Session::update, "更新");
+    }
+
+    /**
+     * 批量删除
+     *
+     * @param objects   实体对象集合
+     * @param batchSize 每批条数，必须大于0
+     * @return 各批次结果
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BatchResult deleteAll(Collection<?> objects, int batchSize) {
+        return this.executeBatch(objects, batchSize, Session::delete, "删除");
+    }
+
+    /**
+     * 分批执行，每批batchSize次操作，JDBC批大小设为batchSize，
+     * 刷新时同一批的语句按实体排序后通过JDBC批处理发送（见hibernate.order_inserts、hibernate.order_updates）
+     * 调用方有事务时加入该事务（SUPPORTS），每批刷新后清空session，随调用方事务一起提交或回滚，
+     * 能看到调用方未提交的数据；某一批失败时事务已不能提交，直接抛出异常
+     * 调用方没有事务时每批在独立的新事务中执行并提交，成功的批次已经提交；某一批失败时只回滚该批，后续批次不再执行
+     *
+     * @param objects   实体对象集合
+     * @param batchSize 每批条数
+     * @param operation 对单个实体对象的操作
+     * @param action    操作名称，用于日志
+     * @return 各批次结果
+     */
+    private BatchResult executeBatch(Collection<?> objects, int batchSize, BiConsumer<Session, Object> operation,
+                                     String action) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        BatchResult result = new BatchResult(objects.size());
+        if (objects.isEmpty()) {
+            return result;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            this.executeBatchInTransaction(objects, batchSize, operation, action, result);
+            return result;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+        Iterator<?> iterator = objects.iterator();
+        int offset = 0;
+        for (int index = 0; iterator.hasNext(); index++) {
+            int size = Math.min(batchSize, result.getTotal() - offset);
+            List<Object> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(iterator.next());
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                transactionTemplate.execute(status -> {
+                    Session session = this.getSession();
+                    session.setJdbcBatchSize(batchSize);
+                    for (Object object : batch) {
+                        operation.accept(session, object);
+                    }
+                    session.flush();
+                    this.invalidateQueryCache(batch);
+                    return null;
+                });
+                result.add(new BatchResult.Batch(index, offset, size, null, System.currentTimeMillis() - startTime));
+            } catch (Exception e) {
+                logger.error("实体对象数据库批量" + action + "错误，批次" + index + "，起始位置" + offset, e);
+                result.add(new BatchResult.Batch(index, offset, size, String.valueOf(e),
+                        System.currentTimeMillis() - startTime));
+                break;
+            }
+            offset += size;
+        }
+        if (!result.isSuccess()) {
+            logger.warn("实体对象数据库批量" + action + "未全部成功：" + result);
+        }
+        return result;
+    }
+
+    /**
+     * 在调用方的事务中分批执行：每批执行后刷新并清空session，JDBC批大小临时设为batchSize
+     * 某一批失败时清空session丢弃未刷新的状态并抛出异常，由调用方事务回滚
+     *
+     * @param objects   实体对象集合
+     * @param batchSize 每批条数
+     * @param operation 对单个实体对象的操作
+     * @param action    操作名称，用于日志
+     * @param result    各批次结果
+     */
+    private void executeBatchInTransaction(Collection<?> objects, int batchSize, BiConsumer<Session, Object> operation,
+                                           String action, BatchResult result) {
+        Session session = this.getSession();
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            Iterator<?> iterator = objects.iterator();
+            int offset = 0;
+            for (int index = 0; iterator.hasNext(); index++) {
+                int size = Math.min(batchSize, result.getTotal() - offset);
+                List<Object> batch = new ArrayList<>(size);
+                long startTime = System.currentTimeMillis();
+                try {
+                    for (int i = 0; i < size; i++) {
+                        Object object = iterator.next();
+                        batch.add(object);
+                        operation.accept(session, object);
+                    }
+                    session.flush();
+                    session.clear();
+                } catch (RuntimeException e) {
+                    logger.error("实体对象数据库批量" + action + "错误，批次" + index + "，起始位置" + offset, e);
+                    session.clear();
+                    throw e;
+                } finally {
+                    this.invalidateQueryCache(batch);
+                }
+                result.add(new BatchResult.Batch(index, offset, size, null, System.currentTimeMillis() - startTime));
+                offset += size;
+            }
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
     /**
      * 获取与综合条件
      *
      * @param conditions 条件队列
      * @return 综合条件
+     * @deprecated 使用{@link Condition}
      */
+    @Deprecated
     @Override
     public String getAndCondition(HashSet<String> conditions) {
         StringBuilder oneCondition = new StringBuilder();
@@ -157,7 +383,9 @@ public class CommonDaoImpl implements ICommonDao {
      *
      * @param conditions 条件队列
      * @return 综合条件
+     * @deprecated 使用{@link Condition}
      */
+    @Deprecated
     @Override
     public String getOrCondition(HashSet<String> conditions) {
         StringBuilder oneCondition = new StringBuilder();
@@ -201,9 +429,7 @@ public class CommonDaoImpl implements ICommonDao {
      */
     @Override
     public <T> List<T> queryAll(Class<T> model) {
-        List<T> models = new ArrayList<>();
-        models.addAll(this.queryModels(null, model));
-        return models;
+        return this.queryModels(null, model);
     }
 
     /**
@@ -216,10 +442,59 @@ public class CommonDaoImpl implements ICommonDao {
      */
     @Override
     public <T> List<T> queryPage(int start, int limit, Class<T> model) {
-        List<T> models = new ArrayList<>();
         String hql = "from " + model.getName() + " as model order by model.createTime Desc";
-        models.addAll(this.queryModels(start, limit, hql, model));
-        return models;
+        return this.queryModels(start, limit, hql, model);
+    }
+
+    /**
+     * 键集分页查询实体
+     * 多取一条判断是否有下一页，同时查出createTime、id作为续页的键
+     *
+     * @param condition hibernate 查询条件，为空时查询全部
+     * @param pageToken 上一页返回的续页令牌，为空时查询第一页
+     * @param limit     条数限制
+     * @param model     实体类
+     * @param <T>       类型
+     * @return 本页实体对象及下一页的续页令牌
+     * @throws IllegalArgumentException limit不大于0或续页令牌无效
+     */
+    @Override
+    public <T> KeysetPage<T> queryKeysetPage(String condition, String pageToken, int limit, Class<T> model) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive: " + limit);
+        }
+        KeysetPage.Key after = pageToken != null && !pageToken.isEmpty() ? KeysetPage.Key.parse(pageToken) : null;
+        List<T> models = new ArrayList<>();
+        KeysetPage.Key next = null;
+        Session session = this.getSession();
+        StringBuilder hql = new StringBuilder("select model, model.createTime, model.id from ")
+                .append(model.getName()).append(" as model");
+        List<String> conditions = new ArrayList<>();
+        if (condition != null && !condition.isEmpty()) {
+            conditions.add("(" + condition + ")");
+        }
+        if (after != null) {
+            conditions.add("(model.createTime < :createTime or (model.createTime = :createTime and model.id < :id))");
+        }
+        if (!conditions.isEmpty()) {
+            hql.append(" where ").append(String.join(" and ", conditions));
+        }
+        hql.append(" order by model.createTime desc, model.id desc");
+        Query<Object[]> query = this.createQuery(session, hql.toString(), Object[].class);
+        if (after != null) {
+            query.setParameter("createTime", after.getCreateTime());
+            query.setParameter("id", after.getId());
+        }
+        query.setMaxResults(limit + 1);
+        List<Object[]> rows = query.list();
+        for (int i = 0; i < rows.size() && i < limit; i++) {
+            models.add(model.cast(rows.get(i)[0]));
+        }
+        if (rows.size() > limit) {
+            Object[] last = rows.get(limit - 1);
+            next = new KeysetPage.Key(last[1], last[2]);
+        }
+        return new KeysetPage<>(models, next);
     }
 
     /**
@@ -240,9 +515,11 @@ public class CommonDaoImpl implements ICommonDao {
         }
 
         try {
-            Session session = this.getSession();
-            Query<Long> query = session.createQuery(hql, Long.class);
-            return query.getSingleResult();
+            return this.cachedCount(new QueryCache.Key(model, "count", hql, null), () -> {
+                Session session = this.getSession();
+                Query<Long> query = this.createQuery(session, hql, Long.class);
+                return query.getSingleResult();
+            });
         } catch (Exception e) {
             logger.error("total count query is failed", e);
         }
@@ -270,24 +547,20 @@ public class CommonDaoImpl implements ICommonDao {
      */
     @Override
     public <T> T queryModel(String condition, Class<T> model) {
+        String hql;
+        if (condition != null && !condition.isEmpty()) {
+            hql = "from " + model.getName() + " as model where " + condition;
+        } else {
+            hql = "from " + model.getName() + " as model";
+        }
         try {
             Session session = this.getSession();
-            if (condition != null && !condition.isEmpty()) {
-                Query<T> query = session.createQuery("from " + model.getName() + " as model where " + condition, model);
-                List<T> results = query.list();
-                if (results.isEmpty()) {
-                    return null;
-                } else {
-                    return results.get(0);
-                }
+            Query<T> query = this.createModelQuery(session, hql, model);
+            List<T> results = query.setMaxResults(1).list();
+            if (results.isEmpty()) {
+                return null;
             } else {
-                Query<T> query = session.createQuery("from " + model.getName() + " as model", model);
-                List<T> results = query.list();
-                if (results.isEmpty()) {
-                    return null;
-                } else {
-                    return results.get(0);
-                }
+                return results.get(0);
             }
         } catch (Exception e) {
             logger.error("model condition query is failed", e);
@@ -305,21 +578,20 @@ public class CommonDaoImpl implements ICommonDao {
      */
     @Override
     public <T> List<T> queryModels(String condition, Class<T> model) {
-        List<T> models = new ArrayList<>();
+        String hql;
+        if (condition != null && !condition.isEmpty()) {
+            hql = "from " + model.getName() + " as model where " + condition;
+        } else {
+            hql = "from " + model.getName() + " as model";
+        }
         try {
             Session session = this.getSession();
-            if (condition != null && !condition.isEmpty()) {
-                Query<T> query = session.createQuery("from " + model.getName() + " as model where " + condition, model);
-                models.addAll(query.list());
-            } else {
-                Query<T> query = session.createQuery("from " + model.getName() + " as model", model);
-                models.addAll(query.list());
-            }
-
+            Query<T> query = this.createModelQuery(session, hql, model);
+            return query.list();
         } catch (Exception e) {
             logger.error("models condition query is failed", e);
         }
-        return models;
+        return new ArrayList<>();
     }
 
     /**
@@ -333,14 +605,361 @@ public class CommonDaoImpl implements ICommonDao {
      */
     @Override
     public <T> List<T> queryModels(int start, int limit, String hql, Class<T> model) {
-        List<T> models = new ArrayList<>();
         try {
             Session session = this.getSession();
-            Query<T> query = this.makePage(session.createQuery(hql, model), start, limit);
-            models.addAll(query.list());
+            Query<T> query = this.makePage(this.createModelQuery(session, hql, model), start, limit);
+            return query.list();
         } catch (Exception e) {
             logger.error("models page condition query is failed", e);
         }
-        return models;
+        return new ArrayList<>();
+    }
+
+    /**
+     * 流式条件查询实体对象
+     * 从流式查询专用的数据源（mysql-stream-DS，连接参数useCursorFetch=true）取一个连接，在该连接上打开独立的只读session，
+     * 只有这个连接使用服务端游标和服务端预处理语句，其他查询的连接不受影响；关闭流时依次关闭结果集、session并归还连接
+     *
+     * @param condition hibernate 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param fetchSize 每次从数据库读取的行数
+     * @param <T>       类型
+     * @return 实体对象流
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public <T> Stream<T> streamModels(String condition, Class<T> model, int fetchSize) {
+        String hql = "from " + model.getName() + " as model";
+        if (condition != null && !condition.isEmpty()) {
+            hql += " where " + condition;
+        }
+        //不用DataSourceUtils：有事务同步时它会在本方法返回时归还连接，而流在返回后才开始读取
+        Connection connection;
+        try {
+            connection = this.streamDataSource.getConnection();
+        } catch (SQLException e) {
+            throw new CannotGetJdbcConnectionException("Could not get JDBC Connection for stream query", e);
+        }
+        Session session = null;
+        try {
+            session = this.sessionFactory.withOptions().connection(connection).openSession();
+            session.setDefaultReadOnly(true);
+            Query<T> query = this.createQuery(session, hql, model);
+            query.setFetchSize(fetchSize);
+            query.setReadOnly(true);
+            query.setCacheMode(CacheMode.IGNORE);
+            ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+            Session streamSession = session;
+            return StreamSupport.stream(new ScrollSpliterator<>(session, results, model), false)
+                    .onClose(() -> {
+                        try {
+                            results.close();
+                        } finally {
+                            this.closeStreamSession(streamSession, connection);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            this.closeStreamSession(session, connection);
+            throw e;
+        }
+    }
+
+    /**
+     * 关闭流式查询的session并归还连接
+     *
+     * @param session    session，未打开时为null
+     * @param connection 流式查询专用数据源的连接，关闭即归还连接池
+     */
+    private void closeStreamSession(Session session, Connection connection) {
+        try {
+            if (session != null) {
+                session.close();
+            }
+        } finally {
+            JdbcUtils.closeConnection(connection);
+        }
+    }
+
+    /**
+     * 流式条件查询实体对象，逐个回调
+     *
+     * @param condition hibernate 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param fetchSize 每次从数据库读取的行数
+     * @param consumer  实体对象回调
+     * @param <T>       类型
+     * @return 处理的实体对象数
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public <T> long forEachModel(String condition, Class<T> model, int fetchSize, Consumer<? super T> consumer) {
+        //用forEach而不是iterator，iterator会先取出下一个实体（此时已移除）再交给回调，回调里无法再加载延迟属性
+        long[] count = {0};
+        try (Stream<T> models = this.streamModels(condition, model, fetchSize)) {
+            models.forEach(entity -> {
+                consumer.accept(entity);
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    /**
+     * 按条件构造器查询实体总数
+     *
+     * @param condition 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param <T>       实体泛型
+     * @return 实体总数
+     */
+    @Override
+    public <T> long queryTotalCountBy(Condition condition, Class<T> model) {
+        try {
+            Condition.Rendered rendered = condition != null ? condition.render() : Condition.and().render();
+            String hql = "select count(*) from " + model.getName() + " as model" + where(rendered);
+            return this.cachedCount(new QueryCache.Key(model, "count", hql, rendered.getParameters()), () -> {
+                Session session = this.getSession();
+                Query<Long> query = this.createQuery(session, hql, Long.class);
+                return this.bind(query, rendered).getSingleResult();
+            });
+        } catch (Exception e) {
+            logger.error("total count query is failed", e);
+        }
+        return 0;
+    }
+
+    /**
+     * 按条件构造器查询一个实体对象，只取一条
+     *
+     * @param condition 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param <T>       类型
+     * @return 实体对象，没有时为null
+     */
+    @Override
+    public <T> T queryModelBy(Condition condition, Class<T> model) {
+        try {
+            Session session = this.getSession();
+            Condition.Rendered rendered = condition != null ? condition.render() : Condition.and().render();
+            Query<T> query = this.createModelQuery(session, "from " + model.getName() + " as model" + where(rendered), model);
+            List<T> results = this.bind(query, rendered).setMaxResults(1).list();
+            if (!results.isEmpty()) {
+                return results.get(0);
+            }
+        } catch (Exception e) {
+            logger.error("model condition query is failed", e);
+        }
+        return null;
+    }
+
+    /**
+     * 按条件构造器查询实体对象
+     *
+     * @param condition 查询条件，为空时查询全部
+     * @param model     实体类
+     * @param <T>       类型
+     * @return 实体对象列表
+     */
+    @Override
+    public <T> List<T> queryModelsBy(Condition condition, Class<T> model) {
+        try {
+            Session session = this.getSession();
+            Condition.Rendered rendered = condition != null ? condition.render() : Condition.and().render();
+            Query<T> query = this.createModelQuery(session, "from " + model.getName() + " as model" + where(rendered), model);
+            return this.bind(query, rendered).list();
+        } catch (Exception e) {
+            logger.error("models condition query is failed", e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 查询计划缓存命中统计
+     *
+     * @return 统计快照
+     */
+    @Override
+    public QueryPlanStatistics getQueryPlanStatistics() {
+        return queryPlanTracker.snapshot();
+    }
+
+    /**
+     * 计数缓存统计
+     *
+     * @return 统计快照
+     */
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        return queryCache.snapshot();
+    }
+
+    /**
+     * 清空计数缓存
+     */
+    @Override
+    public void clearCache() {
+        queryCache.clear();
+    }
+
+    /**
+     * 通过计数缓存查询计数
+     * 在非只读事务中直接查询数据库，不读也不写缓存：该事务可能已写入未提交的数据，
+     * 查到的计数在事务回滚后不成立，已缓存的计数也不包含该事务自己的修改
+     *
+     * @param key    缓存键
+     * @param loader 数据库查询
+     * @return 计数
+     * @throws Exception 数据库查询异常
+     */
+    private long cachedCount(QueryCache.Key key, Callable<Long> loader) throws Exception {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.call();
+        }
+        return queryCache.get(key, loader);
+    }
+
+    /**
+     * 实体对象添加、更新、删除后清除相关的计数缓存
+     * 立即清除一次，使本事务后续的查询看到修改；事务结束（提交或回滚）后再清除一次，
+     * 避免其他事务在本事务提交前读到旧数据并放入缓存，或缓存了本事务回滚掉的数据
+     *
+     * @param objects 实体对象
+     */
+    private void invalidateQueryCache(Collection<?> objects) {
+        Set<Class<?>> models = new HashSet<>();
+        for (Object object : objects) {
+            if (object != null) {
+                models.add(object.getClass());
+            }
+        }
+        for (Class<?> model : models) {
+            queryCache.invalidate(model);
+        }
+        if (models.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        //每个事务只注册一次，事务结束时清除本事务修改过的所有实体类
+        @SuppressWarnings("unchecked")
+        Set<Class<?>> pending = (Set<Class<?>>) TransactionSynchronizationManager.getResource(queryCache);
+        if (pending == null) {
+            Set<Class<?>> changed = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(queryCache, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(queryCache);
+                    for (Class<?> model : changed) {
+                        queryCache.invalidate(model);
+                    }
+                }
+            });
+            pending = changed;
+        }
+        pending.addAll(models);
+    }
+
+    /**
+     * 创建查询器并记录语句，用于统计查询计划缓存命中
+     *
+     * @param session     session
+     * @param hql         HQL语句
+     * @param resultClass 结果类型
+     * @param <R>         结果泛型
+     * @return 查询器
+     */
+    private <R> Query<R> createQuery(Session session, String hql, Class<R> resultClass) {
+        queryPlanTracker.record(hql);
+        return session.createQuery(hql, resultClass);
+    }
+
+    /**
+     * 创建实体查询器，实体类启用了二级缓存（@Cacheable）时使用查询缓存：
+     * 查询缓存只保存结果的实体标识，实体从二级缓存读取；表有增删改时hibernate自动使该表上的查询结果失效
+     *
+     * @param session session
+     * @param hql     HQL语句
+     * @param model   实体类
+     * @param <T>     实体泛型
+     * @return 查询器
+     */
+    private <T> Query<T> createModelQuery(Session session, String hql, Class<T> model) {
+        Query<T> query = this.createQuery(session, hql, model);
+        if (this.cachedModels.computeIfAbsent(model, this::isSecondLevelCached)) {
+            query.setCacheable(true);
+        }
+        return query;
+    }
+
+    /**
+     * @param model 实体类
+     * @return 实体类是否启用了二级缓存，不是映射的实体类（如查询父接口）时为false
+     */
+    private boolean isSecondLevelCached(Class<?> model) {
+        try {
+            return this.sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersister(model)
+                    .hasCache();
+        } catch (MappingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 绑定条件参数，集合值按参数列表绑定
+     *
+     * @param query    查询器
+     * @param rendered 生成的条件
+     * @param <R>      结果泛型
+     * @return 查询器
+     */
+    private <R> Query<R> bind(Query<R> query, Condition.Rendered rendered) {
+        for (Map.Entry<String, Object> parameter : rendered.getParameters().entrySet()) {
+            if (parameter.getValue() instanceof Collection) {
+                query.setParameterList(parameter.getKey(), (Collection<?>) parameter.getValue());
+            } else {
+                query.setParameter(parameter.getKey(), parameter.getValue());
+            }
+        }
+        return query;
+    }
+
+    /**
+     * @param rendered 生成的条件
+     * @return where子句，没有条件时为空串
+     */
+    private static String where(Condition.Rendered rendered) {
+        return rendered.getHql() != null ? " where " + rendered.getHql() : "";
+    }
+
+    /**
+     * 滚动结果集的Spliterator，每个实体交给下游处理后立即从session中移除（一级缓存不随行数增长）
+     *
+     * @param <T> 实体类型
+     */
+    private static final class ScrollSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Session session;
+        private final ScrollableResults results;
+        private final Class<T> model;
+
+        ScrollSpliterator(Session session, ScrollableResults results, Class<T> model) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.session = session;
+            this.results = results;
+            this.model = model;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (!results.next()) {
+                return false;
+            }
+            T entity = model.cast(results.get(0));
+            try {
+                action.accept(entity);
+            } finally {
+                session.evict(entity);
+            }
+            return true;
+        }
     }
 }
@@ -0,0 +1,226 @@
+package com.zxs.ssh.template.dao.common.impl;
+
+import com.zxs.ssh.template.dao.common.api.CacheStatistics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:QueryCache
+ * Package Name:com.zxs.ssh.template.dao.common.impl
+ * Date:2026/10/18
+ * Description:计数等标量查询结果缓存，按实体类、查询种类、规范化的HQL及参数缓存，容量满时淘汰最近最少使用的条目，条目超过存活时间失效
+ * 只缓存不可变的标量值，不缓存实体对象：实体对象属于加载它的session，共享给其他session或线程会带出未提交的修改、
+ * 延迟加载异常，更新时与其他session中的同一实体冲突，实体缓存应使用hibernate二级缓存
+ * 实体添加、更新、删除时清除该实体类及其父类上的所有条目；查询数据库期间发生过清除的结果不放入缓存，避免缓存旧数据；
+ * 通过脏检查（修改已加载实体的属性后刷新）改变的数据不会清除缓存，在存活时间内可能读到旧值
+ * 数据库查询在锁外进行，同一条目同时未命中时会各自查询一次
+ */
+
+
+class QueryCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, CachedValue> entries;
+
+    /**
+     * 每次清除加1，查询前后不同则结果不放入缓存
+     */
+    private long generation;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expirationCount;
+    private long invalidationCount;
+
+    /**
+     * @param maxSize   最大条目数，为0时不缓存
+     * @param ttlMillis 条目存活时间（毫秒）
+     */
+    QueryCache(int maxSize, long ttlMillis) {
+        if (maxSize < 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("invalid query cache settings: maxSize=" + maxSize + ", ttlMillis="
+                    + ttlMillis);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1000000L;
+        this.entries = new LinkedHashMap<Key, CachedValue>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedValue> eldest) {
+                if (size() > QueryCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 读取缓存，未命中时查询并放入缓存
+     *
+     * @param key    缓存键
+     * @param loader 数据库查询
+     * @param <V>    结果类型，必须是不可变的标量值（如Long），不能是实体对象
+     * @return 结果
+     * @throws Exception 数据库查询异常，异常不缓存
+     */
+    @SuppressWarnings("unchecked")
+    <V> V get(Key key, Callable<V> loader) throws Exception {
+        Object[] cached = lookup(key);
+        if (cached != null) {
+            return (V) cached[0];
+        }
+        long start = currentGeneration();
+        V value = loader.call();
+        store(key, value, start);
+        return value;
+    }
+
+    /**
+     * 清除查询结果可能包含该类实体的条目，即实体类为该类或其父类、接口的条目
+     *
+     * @param changed 添加、更新、删除的实体对象的类
+     */
+    synchronized void invalidate(Class<?> changed) {
+        generation++;
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().model.isAssignableFrom(changed)) {
+                iterator.remove();
+                invalidationCount++;
+            }
+        }
+    }
+
+    /**
+     * 清除全部条目
+     */
+    synchronized void clear() {
+        generation++;
+        invalidationCount += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * @return 统计快照
+     */
+    synchronized CacheStatistics snapshot() {
+        return new CacheStatistics(hitCount, missCount, evictionCount, expirationCount, invalidationCount,
+                entries.size());
+    }
+
+    /**
+     * @param key 缓存键
+     * @return 命中时为长度1的数组，未命中时为null
+     */
+    private synchronized Object[] lookup(Key key) {
+        CachedValue entry = entries.get(key);
+        if (entry != null) {
+            if (System.nanoTime() - entry.expiresAt < 0) {
+                hitCount++;
+                return new Object[]{entry.value};
+            }
+            entries.remove(key);
+            expirationCount++;
+        }
+        missCount++;
+        return null;
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private synchronized void store(Key key, Object value, long start) {
+        if (maxSize > 0 && generation == start) {
+            entries.put(key, new CachedValue(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /**
+     * 规范化HQL：去掉首尾空白，引号外的连续空白合并为一个空格，引号内不变
+     *
+     * @param hql HQL语句
+     * @return 规范化后的语句
+     */
+    static String normalize(String hql) {
+        StringBuilder normalized = new StringBuilder(hql.length());
+        boolean quoted = false;
+        boolean space = false;
+        for (int i = 0; i < hql.length(); i++) {
+            char c = hql.charAt(i);
+            if (!quoted && Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && normalized.length() > 0) {
+                normalized.append(' ');
+            }
+            space = false;
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            normalized.append(c);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * 缓存键：实体类、查询种类、规范化的HQL、绑定参数
+     */
+    static final class Key {
+        private final Class<?> model;
+        private final String kind;
+        private final String hql;
+        private final Map<String, Object> parameters;
+
+        /**
+         * @param model      实体类
+         * @param kind       查询种类
+         * @param hql        HQL语句
+         * @param parameters 绑定参数，没有时为空
+         */
+        Key(Class<?> model, String kind, String hql, Map<String, Object> parameters) {
+            this.model = model;
+            this.kind = kind;
+            this.hql = normalize(hql);
+            this.parameters = parameters;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return model == key.model && kind.equals(key.kind) && hql.equals(key.hql)
+                    && Objects.equals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(model, kind, hql, parameters);
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class CachedValue {
+        private final Object value;
+        private final long expiresAt;
+
+        CachedValue(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
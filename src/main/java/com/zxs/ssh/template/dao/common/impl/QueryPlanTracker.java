@@ -0,0 +1,85 @@
+package com.zxs.ssh.template.dao.common.impl;
+
+import com.zxs.ssh.template.dao.common.api.QueryPlanStatistics;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.query.spi.QueryPlanCache;
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:QueryPlanTracker
+ * Package Name:com.zxs.ssh.template.dao.common.impl
+ * Date:2026/10/18
+ * Description:按HQL语句模拟hibernate查询计划缓存，统计命中与未命中
+ * hibernate 5.2的Statistics没有查询计划缓存的命中数（5.4才有getQueryPlanCacheHitCount），
+ * 这里与QueryPlanCache使用同一种结构：同样大小（读取同样的配置项）、同样分段数、LIRS淘汰的BoundedConcurrentHashMap，
+ * 先查后放的方式也相同；分段加锁，不会让所有查询线程串行。过滤器不同的同一语句在hibernate中是不同的计划，这里不区分
+ */
+
+
+class QueryPlanTracker {
+    /**
+     * 与QueryPlanCache相同的并发分段数
+     */
+    private static final int CONCURRENCY_LEVEL = 20;
+
+    private final BoundedConcurrentHashMap<String, Boolean> plans;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * @param properties hibernate配置，按hibernate.query.plan_cache_max_size（旧配置项
+     *                   hibernate.query.plan_cache_max_soft_references）确定大小，都没有时为默认值2048
+     */
+    QueryPlanTracker(Map<?, ?> properties) {
+        this(maxSize(properties));
+    }
+
+    /**
+     * @param maxSize 缓存的语句数上限，应与hibernate查询计划缓存一致
+     */
+    QueryPlanTracker(int maxSize) {
+        this.plans = new BoundedConcurrentHashMap<>(maxSize, CONCURRENCY_LEVEL,
+                BoundedConcurrentHashMap.Eviction.LIRS);
+    }
+
+    /**
+     * 记录一次查询
+     *
+     * @param hql HQL语句
+     */
+    void record(String hql) {
+        if (plans.get(hql) != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+            plans.put(hql, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return 统计快照
+     */
+    QueryPlanStatistics snapshot() {
+        return new QueryPlanStatistics(hitCount.sum(), missCount.sum(), plans.size());
+    }
+
+    /**
+     * 按hibernate QueryPlanCache的规则读取查询计划缓存大小
+     *
+     * @param properties hibernate配置
+     * @return 缓存的语句数上限
+     */
+    private static int maxSize(Map<?, ?> properties) {
+        Integer maxSize = ConfigurationHelper.getInteger(AvailableSettings.QUERY_PLAN_CACHE_MAX_SIZE, properties);
+        if (maxSize == null) {
+            maxSize = ConfigurationHelper.getInt(AvailableSettings.QUERY_PLAN_CACHE_MAX_SOFT_REFERENCES, properties,
+                    QueryPlanCache.DEFAULT_QUERY_PLAN_MAX_COUNT);
+        }
+        return maxSize;
+    }
+}
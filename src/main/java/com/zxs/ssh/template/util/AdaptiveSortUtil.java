@@ -0,0 +1,1229 @@
+package com.zxs.ssh.template.util;
+
+/**
+ * Project Name:sort-alg
+ * File Name:AdaptiveSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:自适应归并排序（TimSort），利用输入中已有的有序段，基本有序的数据接近O(n)
+ */
+
+
+public class AdaptiveSortUtil {
+
+    /**
+     * 数据量小于该值时不归并，直接二分插入排序
+     */
+    private static final int MIN_MERGE = 32;
+
+    /**
+     * 进入飞奔模式的初始连续胜出次数
+     */
+    private static final int MIN_GALLOP = 7;
+
+    /**
+     * 临时数组初始长度
+     */
+    private static final int INITIAL_TMP_LENGTH = 256;
+
+    /**
+     * 待归并段栈的最大深度，段长满足斐波那契增长，int范围内的数组不会超过该深度
+     */
+    private static final int MAX_RUN_STACK = 49;
+
+    /**
+     * 自适应排序(升序)
+     * 算法步骤：1.从左往右识别自然有序段（升序段，或者严格降序段并原地翻转）  2.有序段短于minRun时用二分插入补足
+     * 3.有序段入栈，栈顶各段长度不满足斐波那契增长时归并相邻两段  4.归并时先用gallop跳过已在最终位置的前缀和后缀，
+     * 某一段连续胜出多次后进入飞奔模式，按块复制
+     * 已经有序或者逆序的数据只需n-1次比较；由少量有序段拼成的数据为O(n + nlogr)，r为有序段个数
+     * 性质：1、时间复杂度：O(nlogn)，最好O(n)  2、空间复杂度：O(n/2)  3、稳定排序  4、非原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int adaptiveSort(int[] a, int length) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("ADAPTIVE", length);
+        }
+        try {
+            IntTimSort.sort(a, 0, length);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 自适应排序，对a[fromIndex, toIndex)排序，其余部分不变
+     * 降序时先按位取反，升序排序后再取反回来（见SortUtil.complement），相等的数仍保持原来的先后顺序；
+     * 原本降序的数据取反后是升序，仍只需n-1次比较
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
+     */
+    public static int adaptiveSort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        SortUtil.checkRange(a.length, fromIndex, toIndex);
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("ADAPTIVE", toIndex - fromIndex);
+        }
+        try {
+            if (!asc) {
+                SortUtil.complement(a, fromIndex, toIndex);
+            }
+            IntTimSort.sort(a, fromIndex, toIndex);
+            if (!asc) {
+                SortUtil.complement(a, fromIndex, toIndex);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * 自适应排序(升序)，long数组
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int adaptiveSort(long[] a, int length) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("ADAPTIVE", length);
+        }
+        try {
+            LongTimSort.sort(a, 0, length);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 自适应排序，对a[fromIndex, toIndex)排序
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     */
+    static void adaptiveSort(int[] a, int fromIndex, int toIndex) {
+        IntTimSort.sort(a, fromIndex, toIndex);
+    }
+
+    /**
+     * 自适应排序，对a[fromIndex, toIndex)排序
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     */
+    static void adaptiveSort(long[] a, int fromIndex, int toIndex) {
+        LongTimSort.sort(a, fromIndex, toIndex);
+    }
+
+    /**
+     * 计算最短有序段长度minRun，取值在[MIN_MERGE/2, MIN_MERGE]之间，使n/minRun恰好或略小于2的幂，归并时两边长度接近
+     *
+     * @param n 数组长度
+     * @return 最短有序段长度
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * int数组的自然归并排序实现，每次排序创建一个实例，保存待归并的段栈和临时数组
+     */
+    private static final class IntTimSort {
+        private final int[] a;
+        private int[] tmp;
+        private int minGallop = MIN_GALLOP;
+        private final int[] runBase = new int[MAX_RUN_STACK];
+        private final int[] runLen = new int[MAX_RUN_STACK];
+        private int stackSize = 0;
+
+        IntTimSort(int[] a, int length) {
+            this.a = a;
+            this.tmp = new int[length < 2 * INITIAL_TMP_LENGTH ? length >>> 1 : INITIAL_TMP_LENGTH];
+            if (SortMetrics.ENABLED) {
+                SortMetrics.buffer((long) Integer.BYTES * tmp.length);
+            }
+        }
+
+        /**
+         * 对a[lo, hi)排序
+         *
+         * @param a  待排序数组
+         * @param lo 起始索引(包含)
+         * @param hi 结束索引(不包含)
+         */
+        static void sort(int[] a, int lo, int hi) {
+            int remaining = hi - lo;
+            if (remaining < 2) {
+                return;
+            }
+            //数据量较小时不归并，直接对第一段之后的数做二分插入
+            if (remaining < MIN_MERGE) {
+                int initRunLen = countRunAndMakeAscending(a, lo, hi);
+                long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+                binarySort(a, lo, hi, lo + initRunLen);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.run();
+                    SortMetrics.record(SortMetrics.Phase.INSERTION, startNanos, 0, 0, 0);
+                }
+                return;
+            }
+            IntTimSort ts = new IntTimSort(a, remaining);
+            int minRun = minRunLength(remaining);
+            do {
+                int runLength = countRunAndMakeAscending(a, lo, hi);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.run();
+                }
+                //自然有序段太短时，用二分插入补足到minRun
+                if (runLength < minRun) {
+                    int force = remaining <= minRun ? remaining : minRun;
+                    long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+                    binarySort(a, lo, lo + force, lo + runLength);
+                    if (SortMetrics.ENABLED) {
+                        SortMetrics.record(SortMetrics.Phase.INSERTION, startNanos, 0, 0, 0);
+                    }
+                    runLength = force;
+                }
+                ts.pushRun(lo, runLength);
+                ts.mergeCollapse();
+                lo += runLength;
+                remaining -= runLength;
+            } while (remaining != 0);
+            ts.mergeForceCollapse();
+        }
+
+        /**
+         * 二分插入排序，a[lo, start)已经有序，将a[start, hi)依次插入
+         *
+         * @param a     数组
+         * @param lo    起始索引(包含)
+         * @param hi    结束索引(不包含)
+         * @param start 第一个待插入的索引
+         */
+        private static void binarySort(int[] a, int lo, int hi, int start) {
+            if (start == lo) {
+                start++;
+            }
+            for (; start < hi; start++) {
+                int pivot = a[start];
+                int left = lo;
+                int right = start;
+                //相等时插到右边，保证稳定
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (pivot < a[mid]) {
+                        right = mid;
+                    } else {
+                        left = mid + 1;
+                    }
+                }
+                System.arraycopy(a, left, a, left + 1, start - left);
+                a[left] = pivot;
+            }
+        }
+
+        /**
+         * 从lo开始识别一个自然有序段，严格降序段原地翻转为升序（严格降序翻转后不破坏稳定性）
+         *
+         * @param a  数组
+         * @param lo 起始索引(包含)
+         * @param hi 结束索引(不包含)
+         * @return 有序段长度
+         */
+        private static int countRunAndMakeAscending(int[] a, int lo, int hi) {
+            int runHi = lo + 1;
+            if (runHi == hi) {
+                return 1;
+            }
+            if (a[runHi++] < a[lo]) {
+                while (runHi < hi && a[runHi] < a[runHi - 1]) {
+                    runHi++;
+                }
+                for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                    int temp = a[i];
+                    a[i] = a[j];
+                    a[j] = temp;
+                }
+            } else {
+                while (runHi < hi && a[runHi] >= a[runHi - 1]) {
+                    runHi++;
+                }
+            }
+            return runHi - lo;
+        }
+
+        /**
+         * 压入一个有序段
+         *
+         * @param base   起始索引
+         * @param length 长度
+         */
+        private void pushRun(int base, int length) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = length;
+            stackSize++;
+        }
+
+        /**
+         * 检查栈顶各段长度，不满足 len[n-1] > len[n] + len[n+1] 且 len[n] > len[n+1] 时归并，使段长呈斐波那契增长
+         */
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * 归并栈中剩余的所有段
+         */
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * 归并栈中第i段和第i+1段
+         *
+         * @param i 段索引
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+            if (SortMetrics.ENABLED) {
+                SortMetrics.merge();
+            }
+            //第一段中不大于第二段首元素的前缀已在最终位置
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) {
+                return;
+            }
+            //第二段中不小于第一段末元素的后缀已在最终位置
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) {
+                return;
+            }
+            long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+            if (SortMetrics.ENABLED) {
+                SortMetrics.record(SortMetrics.Phase.MERGE, startNanos, 0, 0, len1 + len2);
+            }
+        }
+
+        /**
+         * 在有序段中查找key的插入位置，相等时插在最左边
+         * 从hint开始按1、3、7...倍增步长试探，再在最后一个区间内二分
+         *
+         * @param key  查找值
+         * @param a    数组
+         * @param base 有序段起始索引
+         * @param len  有序段长度
+         * @param hint 开始试探的位置，0 <= hint < len
+         * @return k，满足a[base + k - 1] < key <= a[base + k]
+         */
+        private static int gallopLeft(int key, int[] a, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (key > a[base + hint]) {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && key > a[base + hint + ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && key <= a[base + hint - ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int temp = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - temp;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (key > a[base + m]) {
+                    lastOfs = m + 1;
+                } else {
+                    ofs = m;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * 在有序段中查找key的插入位置，相等时插在最右边
+         *
+         * @param key  查找值
+         * @param a    数组
+         * @param base 有序段起始索引
+         * @param len  有序段长度
+         * @param hint 开始试探的位置，0 <= hint < len
+         * @return k，满足a[base + k - 1] <= key < a[base + k]
+         */
+        private static int gallopRight(int key, int[] a, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (key < a[base + hint]) {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && key < a[base + hint - ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int temp = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - temp;
+            } else {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && key >= a[base + hint + ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (key < a[base + m]) {
+                    ofs = m;
+                } else {
+                    lastOfs = m + 1;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * 从左往右归并，len1 <= len2，第一段复制到临时数组
+         * 某一段连续胜出MIN_GALLOP次后进入飞奔模式，用gallop批量复制
+         *
+         * @param base1 第一段起始索引
+         * @param len1  第一段长度
+         * @param base2 第二段起始索引
+         * @param len2  第二段长度
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+                return;
+            }
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (a[cursor2] < tmp[cursor1]) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.gallop();
+                }
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+            } else {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+            }
+        }
+
+        /**
+         * 从右往左归并，len1 > len2，第二段复制到临时数组
+         *
+         * @param base1 第一段起始索引
+         * @param len1  第一段长度
+         * @param base2 第二段起始索引
+         * @param len2  第二段长度
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            int[] a = this.a;
+            int[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+                return;
+            }
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (tmp[cursor2] < a[cursor1]) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.gallop();
+                }
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+                    count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+            } else {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        /**
+         * 保证临时数组长度不小于minCapacity，不够时按2的幂扩容（不超过数组长度的一半）
+         *
+         * @param minCapacity 最小长度
+         * @return 临时数组
+         */
+        private int[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) {
+                    newSize = minCapacity;
+                } else {
+                    newSize = Math.min(newSize, a.length >>> 1);
+                }
+                tmp = new int[Math.max(newSize, minCapacity)];
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.buffer((long) Integer.BYTES * tmp.length);
+                }
+            }
+            return tmp;
+        }
+    }
+
+    /**
+     * long数组的自然归并排序实现，每次排序创建一个实例，保存待归并的段栈和临时数组
+     */
+    private static final class LongTimSort {
+        private final long[] a;
+        private long[] tmp;
+        private int minGallop = MIN_GALLOP;
+        private final int[] runBase = new int[MAX_RUN_STACK];
+        private final int[] runLen = new int[MAX_RUN_STACK];
+        private int stackSize = 0;
+
+        LongTimSort(long[] a, int length) {
+            this.a = a;
+            this.tmp = new long[length < 2 * INITIAL_TMP_LENGTH ? length >>> 1 : INITIAL_TMP_LENGTH];
+            if (SortMetrics.ENABLED) {
+                SortMetrics.buffer((long) Long.BYTES * tmp.length);
+            }
+        }
+
+        /**
+         * 对a[lo, hi)排序
+         *
+         * @param a  待排序数组
+         * @param lo 起始索引(包含)
+         * @param hi 结束索引(不包含)
+         */
+        static void sort(long[] a, int lo, int hi) {
+            int remaining = hi - lo;
+            if (remaining < 2) {
+                return;
+            }
+            //数据量较小时不归并，直接对第一段之后的数做二分插入
+            if (remaining < MIN_MERGE) {
+                int initRunLen = countRunAndMakeAscending(a, lo, hi);
+                long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+                binarySort(a, lo, hi, lo + initRunLen);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.run();
+                    SortMetrics.record(SortMetrics.Phase.INSERTION, startNanos, 0, 0, 0);
+                }
+                return;
+            }
+            LongTimSort ts = new LongTimSort(a, remaining);
+            int minRun = minRunLength(remaining);
+            do {
+                int runLength = countRunAndMakeAscending(a, lo, hi);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.run();
+                }
+                //自然有序段太短时，用二分插入补足到minRun
+                if (runLength < minRun) {
+                    int force = remaining <= minRun ? remaining : minRun;
+                    long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+                    binarySort(a, lo, lo + force, lo + runLength);
+                    if (SortMetrics.ENABLED) {
+                        SortMetrics.record(SortMetrics.Phase.INSERTION, startNanos, 0, 0, 0);
+                    }
+                    runLength = force;
+                }
+                ts.pushRun(lo, runLength);
+                ts.mergeCollapse();
+                lo += runLength;
+                remaining -= runLength;
+            } while (remaining != 0);
+            ts.mergeForceCollapse();
+        }
+
+        /**
+         * 二分插入排序，a[lo, start)已经有序，将a[start, hi)依次插入
+         *
+         * @param a     数组
+         * @param lo    起始索引(包含)
+         * @param hi    结束索引(不包含)
+         * @param start 第一个待插入的索引
+         */
+        private static void binarySort(long[] a, int lo, int hi, int start) {
+            if (start == lo) {
+                start++;
+            }
+            for (; start < hi; start++) {
+                long pivot = a[start];
+                int left = lo;
+                int right = start;
+                //相等时插到右边，保证稳定
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (pivot < a[mid]) {
+                        right = mid;
+                    } else {
+                        left = mid + 1;
+                    }
+                }
+                System.arraycopy(a, left, a, left + 1, start - left);
+                a[left] = pivot;
+            }
+        }
+
+        /**
+         * 从lo开始识别一个自然有序段，严格降序段原地翻转为升序（严格降序翻转后不破坏稳定性）
+         *
+         * @param a  数组
+         * @param lo 起始索引(包含)
+         * @param hi 结束索引(不包含)
+         * @return 有序段长度
+         */
+        private static int countRunAndMakeAscending(long[] a, int lo, int hi) {
+            int runHi = lo + 1;
+            if (runHi == hi) {
+                return 1;
+            }
+            if (a[runHi++] < a[lo]) {
+                while (runHi < hi && a[runHi] < a[runHi - 1]) {
+                    runHi++;
+                }
+                for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                    long temp = a[i];
+                    a[i] = a[j];
+                    a[j] = temp;
+                }
+            } else {
+                while (runHi < hi && a[runHi] >= a[runHi - 1]) {
+                    runHi++;
+                }
+            }
+            return runHi - lo;
+        }
+
+        /**
+         * 压入一个有序段
+         *
+         * @param base   起始索引
+         * @param length 长度
+         */
+        private void pushRun(int base, int length) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = length;
+            stackSize++;
+        }
+
+        /**
+         * 检查栈顶各段长度，不满足 len[n-1] > len[n] + len[n+1] 且 len[n] > len[n+1] 时归并，使段长呈斐波那契增长
+         */
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * 归并栈中剩余的所有段
+         */
+        private void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * 归并栈中第i段和第i+1段
+         *
+         * @param i 段索引
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+            if (SortMetrics.ENABLED) {
+                SortMetrics.merge();
+            }
+            //第一段中不大于第二段首元素的前缀已在最终位置
+            int k = gallopRight(a[base2], a, base1, len1, 0);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) {
+                return;
+            }
+            //第二段中不小于第一段末元素的后缀已在最终位置
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+            if (len2 == 0) {
+                return;
+            }
+            long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+            if (SortMetrics.ENABLED) {
+                SortMetrics.record(SortMetrics.Phase.MERGE, startNanos, 0, 0, len1 + len2);
+            }
+        }
+
+        /**
+         * 在有序段中查找key的插入位置，相等时插在最左边
+         * 从hint开始按1、3、7...倍增步长试探，再在最后一个区间内二分
+         *
+         * @param key  查找值
+         * @param a    数组
+         * @param base 有序段起始索引
+         * @param len  有序段长度
+         * @param hint 开始试探的位置，0 <= hint < len
+         * @return k，满足a[base + k - 1] < key <= a[base + k]
+         */
+        private static int gallopLeft(long key, long[] a, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (key > a[base + hint]) {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && key > a[base + hint + ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            } else {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && key <= a[base + hint - ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int temp = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - temp;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (key > a[base + m]) {
+                    lastOfs = m + 1;
+                } else {
+                    ofs = m;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * 在有序段中查找key的插入位置，相等时插在最右边
+         *
+         * @param key  查找值
+         * @param a    数组
+         * @param base 有序段起始索引
+         * @param len  有序段长度
+         * @param hint 开始试探的位置，0 <= hint < len
+         * @return k，满足a[base + k - 1] <= key < a[base + k]
+         */
+        private static int gallopRight(long key, long[] a, int base, int len, int hint) {
+            int lastOfs = 0;
+            int ofs = 1;
+            if (key < a[base + hint]) {
+                int maxOfs = hint + 1;
+                while (ofs < maxOfs && key < a[base + hint - ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                int temp = lastOfs;
+                lastOfs = hint - ofs;
+                ofs = hint - temp;
+            } else {
+                int maxOfs = len - hint;
+                while (ofs < maxOfs && key >= a[base + hint + ofs]) {
+                    lastOfs = ofs;
+                    ofs = (ofs << 1) + 1;
+                    if (ofs <= 0) {
+                        ofs = maxOfs;
+                    }
+                }
+                if (ofs > maxOfs) {
+                    ofs = maxOfs;
+                }
+                lastOfs += hint;
+                ofs += hint;
+            }
+            lastOfs++;
+            while (lastOfs < ofs) {
+                int m = lastOfs + ((ofs - lastOfs) >>> 1);
+                if (key < a[base + m]) {
+                    ofs = m;
+                } else {
+                    lastOfs = m + 1;
+                }
+            }
+            return ofs;
+        }
+
+        /**
+         * 从左往右归并，len1 <= len2，第一段复制到临时数组
+         * 某一段连续胜出MIN_GALLOP次后进入飞奔模式，用gallop批量复制
+         *
+         * @param base1 第一段起始索引
+         * @param len1  第一段长度
+         * @param base2 第二段起始索引
+         * @param len2  第二段长度
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            long[] a = this.a;
+            long[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            a[dest++] = a[cursor2++];
+            if (--len2 == 0) {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+                return;
+            }
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+                return;
+            }
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (a[cursor2] < tmp[cursor1]) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.gallop();
+                }
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+            if (len1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, len2);
+                a[dest + len2] = tmp[cursor1];
+            } else {
+                System.arraycopy(tmp, cursor1, a, dest, len1);
+            }
+        }
+
+        /**
+         * 从右往左归并，len1 > len2，第二段复制到临时数组
+         *
+         * @param base1 第一段起始索引
+         * @param len1  第一段长度
+         * @param base2 第二段起始索引
+         * @param len2  第二段长度
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            long[] a = this.a;
+            long[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+            a[dest--] = a[cursor1--];
+            if (--len1 == 0) {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+                return;
+            }
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+                return;
+            }
+            int minGallop = this.minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (tmp[cursor2] < a[cursor1]) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.gallop();
+                }
+                do {
+                    count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+                    count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (len2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            this.minGallop = minGallop < 1 ? 1 : minGallop;
+            if (len2 == 1) {
+                dest -= len1;
+                cursor1 -= len1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+                a[dest] = tmp[cursor2];
+            } else {
+                System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            }
+        }
+
+        /**
+         * 保证临时数组长度不小于minCapacity，不够时按2的幂扩容（不超过数组长度的一半）
+         *
+         * @param minCapacity 最小长度
+         * @return 临时数组
+         */
+        private long[] ensureCapacity(int minCapacity) {
+            if (tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity) << 1;
+                if (newSize < 0) {
+                    newSize = minCapacity;
+                } else {
+                    newSize = Math.min(newSize, a.length >>> 1);
+                }
+                tmp = new long[Math.max(newSize, minCapacity)];
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.buffer((long) Long.BYTES * tmp.length);
+                }
+            }
+            return tmp;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.zxs.ssh.template.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Project Name:sort-alg
+ * File Name:CountingSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:计数排序，取值范围较小（状态码、评分、SortUtil.main中的0-99）时O(n + range)
+ */
+
+
+public class CountingSortUtil {
+
+    /**
+     * 取值范围不超过该值时总是使用计数排序，直方图只有1KB
+     */
+    public static final int SMALL_RANGE = 1 << 8;
+
+    /**
+     * 取值范围不超过数组长度的该倍数时视为稠密，直方图遍历开销不超过数组遍历的常数倍
+     */
+    public static final int DENSITY_FACTOR = 2;
+
+    /**
+     * 计数排序允许的最大取值范围，超过时直方图本身的内存和遍历开销过大
+     */
+    public static final int MAX_RANGE = 1 << 24;
+
+    /**
+     * 并行计数排序每个分段的最少元素个数
+     */
+    private static final int MIN_STRIPE_LENGTH = 1 << 16;
+
+    /**
+     * 取值范围是否适合计数排序：不超过SMALL_RANGE，或者不超过数组长度的DENSITY_FACTOR倍（稠密）且不超过MAX_RANGE
+     *
+     * @param range  取值范围 max - min + 1
+     * @param length 数组长度
+     * @return 是否适合
+     */
+    public static boolean isCountable(long range, int length) {
+        return range <= SMALL_RANGE || range <= (long) DENSITY_FACTOR * length && range <= MAX_RANGE;
+    }
+
+    /**
+     * 计数排序(升序)
+     * 算法步骤：1.一次遍历求最小值、最大值  2.取值范围适合时统计每个值出现的次数  3.按值从小到大依次写回
+     * 取值范围过大时改用SortUtil.radixSort
+     * 性质：1、时间复杂度：O(n + range)  2、空间复杂度：O(range)  3、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int countingSort(int[] a, int length) {
+        return countingSort(a, 0, length, true);
+    }
+
+    /**
+     * 计数排序，对a[fromIndex, toIndex)排序，其余部分不变
+     * 降序时按值从大到小写回，不需要额外的翻转
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
+     */
+    public static int countingSort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        SortUtil.checkRange(a.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("COUNTING", length);
+        }
+        try {
+            countingSortHelp(a, fromIndex, toIndex, asc);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 计数排序，对a[fromIndex, toIndex)排序，取值范围过大时改用基数排序
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     */
+    private static void countingSortHelp(int[] a, int fromIndex, int toIndex, boolean asc) {
+        int length = toIndex - fromIndex;
+        if (length < 2) {
+            return;
+        }
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        int min = a[fromIndex];
+        int max = a[fromIndex];
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+            int value = a[i];
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        long range = (long) max - min + 1;
+        if (!isCountable(range, length)) {
+            SortUtil.radixSort(a, fromIndex, toIndex, asc);
+            return;
+        }
+        int[] count = new int[(int) range];
+        for (int i = fromIndex; i < toIndex; i++) {
+            count[a[i] - min]++;
+        }
+        int index = fromIndex;
+        for (int i = 0; i < count.length; i++) {
+            int bin = asc ? i : count.length - 1 - i;
+            int c = count[bin];
+            if (c != 0) {
+                Arrays.fill(a, index, index + c, min + bin);
+                index += c;
+            }
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.DISTRIBUTION, startNanos, 0, 0, length);
+            SortMetrics.buffer((long) Integer.BYTES * count.length);
+        }
+    }
+
+    /**
+     * 并行计数排序(升序)，使用公共线程池
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int parallelCountingSort(int[] a, int length) {
+        return parallelCountingSort(a, length, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行计数排序(升序)，适合取值范围较宽但稠密的大数组
+     * 算法步骤：1.分段并行求最小值、最大值  2.每个分段统计自己的直方图（各线程写各自的计数器，没有竞争）
+     * 3.按值区间并行汇总各分段直方图  4.求前缀和得到每个值的起始位置  5.按值区间并行写回
+     * 直方图个数不超过length / range，计数器总数不超过max(length, range)，汇总开销不超过O(n)；
+     * 取值范围与数组长度相当时只有一个直方图，串行计数，写回仍然并行
+     * 取值范围过大时改用并行快速排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param pool   调用方提供的线程池
+     */
+    public static int parallelCountingSort(int[] a, int length, ForkJoinPool pool) {
+        Objects.requireNonNull(pool, "pool");
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("PARALLEL_COUNTING", length);
+        }
+        try {
+            parallelCountingSortHelp(a, length, pool);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 并行计数排序(升序)，只在调用线程上计时，工作线程不记录度量
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param pool   线程池
+     */
+    private static void parallelCountingSortHelp(int[] a, int length, ForkJoinPool pool) {
+        int stripes = Math.min(pool.getParallelism(), Math.max(1, length / MIN_STRIPE_LENGTH));
+        if (stripes <= 1) {
+            countingSort(a, length);
+            return;
+        }
+        int stripeLength = (length + stripes - 1) / stripes;
+        int[] mins = new int[stripes];
+        int[] maxs = new int[stripes];
+        invokeAll(pool, stripes, stripe -> {
+            int from = stripe * stripeLength;
+            int to = Math.min(length, from + stripeLength);
+            int min = a[from];
+            int max = a[from];
+            for (int i = from + 1; i < to; i++) {
+                int value = a[i];
+                if (value < min) {
+                    min = value;
+                } else if (value > max) {
+                    max = value;
+                }
+            }
+            mins[stripe] = min;
+            maxs[stripe] = max;
+        });
+        int min = mins[0];
+        int max = maxs[0];
+        for (int stripe = 1; stripe < stripes; stripe++) {
+            min = Math.min(min, mins[stripe]);
+            max = Math.max(max, maxs[stripe]);
+        }
+        long range = (long) max - min + 1;
+        if (!isCountable(range, length)) {
+            ParallelSortUtil.parallelQuickSort(a, length, pool, ParallelSortUtil.DEFAULT_CUTOFF);
+            return;
+        }
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        int bins = (int) range;
+        int base = min;
+        //分段直方图，每个直方图至少对应range个元素，避免直方图内存和汇总开销超过数组本身
+        int histograms = (int) Math.min(stripes, Math.max(1, length / range));
+        int histogramLength = (length + histograms - 1) / histograms;
+        int[][] counts = new int[histograms][bins];
+        invokeAll(pool, histograms, histogram -> {
+            int[] count = counts[histogram];
+            int from = histogram * histogramLength;
+            int to = Math.min(length, from + histogramLength);
+            for (int i = from; i < to; i++) {
+                count[a[i] - base]++;
+            }
+        });
+        //按值区间汇总到counts[0]
+        int blocks = Math.min(stripes, bins);
+        int blockLength = (bins + blocks - 1) / blocks;
+        if (histograms > 1) {
+            invokeAll(pool, blocks, block -> {
+                int from = block * blockLength;
+                int to = Math.min(bins, from + blockLength);
+                int[] total = counts[0];
+                for (int histogram = 1; histogram < histograms; histogram++) {
+                    int[] count = counts[histogram];
+                    for (int bin = from; bin < to; bin++) {
+                        total[bin] += count[bin];
+                    }
+                }
+            });
+        }
+        //各值区间的起始位置
+        int[] total = counts[0];
+        int[] blockStart = new int[blocks];
+        int index = 0;
+        for (int block = 0; block < blocks; block++) {
+            blockStart[block] = index;
+            int to = Math.min(bins, (block + 1) * blockLength);
+            for (int bin = block * blockLength; bin < to; bin++) {
+                index += total[bin];
+            }
+        }
+        //按值区间并行写回
+        invokeAll(pool, blocks, block -> {
+            int position = blockStart[block];
+            int to = Math.min(bins, (block + 1) * blockLength);
+            for (int bin = block * blockLength; bin < to; bin++) {
+                int c = total[bin];
+                if (c != 0) {
+                    Arrays.fill(a, position, position + c, base + bin);
+                    position += c;
+                }
+            }
+        });
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.DISTRIBUTION, startNanos, 0, 0, length);
+            SortMetrics.buffer((long) Integer.BYTES * histograms * bins);
+        }
+    }
+
+    /**
+     * 在线程池中并行执行count个子任务并等待全部完成
+     *
+     * @param pool  线程池
+     * @param count 子任务个数
+     * @param task  子任务，参数为子任务序号
+     */
+    private static void invokeAll(ForkJoinPool pool, int count, IndexedTask task) {
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int index = i;
+                    tasks.add(ForkJoinTask.adapt(() -> task.run(index)));
+                }
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * 带序号的子任务
+     */
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
@@ -0,0 +1,246 @@
+package com.zxs.ssh.template.util;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Project Name:sort-alg
+ * File Name:DataGenerator
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:排序测试数据生成，数据分布见Distribution
+ * 数组按固定长度分块，每块使用从种子依次split出的SplittableRandom，各块并行填充；
+ * 分块方式与线程数无关，相同种子、相同长度在任何机器上都生成相同的数据
+ */
+
+
+public final class DataGenerator {
+
+    /**
+     * 分块长度，不足一块的数组串行填充
+     */
+    static final int CHUNK_LENGTH = 1 << 16;
+
+    private DataGenerator() {
+    }
+
+    /**
+     * 按分布生成数据
+     *
+     * @param distribution 数据分布
+     * @param length       数组长度
+     * @param seed         随机种子
+     * @return 数组
+     */
+    public static int[] generate(Distribution distribution, int length, long seed) {
+        return distribution.generate(length, seed);
+    }
+
+    /**
+     * 按分布生成数据并复制count份，用于在同一份数据上比较多个排序算法
+     *
+     * @param distribution 数据分布
+     * @param length       数组长度
+     * @param seed         随机种子
+     * @param count        份数
+     * @return count个内容相同、互相独立的数组
+     */
+    public static int[][] copies(Distribution distribution, int length, long seed, int count) {
+        int[][] copies = new int[count][];
+        if (count == 0) {
+            return copies;
+        }
+        copies[0] = distribution.generate(length, seed);
+        for (int i = 1; i < count; i++) {
+            copies[i] = copies[0].clone();
+        }
+        return copies;
+    }
+
+    /**
+     * 基本有序数据：0, 1, ..., length - 1中随机交换swaps对
+     *
+     * @param length 数组长度
+     * @param swaps  交换次数
+     * @param seed   随机种子
+     * @return 数组
+     */
+    public static int[] nearlySorted(int length, int swaps, long seed) {
+        if (swaps < 0) {
+            throw new IllegalArgumentException("swaps must not be negative: " + swaps);
+        }
+        int[] a = new int[length];
+        nearlySorted(a, swaps, seed);
+        return a;
+    }
+
+    /**
+     * 填充基本有序数据
+     *
+     * @param a     数组
+     * @param swaps 交换次数
+     * @param seed  随机种子
+     */
+    static void nearlySorted(int[] a, int swaps, long seed) {
+        parallelFill(a, seed, (array, from, to, random) -> {
+            for (int i = from; i < to; i++) {
+                array[i] = i;
+            }
+        });
+        if (a.length < 2) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int s = 0; s < swaps; s++) {
+            SortUtil.swap(a, random.nextInt(a.length), random.nextInt(a.length));
+        }
+    }
+
+    /**
+     * 三数取中杀手序列（Musser构造）：以首、中、尾三数取中为轴值时，每次划分只分出很小的一段，
+     * 普通快速排序退化为O(n²)，内省排序在此输入上会改用堆排序
+     * 构造要求k为偶数，只对前m个数构造（m为不超过length的4的最大倍数，k = m / 2）：前一半两两一组为i, k + i（i = 1, 3, 5, ...），
+     * 后一半为2, 4, 6, ..., m；其余不足4个的位置依次填m + 1, ..., length，结果是1到length的一个排列
+     *
+     * @param a 数组
+     */
+    static void medianOf3Killer(int[] a) {
+        int m = a.length & ~3;
+        int k = m / 2;
+        for (int i = 1; i <= k; i++) {
+            if ((i & 1) == 1) {
+                a[i - 1] = i;
+                a[i] = k + i;
+            }
+            a[k + i - 1] = 2 * i;
+        }
+        for (int i = m; i < a.length; i++) {
+            a[i] = i + 1;
+        }
+    }
+
+    /**
+     * 按块并行填充
+     * 各块的随机数生成器按块号顺序从同一个种子split出来，与线程调度无关
+     *
+     * @param a      数组
+     * @param seed   随机种子
+     * @param filler 块填充逻辑
+     */
+    static void parallelFill(int[] a, long seed, ChunkFiller filler) {
+        int chunks = (a.length + CHUNK_LENGTH - 1) / CHUNK_LENGTH;
+        SplittableRandom root = new SplittableRandom(seed);
+        if (chunks <= 1) {
+            filler.fill(a, 0, a.length, root.split());
+            return;
+        }
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            randoms[chunk] = root.split();
+        }
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * CHUNK_LENGTH;
+            filler.fill(a, from, Math.min(a.length, from + CHUNK_LENGTH), randoms[chunk]);
+        });
+    }
+
+    /**
+     * 一对独立的标准正态分布随机数（Marsaglia极坐标法），SplittableRandom没有nextGaussian
+     * 一次对数和开方得到两个数，两个都用上
+     *
+     * @param random 随机数生成器
+     * @param pair   输出，长度不小于2，均值0、标准差1
+     */
+    static void nextGaussianPair(SplittableRandom random, double[] pair) {
+        double x;
+        double y;
+        double s;
+        do {
+            x = 2 * random.nextDouble() - 1;
+            y = 2 * random.nextDouble() - 1;
+            s = x * x + y * y;
+        } while (s >= 1 || s == 0);
+        double factor = Math.sqrt(-2 * Math.log(s) / s);
+        pair[0] = x * factor;
+        pair[1] = y * factor;
+    }
+
+    /**
+     * 别名表（Vose），按权重抽样每次O(1)：随机选一列，再按该列的概率取本列或其别名
+     * 代替累积分布上的二分查找，Zipf分布6.5万个值时快约一个数量级
+     */
+    static final class AliasTable {
+        private final double[] probability;
+        private final int[] alias;
+
+        /**
+         * @param weights 各值的权重，不必归一化
+         */
+        AliasTable(double[] weights) {
+            int n = weights.length;
+            probability = new double[n];
+            alias = new int[n];
+            double sum = 0;
+            for (double weight : weights) {
+                sum += weight;
+            }
+            double[] scaled = new double[n];
+            int[] small = new int[n];
+            int[] large = new int[n];
+            int smallCount = 0;
+            int largeCount = 0;
+            for (int i = 0; i < n; i++) {
+                scaled[i] = weights[i] * n / sum;
+                if (scaled[i] < 1) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+            //每次用一个不足1的列配一个超过1的列补满
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                probability[less] = scaled[less];
+                alias[less] = more;
+                scaled[more] += scaled[less] - 1;
+                if (scaled[more] < 1) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            //剩下的列因浮点误差略偏离1，视为1
+            while (largeCount > 0) {
+                probability[large[--largeCount]] = 1;
+            }
+            while (smallCount > 0) {
+                probability[small[--smallCount]] = 1;
+            }
+        }
+
+        /**
+         * @param random 随机数生成器
+         * @return 抽中的值（下标）
+         */
+        int sample(SplittableRandom random) {
+            int column = random.nextInt(probability.length);
+            return random.nextDouble() < probability[column] ? column : alias[column];
+        }
+    }
+
+    /**
+     * 块填充逻辑，每块调用一次，循环在实现内部，避免每个元素一次虚调用
+     */
+    interface ChunkFiller {
+        /**
+         * 填充a[from, to)
+         *
+         * @param a      数组
+         * @param from   起始索引(包含)
+         * @param to     结束索引(不包含)
+         * @param random 本块专用的随机数生成器
+         */
+        void fill(int[] a, int from, int to, SplittableRandom random);
+    }
+}
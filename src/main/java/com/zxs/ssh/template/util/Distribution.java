@@ -0,0 +1,186 @@
+package com.zxs.ssh.template.util;
+
+import java.util.Arrays;
+
+/**
+ * Project Name:sort-alg
+ * File Name:Distribution
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:排序输入数据分布，基准测试、SortUtil.main、ParallelSortUtil.main共用，由DataGenerator并行生成
+ */
+
+
+public enum Distribution {
+    /**
+     * 均匀随机，取值为整个int范围
+     */
+    RANDOM {
+        @Override
+        void fill(int[] a, long seed) {
+            DataGenerator.parallelFill(a, seed, (array, from, to, random) -> {
+                for (int i = from; i < to; i++) {
+                    array[i] = random.nextInt();
+                }
+            });
+        }
+    },
+    /**
+     * 正态分布，均值0，标准差GAUSSIAN_SIGMA，靠近均值处重复较多
+     */
+    GAUSSIAN {
+        @Override
+        void fill(int[] a, long seed) {
+            DataGenerator.parallelFill(a, seed, (array, from, to, random) -> {
+                double[] pair = new double[2];
+                for (int i = from; i < to; i += 2) {
+                    DataGenerator.nextGaussianPair(random, pair);
+                    array[i] = (int) Math.round(pair[0] * GAUSSIAN_SIGMA);
+                    if (i + 1 < to) {
+                        array[i + 1] = (int) Math.round(pair[1] * GAUSSIAN_SIGMA);
+                    }
+                }
+            });
+        }
+    },
+    /**
+     * 升序
+     */
+    SORTED {
+        @Override
+        void fill(int[] a, long seed) {
+            RANDOM.fill(a, seed);
+            SortUtil.radixSort(a, a.length);
+        }
+    },
+    /**
+     * 降序
+     */
+    REVERSED {
+        @Override
+        void fill(int[] a, long seed) {
+            SORTED.fill(a, seed);
+            for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+                int temp = a[i];
+                a[i] = a[j];
+                a[j] = temp;
+            }
+        }
+    },
+    /**
+     * 基本有序：0到n-1中随机交换n/100对，交换次数可用DataGenerator.nearlySorted指定
+     */
+    NEARLY_SORTED {
+        @Override
+        void fill(int[] a, long seed) {
+            DataGenerator.nearlySorted(a, Math.max(1, a.length / 100), seed);
+        }
+    },
+    /**
+     * 少量不同值（0-99，与原SortUtil.main一致）
+     */
+    FEW_UNIQUE {
+        @Override
+        void fill(int[] a, long seed) {
+            DataGenerator.parallelFill(a, seed, (array, from, to, random) -> {
+                for (int i = from; i < to; i++) {
+                    array[i] = random.nextInt(100);
+                }
+            });
+        }
+    },
+    /**
+     * 全部相同
+     */
+    ALL_EQUAL {
+        @Override
+        void fill(int[] a, long seed) {
+            Arrays.fill(a, (int) seed);
+        }
+    },
+    /**
+     * 锯齿形：若干段递增序列首尾相接
+     */
+    SAWTOOTH {
+        @Override
+        void fill(int[] a, long seed) {
+            int period = Math.max(1, a.length / 64);
+            DataGenerator.parallelFill(a, seed, (array, from, to, random) -> {
+                for (int i = from; i < to; i++) {
+                    array[i] = i % period;
+                }
+            });
+        }
+    },
+    /**
+     * 管风琴形：前一半升序，后一半降序
+     */
+    ORGAN_PIPE {
+        @Override
+        void fill(int[] a, long seed) {
+            int last = a.length - 1;
+            DataGenerator.parallelFill(a, seed, (array, from, to, random) -> {
+                for (int i = from; i < to; i++) {
+                    array[i] = Math.min(i, last - i);
+                }
+            });
+        }
+    },
+    /**
+     * Zipf分布（s=1）：少数值出现频率极高
+     */
+    ZIPFIAN {
+        @Override
+        void fill(int[] a, long seed) {
+            int ranks = Math.max(1, Math.min(a.length, 1 << 16));
+            double[] weights = new double[ranks];
+            for (int rank = 0; rank < ranks; rank++) {
+                weights[rank] = 1.0 / (rank + 1);
+            }
+            DataGenerator.AliasTable table = new DataGenerator.AliasTable(weights);
+            DataGenerator.parallelFill(a, seed, (array, from, to, random) -> {
+                for (int i = from; i < to; i++) {
+                    array[i] = table.sample(random);
+                }
+            });
+        }
+    },
+    /**
+     * 三数取中杀手序列，与种子无关，见DataGenerator.medianOf3Killer
+     */
+    MEDIAN_OF_3_KILLER {
+        @Override
+        void fill(int[] a, long seed) {
+            DataGenerator.medianOf3Killer(a);
+        }
+    };
+
+    /**
+     * 正态分布的标准差
+     */
+    static final double GAUSSIAN_SIGMA = 1 << 20;
+
+    /**
+     * 按分布填充数组
+     *
+     * @param a    数组
+     * @param seed 随机种子
+     */
+    abstract void fill(int[] a, long seed);
+
+    /**
+     * 生成数据，相同种子生成的数据相同
+     *
+     * @param length 数组长度
+     * @param seed   随机种子
+     * @return 数组
+     */
+    public int[] generate(int length, long seed) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative: " + length);
+        }
+        int[] a = new int[length];
+        fill(a, seed);
+        return a;
+    }
+}
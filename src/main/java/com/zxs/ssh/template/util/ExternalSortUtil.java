@@ -0,0 +1,344 @@
+package com.zxs.ssh.template.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Project Name:sort-alg
+ * File Name:ExternalSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:外部排序，对超过堆内存的int/long二进制文件排序
+ * 算法步骤：1.按内存预算分块，通过内存映射读入堆内数组，用基数排序排好后写入临时文件（有序段）
+ * 2.有序段个数超过一次归并的路数上限时，先分组归并成更长的有序段  3.用KWayMerge（败者树）k路归并，每路使用直接内存缓冲区
+ */
+
+
+public class ExternalSortUtil {
+    private static final Logger logger = LoggerFactory.getLogger(ExternalSortUtil.class);
+
+    /**
+     * 归并阶段每路缓冲区的最小字节数，缓冲区太小时磁盘随机读写过多，宁可多归并一轮
+     */
+    private static final int MIN_MERGE_BUFFER = 1 << 20;
+
+    /**
+     * 归并阶段每路缓冲区的最大字节数
+     */
+    private static final int MAX_MERGE_BUFFER = 64 << 20;
+
+    /**
+     * 内存预算下限
+     */
+    private static final long MIN_MEMORY_BUDGET = 4L * MIN_MERGE_BUFFER;
+
+    /**
+     * int文件排序(升序)，大端字节序，临时文件放在输出文件所在目录
+     *
+     * @param input        输入文件
+     * @param output       输出文件，已存在时覆盖，可以与输入文件相同
+     * @param memoryBudget 内存预算（字节），包括分块排序的堆内数组和归并阶段的直接内存缓冲区
+     * @return 排序的数据个数
+     * @throws IOException 读写异常
+     */
+    public static long sortIntFile(Path input, Path output, long memoryBudget) throws IOException {
+        return sortFile(input, output, memoryBudget, tempDirectory(output), ByteOrder.BIG_ENDIAN, Integer.BYTES);
+    }
+
+    /**
+     * int文件排序(升序)
+     *
+     * @param input        输入文件
+     * @param output       输出文件，已存在时覆盖，可以与输入文件相同
+     * @param memoryBudget 内存预算（字节）
+     * @param tempDir      临时文件目录
+     * @param order        字节序
+     * @return 排序的数据个数
+     * @throws IOException 读写异常
+     */
+    public static long sortIntFile(Path input, Path output, long memoryBudget, Path tempDir, ByteOrder order) throws IOException {
+        return sortFile(input, output, memoryBudget, tempDir, order, Integer.BYTES);
+    }
+
+    /**
+     * long文件排序(升序)，大端字节序，临时文件放在输出文件所在目录
+     *
+     * @param input        输入文件
+     * @param output       输出文件，已存在时覆盖，可以与输入文件相同
+     * @param memoryBudget 内存预算（字节）
+     * @return 排序的数据个数
+     * @throws IOException 读写异常
+     */
+    public static long sortLongFile(Path input, Path output, long memoryBudget) throws IOException {
+        return sortFile(input, output, memoryBudget, tempDirectory(output), ByteOrder.BIG_ENDIAN, Long.BYTES);
+    }
+
+    /**
+     * long文件排序(升序)
+     *
+     * @param input        输入文件
+     * @param output       输出文件，已存在时覆盖，可以与输入文件相同
+     * @param memoryBudget 内存预算（字节）
+     * @param tempDir      临时文件目录
+     * @param order        字节序
+     * @return 排序的数据个数
+     * @throws IOException 读写异常
+     */
+    public static long sortLongFile(Path input, Path output, long memoryBudget, Path tempDir, ByteOrder order) throws IOException {
+        return sortFile(input, output, memoryBudget, tempDir, order, Long.BYTES);
+    }
+
+    /**
+     * 文件排序
+     *
+     * @param input        输入文件
+     * @param output       输出文件
+     * @param memoryBudget 内存预算（字节）
+     * @param tempDir      临时文件目录
+     * @param order        字节序
+     * @param elementBytes 每个数的字节数，4或8
+     * @return 排序的数据个数
+     * @throws IOException 读写异常
+     */
+    private static long sortFile(Path input, Path output, long memoryBudget, Path tempDir, ByteOrder order,
+                                 int elementBytes) throws IOException {
+        if (memoryBudget < MIN_MEMORY_BUDGET) {
+            throw new IllegalArgumentException("memory budget must be at least " + MIN_MEMORY_BUDGET + " bytes: " + memoryBudget);
+        }
+        long fileBytes = Files.size(input);
+        if (fileBytes % elementBytes != 0) {
+            throw new IOException("file size " + fileBytes + " is not a multiple of " + elementBytes + ": " + input);
+        }
+        long count = fileBytes / elementBytes;
+        List<Path> runs = new ArrayList<>();
+        try {
+            createRuns(input, output, count, memoryBudget, tempDir, order, elementBytes, runs);
+            if (!runs.isEmpty()) {
+                mergeAll(runs, output, memoryBudget, tempDir, order, elementBytes);
+            }
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 分块排序，生成有序段
+     * 只有一块时直接写入输出文件，runs为空；每块读入堆内数组后才打开输出，输出与输入是同一个文件时也不会读到截断后的数据
+     *
+     * @param input        输入文件
+     * @param output       输出文件
+     * @param count        数据个数
+     * @param memoryBudget 内存预算（字节）
+     * @param tempDir      临时文件目录
+     * @param order        字节序
+     * @param elementBytes 每个数的字节数
+     * @param runs         生成的有序段文件
+     * @throws IOException 读写异常
+     */
+    private static void createRuns(Path input, Path output, long count, long memoryBudget, Path tempDir,
+                                   ByteOrder order, int elementBytes, List<Path> runs) throws IOException {
+        //基数排序需要数组本身和一个同样大小的辅助数组
+        long budgetElements = memoryBudget / (2L * elementBytes);
+        int chunkElements = (int) Math.min(Math.min(budgetElements, count), (Integer.MAX_VALUE - 8) / elementBytes);
+        boolean singleChunk = count <= chunkElements;
+        int[] intChunk = null;
+        int[] intBuffer = null;
+        long[] longChunk = null;
+        long[] longBuffer = null;
+        if (elementBytes == Integer.BYTES) {
+            intChunk = new int[chunkElements];
+            intBuffer = new int[chunkElements];
+        } else {
+            longChunk = new long[chunkElements];
+            longBuffer = new long[chunkElements];
+        }
+        ByteBuffer writeBuffer = ByteBuffer.allocateDirect(MIN_MERGE_BUFFER).order(order);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            for (long start = 0; start < count || start == 0 && singleChunk; start += chunkElements) {
+                int n = (int) Math.min(chunkElements, count - start);
+                MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, start * elementBytes, (long) n * elementBytes);
+                mapped.order(order);
+                //先读入堆内数组再打开输出文件：只有一块时输出可能就是输入文件，截断后再读映射会出错
+                if (elementBytes == Integer.BYTES) {
+                    mapped.asIntBuffer().get(intChunk, 0, n);
+                    SortUtil.radixSort(intChunk, n, intBuffer);
+                } else {
+                    mapped.asLongBuffer().get(longChunk, 0, n);
+                    SortUtil.radixSort(longChunk, n, longBuffer);
+                }
+                Path target = singleChunk ? output : Files.createTempFile(tempDir, "sort-run-", ".bin");
+                if (!singleChunk) {
+                    runs.add(target);
+                }
+                try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    if (elementBytes == Integer.BYTES) {
+                        writeInts(out, intChunk, n, writeBuffer);
+                    } else {
+                        writeLongs(out, longChunk, n, writeBuffer);
+                    }
+                }
+                if (singleChunk) {
+                    break;
+                }
+            }
+        }
+        logger.debug("external sort: {} elements, {} per chunk, {} runs", count, chunkElements, runs.size());
+    }
+
+    /**
+     * 归并所有有序段到输出文件
+     * 每路缓冲区不小于MIN_MERGE_BUFFER，路数超过预算允许的上限时先分组归并
+     *
+     * @param runs         有序段文件，归并过程中产生的中间文件也会加入其中，便于统一删除
+     * @param output       输出文件
+     * @param memoryBudget 内存预算（字节）
+     * @param tempDir      临时文件目录
+     * @param order        字节序
+     * @param elementBytes 每个数的字节数
+     * @throws IOException 读写异常
+     */
+    private static void mergeAll(List<Path> runs, Path output, long memoryBudget, Path tempDir,
+                                 ByteOrder order, int elementBytes) throws IOException {
+        int maxFanIn = (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBudget / MIN_MERGE_BUFFER - 1));
+        List<Path> pending = new ArrayList<>(runs);
+        while (pending.size() > maxFanIn) {
+            List<Path> next = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i += maxFanIn) {
+                List<Path> group = pending.subList(i, Math.min(i + maxFanIn, pending.size()));
+                if (group.size() == 1) {
+                    next.add(group.get(0));
+                    continue;
+                }
+                Path merged = Files.createTempFile(tempDir, "sort-run-", ".bin");
+                runs.add(merged);
+                merge(group, merged, memoryBudget, order, elementBytes);
+                next.add(merged);
+                for (Path run : group) {
+                    Files.deleteIfExists(run);
+                }
+            }
+            pending = next;
+        }
+        merge(pending, output, memoryBudget, order, elementBytes);
+    }
+
+    /**
+     * 败者树k路归并
+     *
+     * @param inputs       有序段文件
+     * @param output       输出文件
+     * @param memoryBudget 内存预算（字节），平均分给k路输入和1路输出
+     * @param order        字节序
+     * @param elementBytes 每个数的字节数
+     * @throws IOException 读写异常
+     */
+    private static void merge(List<Path> inputs, Path output, long memoryBudget, ByteOrder order,
+                              int elementBytes) throws IOException {
+        int k = inputs.size();
+        int bufferBytes = (int) Math.min(MAX_MERGE_BUFFER, memoryBudget / (k + 1));
+        bufferBytes -= bufferBytes % Long.BYTES;
+        ReadableByteChannel[] channels = new ReadableByteChannel[k];
+        try {
+            for (int i = 0; i < k; i++) {
+                channels[i] = FileChannel.open(inputs.get(i), StandardOpenOption.READ);
+            }
+        } catch (IOException e) {
+            for (ReadableByteChannel channel : channels) {
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+            }
+            throw e;
+        }
+        try (KWayMerge merger = KWayMerge.ofChannels(order, bufferBytes, elementBytes, channels);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            merger.writeTo(out, ByteBuffer.allocateDirect(bufferBytes).order(order));
+        }
+    }
+
+    /**
+     * 写入int数组
+     *
+     * @param out    输出通道
+     * @param a      数组
+     * @param n      个数
+     * @param buffer 直接内存缓冲区，已设置字节序
+     * @throws IOException 写异常
+     */
+    private static void writeInts(FileChannel out, int[] a, int n, ByteBuffer buffer) throws IOException {
+        int perBuffer = buffer.capacity() / Integer.BYTES;
+        for (int i = 0; i < n; i += perBuffer) {
+            int len = Math.min(perBuffer, n - i);
+            buffer.clear();
+            buffer.asIntBuffer().put(a, i, len);
+            buffer.limit(len * Integer.BYTES);
+            writeFully(out, buffer);
+        }
+    }
+
+    /**
+     * 写入long数组
+     *
+     * @param out    输出通道
+     * @param a      数组
+     * @param n      个数
+     * @param buffer 直接内存缓冲区，已设置字节序
+     * @throws IOException 写异常
+     */
+    private static void writeLongs(FileChannel out, long[] a, int n, ByteBuffer buffer) throws IOException {
+        int perBuffer = buffer.capacity() / Long.BYTES;
+        for (int i = 0; i < n; i += perBuffer) {
+            int len = Math.min(perBuffer, n - i);
+            buffer.clear();
+            buffer.asLongBuffer().put(a, i, len);
+            buffer.limit(len * Long.BYTES);
+            writeFully(out, buffer);
+        }
+    }
+
+    /**
+     * 将缓冲区剩余内容全部写出
+     *
+     * @param out    输出通道
+     * @param buffer 缓冲区
+     * @throws IOException 写异常
+     */
+    private static void writeFully(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * 临时文件默认目录：输出文件所在目录
+     *
+     * @param output 输出文件
+     * @return 临时文件目录
+     */
+    private static Path tempDirectory(Path output) {
+        Path parent = output.toAbsolutePath().getParent();
+        return parent != null ? parent : output.toAbsolutePath();
+    }
+}
@@ -0,0 +1,286 @@
+package com.zxs.ssh.template.util;
+
+/**
+ * Project Name:sort-alg
+ * File Name:HeapSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:堆排序的改进实现：自底向上（Floyd）筛选的二叉堆、四叉堆
+ * 大数组上堆排序慢主要因为每层筛选都访问一个新的缓存行（缓存未命中），其次是比较结果随机导致分支预测失败；
+ * 自底向上筛选每层只比较一次（两个子节点之间），四叉堆层数减半、四个子节点位于同一缓存行并预取下一层
+ */
+
+
+public class HeapSortUtil {
+
+    /**
+     * 预读取的值写到这里，防止JIT把没有用到的读取当作死代码删除
+     */
+    private static int prefetchSink;
+
+    /**
+     * 堆排序(升序)，二叉堆，自底向上筛选
+     * 算法步骤：1.从最后一个非叶子节点开始依次下沉，构造最大堆  2.取出堆顶放到末尾，原末尾元素暂存，
+     * 堆顶留下的空位沿较大的子节点一路下移到叶子（每层只比较两个子节点，不与暂存值比较）  3.暂存值从该叶子上浮到合适位置
+     * 取堆顶时末尾元素通常很小，最终位置靠近叶子，上浮只需很少几步，总比较次数约nlogn，普通下沉约2nlogn
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(1)  3、非稳定排序  4、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int bottomUpHeapSort(int[] a, int length) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("HEAP_BOTTOM_UP", length);
+        }
+        try {
+            bottomUpHeapSort(a, 0, length - 1);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 二叉堆自底向上堆排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    static void bottomUpHeapSort(int[] a, int leftIndex, int rightIndex) {
+        int count = rightIndex - leftIndex + 1;
+        if (count < 2) {
+            return;
+        }
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        for (int parentIndex = (count - 2) >>> 1; parentIndex >= 0; parentIndex--) {
+            siftDown(a, leftIndex, count, parentIndex);
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.HEAP_BUILD, startNanos, 0, 0, 0);
+            SortMetrics.depth(31 - Integer.numberOfLeadingZeros(count));
+            startNanos = System.nanoTime();
+        }
+        long comparisons = 0;
+        for (int last = count - 1; last > 0; last--) {
+            comparisons += popMax(a, leftIndex, last);
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.HEAP_SORT_DOWN, startNanos, comparisons, 0, 0);
+        }
+    }
+
+    /**
+     * 堆排序(升序)，四叉堆，自底向上筛选
+     * 节点i的子节点为4i+1 ~ 4i+4，层数是二叉堆的一半；四个子节点连续存放（16字节），下沉时每层只访问一个缓存行，
+     * 求四个子节点最大值的三次比较编译成条件传送，没有难以预测的分支；
+     * 条件传送使下一层的地址依赖比较结果，因此比较前先读取下一层所在的缓存行，相当于软件预取
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(1)  3、非稳定排序  4、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int quaternaryHeapSort(int[] a, int length) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("HEAP_QUATERNARY", length);
+        }
+        try {
+            quaternaryHeapSort(a, 0, length - 1);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 四叉堆自底向上堆排序，对a[leftIndex, rightIndex]排序，作为内省排序的兜底算法
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    static void quaternaryHeapSort(int[] a, int leftIndex, int rightIndex) {
+        int count = rightIndex - leftIndex + 1;
+        if (count < 2) {
+            return;
+        }
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        for (int parentIndex = (count - 2) >>> 2; parentIndex >= 0; parentIndex--) {
+            int value = a[leftIndex + parentIndex];
+            int hole = parentIndex;
+            int child;
+            while ((child = 4 * hole + 1) < count) {
+                int maxIndex = maxChild(a, leftIndex, child, count);
+                if (a[leftIndex + maxIndex] <= value) {
+                    break;
+                }
+                a[leftIndex + hole] = a[leftIndex + maxIndex];
+                hole = maxIndex;
+            }
+            a[leftIndex + hole] = value;
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.HEAP_BUILD, startNanos, 0, 0, 0);
+            SortMetrics.depth(32 - Integer.numberOfLeadingZeros(count) >>> 1);
+            startNanos = System.nanoTime();
+        }
+        long comparisons = 0;
+        for (int last = count - 1; last > 0; last--) {
+            comparisons += popMaxQuaternary(a, leftIndex, last);
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.HEAP_SORT_DOWN, startNanos, comparisons, 0, 0);
+        }
+    }
+
+    /**
+     * 二叉堆取出堆顶放到a[offset + last]，堆缩小为[0, last)
+     * 单独成方法使JIT把它作为普通热点方法编译，而不是只对外层循环做栈上替换编译
+     *
+     * @param a      数组
+     * @param offset 堆在数组中的起始位置
+     * @param last   取出前最后一个节点的索引
+     * @return 比较次数，未开启度量时为0
+     */
+    private static int popMax(int[] a, int offset, int last) {
+        int comparisons = 0;
+        int value = a[offset + last];
+        a[offset + last] = a[offset];
+        //空位沿较大的子节点下移到叶子
+        int hole = 0;
+        int child = 1;
+        while (child + 1 < last) {
+            if (SortMetrics.ENABLED) {
+                comparisons++;
+            }
+            //两个分支各自写入，JIT不会把它们合并成条件传送，CPU可以按预测提前读取下一层
+            int leftValue = a[offset + child];
+            int rightValue = a[offset + child + 1];
+            if (rightValue > leftValue) {
+                a[offset + hole] = rightValue;
+                hole = child + 1;
+            } else {
+                a[offset + hole] = leftValue;
+                hole = child;
+            }
+            child = 2 * hole + 1;
+        }
+        if (child < last) {
+            a[offset + hole] = a[offset + child];
+            hole = child;
+        }
+        //暂存值从空位上浮
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 1;
+            if (SortMetrics.ENABLED) {
+                comparisons++;
+            }
+            if (a[offset + parent] >= value) {
+                break;
+            }
+            a[offset + hole] = a[offset + parent];
+            hole = parent;
+        }
+        a[offset + hole] = value;
+        return comparisons;
+    }
+
+    /**
+     * 四叉堆取出堆顶放到a[offset + last]，堆缩小为[0, last)
+     *
+     * @param a      数组
+     * @param offset 堆在数组中的起始位置
+     * @param last   取出前最后一个节点的索引
+     * @return 比较次数，未开启度量时为0
+     */
+    private static int popMaxQuaternary(int[] a, int offset, int last) {
+        int comparisons = 0;
+        int prefetch = 0;
+        int value = a[offset + last];
+        a[offset + last] = a[offset];
+        //空位沿最大的子节点下移到叶子
+        int hole = 0;
+        int child;
+        while ((child = 4 * hole + 1) < last) {
+            if (SortMetrics.ENABLED) {
+                comparisons += Math.min(3, last - child - 1);
+            }
+            //四个子节点的子节点共16个（64字节），比较前先读取首尾两个，与本层比较并行地把下一层载入缓存
+            int grandChild = 4 * child + 1;
+            if (grandChild + 15 < last) {
+                prefetch += a[offset + grandChild] + a[offset + grandChild + 15];
+            }
+            int maxIndex = maxChild(a, offset, child, last);
+            a[offset + hole] = a[offset + maxIndex];
+            hole = maxIndex;
+        }
+        prefetchSink = prefetch;
+        //暂存值从空位上浮
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 2;
+            if (SortMetrics.ENABLED) {
+                comparisons++;
+            }
+            if (a[offset + parent] >= value) {
+                break;
+            }
+            a[offset + hole] = a[offset + parent];
+            hole = parent;
+        }
+        a[offset + hole] = value;
+        return comparisons;
+    }
+
+    /**
+     * 二叉堆普通下沉（非递归）：暂存节点值，较大的子节点上移，最后把暂存值放入空位，不做交换
+     *
+     * @param a           数组
+     * @param offset      堆在数组中的起始位置
+     * @param count       节点个数
+     * @param parentIndex 节点索引（相对offset）
+     */
+    static void siftDown(int[] a, int offset, int count, int parentIndex) {
+        int value = a[offset + parentIndex];
+        int hole = parentIndex;
+        int child;
+        while ((child = 2 * hole + 1) < count) {
+            if (child + 1 < count && a[offset + child + 1] > a[offset + child]) {
+                child++;
+            }
+            if (a[offset + child] <= value) {
+                break;
+            }
+            a[offset + hole] = a[offset + child];
+            hole = child;
+        }
+        a[offset + hole] = value;
+    }
+
+    /**
+     * 四叉堆中从child开始的（最多）四个子节点里最大者的索引
+     *
+     * @param a      数组
+     * @param offset 堆在数组中的起始位置
+     * @param child  第一个子节点索引
+     * @param count  节点个数
+     * @return 最大子节点索引
+     */
+    private static int maxChild(int[] a, int offset, int child, int count) {
+        if (child + 3 < count) {
+            int left = a[offset + child + 1] > a[offset + child] ? child + 1 : child;
+            int right = a[offset + child + 3] > a[offset + child + 2] ? child + 3 : child + 2;
+            return a[offset + right] > a[offset + left] ? right : left;
+        }
+        int maxIndex = child;
+        for (int i = child + 1; i < count; i++) {
+            if (a[offset + i] > a[offset + maxIndex]) {
+                maxIndex = i;
+            }
+        }
+        return maxIndex;
+    }
+}
@@ -0,0 +1,439 @@
+package com.zxs.ssh.template.util;
+
+/**
+ * Project Name:sort-alg
+ * File Name:IndexSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:键-值排序与索引排序，按键数组排序并同步移动值数组，或者只返回排序后的下标（置换），全程不装箱
+ */
+
+
+public class IndexSortUtil {
+
+    /**
+     * 键-值排序(按键升序)，原地排序，不分配内存
+     * 内省排序，与SortUtil.quickSort的划分、堆排序兜底、插入排序逻辑相同，交换键时同步交换值
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(logn)  3、非稳定排序  4、原地排序
+     *
+     * @param keys   键数组
+     * @param values 值数组，长度不小于length
+     * @param length 数组长度
+     */
+    public static int sort(int[] keys, long[] values, int length) {
+        checkLength(values.length, length);
+        introSort(keys, values, 0, length - 1);
+        return length;
+    }
+
+    /**
+     * 键-值稳定排序(按键升序)，键相等时保持原有顺序
+     * 先用基数排序求出置换，再按置换同时重排键和值
+     * 性质：1、时间复杂度：O(n)  2、空间复杂度：O(n)  3、稳定排序  4、非原地排序
+     *
+     * @param keys   键数组
+     * @param values 值数组，长度不小于length
+     * @param length 数组长度
+     */
+    public static int stableSort(int[] keys, long[] values, int length) {
+        checkLength(values.length, length);
+        int[] permutation = argsort(keys, length);
+        permute(keys, permutation, length);
+        permute(values, permutation, length);
+        return length;
+    }
+
+    /**
+     * 索引排序：返回置换p，使keys[p[0]] <= keys[p[1]] <= ...，键数组本身不变，键相等时下标小的在前
+     * 键和下标拼成一个long（键在高32位，下标在低32位），用long基数排序后取低32位，不需要比较
+     * 得到置换后可用permute重排任意多个同长度的列
+     *
+     * @param keys   键数组
+     * @param length 数组长度
+     * @return 置换
+     */
+    public static int[] argsort(int[] keys, int length) {
+        long[] packed = new long[length];
+        for (int i = 0; i < length; i++) {
+            packed[i] = ((long) keys[i] << 32) | i;
+        }
+        SortUtil.radixSort(packed, length);
+        int[] permutation = new int[length];
+        for (int i = 0; i < length; i++) {
+            permutation[i] = (int) packed[i];
+        }
+        return permutation;
+    }
+
+    /**
+     * 索引排序：返回置换p，使keys[p[0]] <= keys[p[1]] <= ...，键相等时下标小的在前
+     * 键为long时无法与下标拼接，对下标数组做归并排序，比较时取对应的键
+     *
+     * @param keys   键数组
+     * @param length 数组长度
+     * @return 置换
+     */
+    public static int[] argsort(long[] keys, int length) {
+        int[] permutation = new int[length];
+        int[] buffer = new int[length];
+        for (int i = 0; i < length; i++) {
+            permutation[i] = i;
+            buffer[i] = i;
+        }
+        mergeSortHelp(keys, buffer, permutation, 0, length);
+        return permutation;
+    }
+
+    /**
+     * 按置换原地重排：a[i] = 原a[p[i]]
+     * 沿置换的环移动，访问过的位置在置换中取反做标记，结束后恢复，不分配内存
+     *
+     * @param a           数组
+     * @param permutation 置换
+     * @param length      数组长度
+     */
+    public static void permute(int[] a, int[] permutation, int length) {
+        checkLength(a.length, length);
+        for (int start = 0; start < length; start++) {
+            if (permutation[start] < 0) {
+                continue;
+            }
+            int temp = a[start];
+            int i = start;
+            while (true) {
+                int next = permutation[i];
+                permutation[i] = ~next;
+                if (next == start) {
+                    a[i] = temp;
+                    break;
+                }
+                a[i] = a[next];
+                i = next;
+            }
+        }
+        restore(permutation, length);
+    }
+
+    /**
+     * 按置换原地重排：a[i] = 原a[p[i]]
+     *
+     * @param a           数组
+     * @param permutation 置换
+     * @param length      数组长度
+     */
+    public static void permute(long[] a, int[] permutation, int length) {
+        checkLength(a.length, length);
+        for (int start = 0; start < length; start++) {
+            if (permutation[start] < 0) {
+                continue;
+            }
+            long temp = a[start];
+            int i = start;
+            while (true) {
+                int next = permutation[i];
+                permutation[i] = ~next;
+                if (next == start) {
+                    a[i] = temp;
+                    break;
+                }
+                a[i] = a[next];
+                i = next;
+            }
+        }
+        restore(permutation, length);
+    }
+
+    /**
+     * 按置换原地重排：a[i] = 原a[p[i]]
+     *
+     * @param a           数组
+     * @param permutation 置换
+     * @param length      数组长度
+     */
+    public static void permute(double[] a, int[] permutation, int length) {
+        checkLength(a.length, length);
+        for (int start = 0; start < length; start++) {
+            if (permutation[start] < 0) {
+                continue;
+            }
+            double temp = a[start];
+            int i = start;
+            while (true) {
+                int next = permutation[i];
+                permutation[i] = ~next;
+                if (next == start) {
+                    a[i] = temp;
+                    break;
+                }
+                a[i] = a[next];
+                i = next;
+            }
+        }
+        restore(permutation, length);
+    }
+
+    /**
+     * 按置换原地重排：a[i] = 原a[p[i]]
+     *
+     * @param a           数组
+     * @param permutation 置换
+     * @param length      数组长度
+     * @param <T>         元素类型
+     */
+    public static <T> void permute(T[] a, int[] permutation, int length) {
+        checkLength(a.length, length);
+        for (int start = 0; start < length; start++) {
+            if (permutation[start] < 0) {
+                continue;
+            }
+            T temp = a[start];
+            int i = start;
+            while (true) {
+                int next = permutation[i];
+                permutation[i] = ~next;
+                if (next == start) {
+                    a[i] = temp;
+                    break;
+                }
+                a[i] = a[next];
+                i = next;
+            }
+        }
+        restore(permutation, length);
+    }
+
+    /**
+     * 恢复permute中取反标记的置换
+     *
+     * @param permutation 置换
+     * @param length      数组长度
+     */
+    private static void restore(int[] permutation, int length) {
+        for (int i = 0; i < length; i++) {
+            permutation[i] = ~permutation[i];
+        }
+    }
+
+    /**
+     * 校验数组长度
+     *
+     * @param arrayLength 数组实际长度
+     * @param length      排序长度
+     */
+    private static void checkLength(int arrayLength, int length) {
+        if (arrayLength < length) {
+            throw new IllegalArgumentException("array length " + arrayLength + " < " + length);
+        }
+    }
+
+    /**
+     * 下标归并排序递归，按keys[下标]比较，结果放入dest，与SortUtil.mergeSortHelp的交替归并方式相同
+     *
+     * @param keys 键数组
+     * @param src  源下标数组
+     * @param dest 目标下标数组
+     * @param low  起始索引(包含)
+     * @param high 结束索引(不包含)
+     */
+    private static void mergeSortHelp(long[] keys, int[] src, int[] dest, int low, int high) {
+        if (high - low < SortUtil.INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                int index = dest[i];
+                long key = keys[index];
+                int j = i - 1;
+                while (j >= low && keys[dest[j]] > key) {
+                    dest[j + 1] = dest[j];
+                    j--;
+                }
+                dest[j + 1] = index;
+            }
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSortHelp(keys, dest, src, low, mid);
+        mergeSortHelp(keys, dest, src, mid, high);
+        if (keys[src[mid - 1]] <= keys[src[mid]]) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+        int i = low;
+        int j = mid;
+        for (int k = low; k < high; k++) {
+            if (j >= high || i < mid && keys[src[i]] <= keys[src[j]]) {
+                dest[k] = src[i++];
+            } else {
+                dest[k] = src[j++];
+            }
+        }
+    }
+
+    /**
+     * 键-值内省排序（非递归），对[leftIndex, rightIndex]排序
+     *
+     * @param keys       键数组
+     * @param values     值数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void introSort(int[] keys, long[] values, int leftIndex, int rightIndex) {
+        if (leftIndex >= rightIndex) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(rightIndex - leftIndex + 1));
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        while (true) {
+            if (rightIndex - leftIndex < SortUtil.INSERTION_SORT_THRESHOLD) {
+                insertSort(keys, values, leftIndex, rightIndex);
+            } else if (depthLimit == 0) {
+                heapSort(keys, values, leftIndex, rightIndex);
+            } else {
+                depthLimit--;
+                int pivotIndex = partition(keys, values, leftIndex, rightIndex);
+                if (pivotIndex - leftIndex < rightIndex - pivotIndex) {
+                    stack[top++] = pivotIndex + 1;
+                    stack[top++] = rightIndex;
+                    stack[top++] = depthLimit;
+                    rightIndex = pivotIndex - 1;
+                } else {
+                    stack[top++] = leftIndex;
+                    stack[top++] = pivotIndex - 1;
+                    stack[top++] = depthLimit;
+                    leftIndex = pivotIndex + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
+                return;
+            }
+            depthLimit = stack[--top];
+            rightIndex = stack[--top];
+            leftIndex = stack[--top];
+        }
+    }
+
+    /**
+     * 三数取中划分，要求rightIndex - leftIndex >= 2
+     *
+     * @param keys       键数组
+     * @param values     值数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     * @return 轴值最终所在索引
+     */
+    private static int partition(int[] keys, long[] values, int leftIndex, int rightIndex) {
+        int pivotIndex = (leftIndex + rightIndex) >>> 1;
+        if (keys[rightIndex] < keys[leftIndex]) {
+            swap(keys, values, leftIndex, rightIndex);
+        }
+        if (keys[rightIndex] < keys[pivotIndex]) {
+            swap(keys, values, pivotIndex, rightIndex);
+        }
+        if (keys[pivotIndex] < keys[leftIndex]) {
+            swap(keys, values, leftIndex, pivotIndex);
+        }
+        int pivotValue = keys[pivotIndex];
+        swap(keys, values, pivotIndex, rightIndex - 1);
+        int i = leftIndex;
+        int j = rightIndex - 1;
+        while (true) {
+            while (keys[++i] < pivotValue) {
+            }
+            while (pivotValue < keys[--j]) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(keys, values, i, j);
+        }
+        swap(keys, values, i, rightIndex - 1);
+        return i;
+    }
+
+    /**
+     * 插入排序，对[leftIndex, rightIndex]排序
+     *
+     * @param keys       键数组
+     * @param values     值数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(int[] keys, long[] values, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            int key = keys[i];
+            long value = values[i];
+            int j = i - 1;
+            while (j >= leftIndex && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    /**
+     * 堆排序，对[leftIndex, rightIndex]排序
+     *
+     * @param keys       键数组
+     * @param values     值数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void heapSort(int[] keys, long[] values, int leftIndex, int rightIndex) {
+        int count = rightIndex - leftIndex + 1;
+        for (int parentIndex = (count - 1 - 1) / 2; parentIndex >= 0; parentIndex--) {
+            siftDown(keys, values, leftIndex, count, parentIndex);
+        }
+        for (int last = count - 1; last > 0; last--) {
+            swap(keys, values, leftIndex, leftIndex + last);
+            siftDown(keys, values, leftIndex, last, 0);
+        }
+    }
+
+    /**
+     * 最大堆下沉
+     *
+     * @param keys        键数组
+     * @param values      值数组
+     * @param offset      堆在数组中的起始位置
+     * @param count       节点个数
+     * @param parentIndex 节点索引（相对offset）
+     */
+    private static void siftDown(int[] keys, long[] values, int offset, int count, int parentIndex) {
+        while (true) {
+            int maxValueIndex = parentIndex;
+            int leftIndex = 2 * parentIndex + 1;
+            int rightIndex = leftIndex + 1;
+            if (leftIndex < count && keys[offset + leftIndex] > keys[offset + maxValueIndex]) {
+                maxValueIndex = leftIndex;
+            }
+            if (rightIndex < count && keys[offset + rightIndex] > keys[offset + maxValueIndex]) {
+                maxValueIndex = rightIndex;
+            }
+            if (maxValueIndex == parentIndex) {
+                return;
+            }
+            swap(keys, values, offset + parentIndex, offset + maxValueIndex);
+            parentIndex = maxValueIndex;
+        }
+    }
+
+    /**
+     * 同时交换键和值
+     *
+     * @param keys   键数组
+     * @param values 值数组
+     * @param i      第一个数索引
+     * @param j      第二个数索引
+     */
+    private static void swap(int[] keys, long[] values, int i, int j) {
+        int key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
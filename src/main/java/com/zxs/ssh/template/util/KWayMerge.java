@@ -0,0 +1,554 @@
+package com.zxs.ssh.template.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.stream.BaseStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Project Name:sort-alg
+ * File Name:KWayMerge
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:k路归并，合并多个已经有序（升序）的数据源，代替拼接后再整体排序
+ * 用败者树选出各路当前最小值，每输出一个数只需logk次比较；按需拉取：调用方每次取多少才从数据源读多少，
+ * 输出缓冲区的大小由调用方决定，消费慢时不会在内存中堆积结果（背压）
+ * 键相等时路号小的先输出，归并是稳定的
+ */
+
+
+public final class KWayMerge implements Closeable {
+
+    /**
+     * 通道数据源默认每路缓冲区字节数
+     */
+    public static final int DEFAULT_CHANNEL_BUFFER = 64 << 10;
+
+    private final Source[] sources;
+    private final LoserTree tree;
+    private final int elementBytes;
+    private boolean closed;
+
+    /**
+     * @param sources      各路数据源
+     * @param elementBytes 每个数的字节数，Integer.BYTES或Long.BYTES
+     * @throws IOException 读取各路第一个数时的读异常
+     */
+    KWayMerge(Source[] sources, int elementBytes) throws IOException {
+        this.sources = sources;
+        this.elementBytes = elementBytes;
+        this.tree = new LoserTree(Math.max(1, sources.length));
+        if (sources.length == 0) {
+            tree.exhaust(0);
+        }
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i].hasNext()) {
+                tree.set(i, sources[i].next());
+            } else {
+                tree.exhaust(i);
+            }
+        }
+        tree.init();
+    }
+
+    /**
+     * 归并多个有序int数组
+     *
+     * @param arrays 各路有序数组
+     * @return 归并游标
+     */
+    public static KWayMerge of(int[]... arrays) {
+        Source[] sources = new Source[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            int[] a = Objects.requireNonNull(arrays[i], "arrays[" + i + "]");
+            sources[i] = new IntArraySource(a);
+        }
+        return create(sources, Integer.BYTES);
+    }
+
+    /**
+     * 归并多个有序long数组
+     *
+     * @param arrays 各路有序数组
+     * @return 归并游标
+     */
+    public static KWayMerge of(long[]... arrays) {
+        Source[] sources = new Source[arrays.length];
+        for (int i = 0; i < arrays.length; i++) {
+            long[] a = Objects.requireNonNull(arrays[i], "arrays[" + i + "]");
+            sources[i] = new LongArraySource(a);
+        }
+        return create(sources, Long.BYTES);
+    }
+
+    /**
+     * 归并多个有序IntStream，流按需消费，close时关闭各流
+     *
+     * @param streams 各路有序流
+     * @return 归并游标
+     */
+    public static KWayMerge of(IntStream... streams) {
+        Source[] sources = new Source[streams.length];
+        for (int i = 0; i < streams.length; i++) {
+            IntStream stream = Objects.requireNonNull(streams[i], "streams[" + i + "]");
+            sources[i] = new IteratorSource(stream, stream.iterator());
+        }
+        return create(sources, Integer.BYTES);
+    }
+
+    /**
+     * 归并多个有序LongStream，流按需消费，close时关闭各流
+     *
+     * @param streams 各路有序流
+     * @return 归并游标
+     */
+    public static KWayMerge of(LongStream... streams) {
+        Source[] sources = new Source[streams.length];
+        for (int i = 0; i < streams.length; i++) {
+            LongStream stream = Objects.requireNonNull(streams[i], "streams[" + i + "]");
+            sources[i] = new IteratorSource(stream, stream.iterator());
+        }
+        return create(sources, Long.BYTES);
+    }
+
+    /**
+     * 归并多个有序int二进制通道（每个数4字节），每路使用DEFAULT_CHANNEL_BUFFER字节的直接内存缓冲区，close时关闭各通道
+     * 通道必须是阻塞模式，长度必须是4的整数倍，见ofChannels
+     *
+     * @param order    字节序
+     * @param channels 各路通道
+     * @return 归并游标
+     * @throws IOException 读异常
+     */
+    public static KWayMerge ofInts(ByteOrder order, ReadableByteChannel... channels) throws IOException {
+        return ofChannels(order, DEFAULT_CHANNEL_BUFFER, Integer.BYTES, channels);
+    }
+
+    /**
+     * 归并多个有序long二进制通道（每个数8字节），每路使用DEFAULT_CHANNEL_BUFFER字节的直接内存缓冲区，close时关闭各通道
+     * 通道必须是阻塞模式，长度必须是8的整数倍，见ofChannels
+     *
+     * @param order    字节序
+     * @param channels 各路通道
+     * @return 归并游标
+     * @throws IOException 读异常
+     */
+    public static KWayMerge ofLongs(ByteOrder order, ReadableByteChannel... channels) throws IOException {
+        return ofChannels(order, DEFAULT_CHANNEL_BUFFER, Long.BYTES, channels);
+    }
+
+    /**
+     * 归并多个有序二进制通道
+     * 通道必须是阻塞模式：非阻塞通道没有数据时read返回0，读取会空转，因此非阻塞的SelectableChannel直接拒绝；
+     * 通道长度必须是每个数字节数的整数倍，末尾不足一个数时抛EOFException
+     *
+     * @param order        字节序
+     * @param bufferBytes  每路缓冲区字节数，不小于Long.BYTES
+     * @param elementBytes 每个数的字节数
+     * @param channels     各路通道
+     * @return 归并游标
+     * @throws IOException 读异常，此时已打开的通道全部关闭
+     */
+    static KWayMerge ofChannels(ByteOrder order, int bufferBytes, int elementBytes,
+                                ReadableByteChannel... channels) throws IOException {
+        Objects.requireNonNull(order, "order");
+        if (bufferBytes < Long.BYTES) {
+            throw new IllegalArgumentException("buffer bytes " + bufferBytes + " < " + Long.BYTES);
+        }
+        for (int i = 0; i < channels.length; i++) {
+            if (channels[i] instanceof SelectableChannel && !((SelectableChannel) channels[i]).isBlocking()) {
+                throw new IllegalArgumentException("channels[" + i + "] is non-blocking");
+            }
+        }
+        Source[] sources = new Source[channels.length];
+        for (int i = 0; i < channels.length; i++) {
+            sources[i] = new ChannelSource(Objects.requireNonNull(channels[i], "channels[" + i + "]"),
+                    bufferBytes, order, elementBytes);
+        }
+        try {
+            return new KWayMerge(sources, elementBytes);
+        } catch (IOException | RuntimeException e) {
+            closeAll(sources, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 创建内存数据源的归并游标，内存数据源读取不会抛IOException
+     *
+     * @param sources      各路数据源
+     * @param elementBytes 每个数的字节数
+     * @return 归并游标
+     */
+    private static KWayMerge create(Source[] sources, int elementBytes) {
+        try {
+            return new KWayMerge(sources, elementBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 一次性归并多个有序int数组
+     *
+     * @param arrays 各路有序数组
+     * @return 归并结果
+     */
+    public static int[] merge(int[]... arrays) {
+        long total = 0;
+        for (int[] a : arrays) {
+            total += a.length;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("total length " + total + " exceeds array limit");
+        }
+        int[] result = new int[(int) total];
+        of(arrays).drainTo(result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * 一次性归并多个有序long数组
+     *
+     * @param arrays 各路有序数组
+     * @return 归并结果
+     */
+    public static long[] merge(long[]... arrays) {
+        long total = 0;
+        for (long[] a : arrays) {
+            total += a.length;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("total length " + total + " exceeds array limit");
+        }
+        long[] result = new long[(int) total];
+        of(arrays).drainTo(result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * @return 是否还有数据
+     */
+    public boolean hasNext() {
+        return !tree.isEmpty();
+    }
+
+    /**
+     * 取出下一个数
+     *
+     * @return 各路当前最小值
+     */
+    public long nextLong() {
+        if (tree.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        long key = tree.winnerKey();
+        advance();
+        return key;
+    }
+
+    /**
+     * 取出下一个数，只能用于int数据源
+     *
+     * @return 各路当前最小值
+     */
+    public int nextInt() {
+        checkInts();
+        return (int) nextLong();
+    }
+
+    /**
+     * 最多取出length个数放入out[offset, offset + length)，out即调用方的有界输出缓冲区
+     *
+     * @param out    输出缓冲区
+     * @param offset 起始位置
+     * @param length 最多取出的个数
+     * @return 实际取出的个数，已没有数据时为-1
+     */
+    public int drainTo(long[] out, int offset, int length) {
+        SortUtil.checkRange(out.length, offset, offset + length);
+        if (tree.isEmpty()) {
+            return length == 0 ? 0 : -1;
+        }
+        int count = 0;
+        while (count < length && !tree.isEmpty()) {
+            out[offset + count++] = tree.winnerKey();
+            advance();
+        }
+        return count;
+    }
+
+    /**
+     * 最多取出length个数放入out[offset, offset + length)，只能用于int数据源
+     *
+     * @param out    输出缓冲区
+     * @param offset 起始位置
+     * @param length 最多取出的个数
+     * @return 实际取出的个数，已没有数据时为-1
+     */
+    public int drainTo(int[] out, int offset, int length) {
+        checkInts();
+        SortUtil.checkRange(out.length, offset, offset + length);
+        if (tree.isEmpty()) {
+            return length == 0 ? 0 : -1;
+        }
+        int count = 0;
+        while (count < length && !tree.isEmpty()) {
+            out[offset + count++] = (int) tree.winnerKey();
+            advance();
+        }
+        return count;
+    }
+
+    /**
+     * 把剩余数据全部写入通道，每个数按数据源的宽度（4或8字节）编码
+     * 缓冲区写满才写一次通道，通道写阻塞时归并也随之暂停，内存占用不超过缓冲区大小
+     *
+     * @param out    输出通道，不会被关闭
+     * @param buffer 输出缓冲区，使用其字节序，容量不小于Long.BYTES
+     * @return 写入的数据个数
+     * @throws IOException 读写异常
+     */
+    public long writeTo(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < Long.BYTES) {
+            throw new IllegalArgumentException("buffer capacity " + buffer.capacity() + " < " + Long.BYTES);
+        }
+        long count = 0;
+        buffer.clear();
+        while (!tree.isEmpty()) {
+            if (buffer.remaining() < elementBytes) {
+                flush(out, buffer);
+            }
+            if (elementBytes == Integer.BYTES) {
+                buffer.putInt((int) tree.winnerKey());
+            } else {
+                buffer.putLong(tree.winnerKey());
+            }
+            count++;
+            advance();
+        }
+        flush(out, buffer);
+        return count;
+    }
+
+    /**
+     * 关闭所有数据源（流、通道）
+     *
+     * @throws IOException 关闭异常
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        IOException error = closeAll(sources, null);
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * 胜者所在路读入下一个数并重赛
+     */
+    private void advance() {
+        Source source = sources[tree.winner()];
+        try {
+            if (source.hasNext()) {
+                tree.replaceWinner(source.next());
+            } else {
+                tree.exhaustWinner();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkInts() {
+        if (elementBytes != Integer.BYTES) {
+            throw new IllegalStateException("sources are long valued");
+        }
+    }
+
+    /**
+     * 写出缓冲区内容并清空
+     *
+     * @param out    输出通道
+     * @param buffer 缓冲区
+     * @throws IOException 写异常
+     */
+    private static void flush(WritableByteChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * 关闭所有数据源，异常不中断后续关闭
+     *
+     * @param sources 数据源
+     * @param primary 已发生的异常，关闭异常作为它的suppressed，为null时返回第一个关闭异常
+     * @return 第一个关闭异常，primary不为null时总是null
+     */
+    private static IOException closeAll(Source[] sources, Throwable primary) {
+        IOException first = null;
+        for (Source source : sources) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                if (primary != null) {
+                    primary.addSuppressed(e);
+                } else if (first == null) {
+                    first = e;
+                } else {
+                    first.addSuppressed(e);
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * 一路有序数据源，int数据扩展为long返回
+     */
+    interface Source extends Closeable {
+        boolean hasNext() throws IOException;
+
+        long next();
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    private static final class IntArraySource implements Source {
+        private final int[] a;
+        private int index;
+
+        IntArraySource(int[] a) {
+            this.a = a;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < a.length;
+        }
+
+        @Override
+        public long next() {
+            return a[index++];
+        }
+    }
+
+    private static final class LongArraySource implements Source {
+        private final long[] a;
+        private int index;
+
+        LongArraySource(long[] a) {
+            this.a = a;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < a.length;
+        }
+
+        @Override
+        public long next() {
+            return a[index++];
+        }
+    }
+
+    /**
+     * 流数据源，OfInt与OfLong都按long读取
+     */
+    private static final class IteratorSource implements Source {
+        private final BaseStream<?, ?> stream;
+        private final PrimitiveIterator<?, ?> iterator;
+
+        IteratorSource(BaseStream<?, ?> stream, PrimitiveIterator<?, ?> iterator) {
+            this.stream = stream;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public long next() {
+            return iterator instanceof PrimitiveIterator.OfInt
+                    ? ((PrimitiveIterator.OfInt) iterator).nextInt()
+                    : ((PrimitiveIterator.OfLong) iterator).nextLong();
+        }
+
+        @Override
+        public void close() {
+            stream.close();
+        }
+    }
+
+    /**
+     * 二进制通道数据源，使用直接内存缓冲区顺序读取，通道必须是阻塞模式
+     */
+    static final class ChannelSource implements Source {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer;
+        private final int elementBytes;
+        private boolean eof;
+
+        ChannelSource(ReadableByteChannel channel, int bufferBytes, ByteOrder order, int elementBytes) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes).order(order);
+            this.buffer.limit(0);
+            this.elementBytes = elementBytes;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            if (buffer.remaining() >= elementBytes) {
+                return true;
+            }
+            if (eof) {
+                return false;
+            }
+            buffer.compact();
+            //至少读满一个数即可返回，网络等流式通道不必等缓冲区填满
+            while (buffer.position() < elementBytes) {
+                if (channel.read(buffer) < 0) {
+                    eof = true;
+                    break;
+                }
+            }
+            buffer.flip();
+            if (eof && buffer.remaining() > 0 && buffer.remaining() < elementBytes) {
+                throw new EOFException("channel ends with a partial element of " + buffer.remaining() + " bytes");
+            }
+            return buffer.remaining() >= elementBytes;
+        }
+
+        @Override
+        public long next() {
+            return elementBytes == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
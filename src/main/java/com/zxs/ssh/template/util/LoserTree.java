@@ -0,0 +1,145 @@
+package com.zxs.ssh.template.util;
+
+/**
+ * Project Name:sort-alg
+ * File Name:LoserTree
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:败者树，用于k路归并，每输出一个数只需logk次比较
+ * 内部节点保存比赛的败者，tree[0]保存最终胜者；胜者所在的路读入下一个数后，只需沿叶子到根重赛一次
+ * 键统一用long保存，int数据直接扩展；键相等时路号小的胜出，保证归并稳定
+ */
+
+
+final class LoserTree {
+    private final int k;
+    private final int[] tree;
+    private final long[] keys;
+    private final boolean[] exhausted;
+
+    /**
+     * @param k 归并路数，必须大于0
+     */
+    LoserTree(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.tree = new int[k];
+        this.keys = new long[k];
+        this.exhausted = new boolean[k];
+    }
+
+    /**
+     * 设置第i路的当前键，在init之前调用
+     *
+     * @param i   路号
+     * @param key 键
+     */
+    void set(int i, long key) {
+        keys[i] = key;
+        exhausted[i] = false;
+    }
+
+    /**
+     * 标记第i路已经读完，在init之前调用
+     *
+     * @param i 路号
+     */
+    void exhaust(int i) {
+        exhausted[i] = true;
+    }
+
+    /**
+     * 所有路设置完成后建树
+     */
+    void init() {
+        int[] winners = new int[2 * k];
+        for (int i = 0; i < k; i++) {
+            winners[k + i] = i;
+        }
+        for (int node = k - 1; node >= 1; node--) {
+            int left = winners[2 * node];
+            int right = winners[2 * node + 1];
+            if (beats(left, right)) {
+                winners[node] = left;
+                tree[node] = right;
+            } else {
+                winners[node] = right;
+                tree[node] = left;
+            }
+        }
+        tree[0] = k == 1 ? 0 : winners[1];
+    }
+
+    /**
+     * @return 所有路都已读完
+     */
+    boolean isEmpty() {
+        return exhausted[tree[0]];
+    }
+
+    /**
+     * @return 胜者路号
+     */
+    int winner() {
+        return tree[0];
+    }
+
+    /**
+     * @return 胜者的键，即所有路当前键中的最小值
+     */
+    long winnerKey() {
+        return keys[tree[0]];
+    }
+
+    /**
+     * 胜者读入下一个数后重赛
+     *
+     * @param key 胜者所在路的下一个键
+     */
+    void replaceWinner(long key) {
+        keys[tree[0]] = key;
+        replay();
+    }
+
+    /**
+     * 胜者所在路读完后重赛
+     */
+    void exhaustWinner() {
+        exhausted[tree[0]] = true;
+        replay();
+    }
+
+    /**
+     * 从胜者叶子到根重赛，每个节点上败者留下，胜者继续向上
+     */
+    private void replay() {
+        int winner = tree[0];
+        for (int node = (winner + k) >>> 1; node >= 1; node >>>= 1) {
+            if (beats(tree[node], winner)) {
+                int temp = tree[node];
+                tree[node] = winner;
+                winner = temp;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    /**
+     * i路是否胜过j路：读完的路永远失败，键小的胜出，键相等时路号小的胜出
+     *
+     * @param i 路号
+     * @param j 路号
+     * @return i路胜出
+     */
+    private boolean beats(int i, int j) {
+        if (exhausted[i]) {
+            return false;
+        }
+        if (exhausted[j]) {
+            return true;
+        }
+        return keys[i] < keys[j] || keys[i] == keys[j] && i < j;
+    }
+}
@@ -0,0 +1,852 @@
+package com.zxs.ssh.template.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Project Name:sort-alg
+ * File Name:OffHeapSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:堆外排序，直接对直接内存（ByteBuffer.allocateDirect）或内存映射文件（FileChannel.map）的
+ * IntBuffer/LongBuffer视图排序，数据不进入Java堆，大数组排序不会撑满老年代引发Full GC
+ * 各方法对缓冲区的[position, limit)排序，position、limit不变；辅助缓冲区也分配在直接内存中
+ * 单个缓冲区最大2GB（int 5亿个、long 2.6亿个），更大的数据按缓冲区分段排序后用KWayMerge归并，或使用ExternalSortUtil
+ */
+
+
+public class OffHeapSortUtil {
+
+    /**
+     * 基数排序每位的位数
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * 基数排序桶个数
+     */
+    private static final int RADIX_BUCKETS = 1 << RADIX_BITS;
+
+    /**
+     * 基数排序(升序)，对缓冲区[position, limit)排序，辅助缓冲区分配在直接内存中
+     *
+     * @param a 待排序缓冲区，可以是直接内存或内存映射文件的视图
+     * @return 排序的元素个数
+     */
+    public static int radixSort(IntBuffer a) {
+        return radixSort(a, allocateInts(a.remaining()));
+    }
+
+    /**
+     * 基数排序(升序)，使用调用方提供的辅助缓冲区
+     * 与SortUtil.radixSort相同：低位优先，每次8位，一次遍历统计所有位的桶计数，所有数在某一位上相同时跳过该位
+     * 性质：1、时间复杂度：O(kn)，k=4  2、空间复杂度：O(n)（辅助缓冲区）  3、稳定排序  4、非原地排序
+     *
+     * @param a      待排序缓冲区
+     * @param buffer 辅助缓冲区，使用其[position, limit)，剩余元素个数不小于a.remaining()
+     * @return 排序的元素个数
+     */
+    public static int radixSort(IntBuffer a, IntBuffer buffer) {
+        IntBuffer s = a.slice();
+        int length = s.capacity();
+        IntBuffer w = slice(buffer, length);
+        if (length < 2) {
+            return length;
+        }
+        int passes = Integer.SIZE / RADIX_BITS;
+        int signFlip = RADIX_BUCKETS >>> 1;
+        int[] count = new int[passes * RADIX_BUCKETS];
+        for (int i = 0; i < length; i++) {
+            int value = s.get(i);
+            for (int pass = 0; pass < passes; pass++) {
+                int digit = (value >>> (pass * RADIX_BITS)) & (RADIX_BUCKETS - 1);
+                if (pass == passes - 1) {
+                    digit ^= signFlip;
+                }
+                count[pass * RADIX_BUCKETS + digit]++;
+            }
+        }
+        IntBuffer src = s;
+        IntBuffer dst = w;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS;
+            int flip = pass == passes - 1 ? signFlip : 0;
+            int base = pass * RADIX_BUCKETS;
+            //所有数在这一位上相同，跳过
+            if (count[base + (((src.get(0) >>> shift) & (RADIX_BUCKETS - 1)) ^ flip)] == length) {
+                continue;
+            }
+            prefixSum(count, base);
+            for (int i = 0; i < length; i++) {
+                int value = src.get(i);
+                int digit = ((value >>> shift) & (RADIX_BUCKETS - 1)) ^ flip;
+                dst.put(count[base + digit]++, value);
+            }
+            IntBuffer temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != s) {
+            copy(src, 0, s, 0, length);
+        }
+        return length;
+    }
+
+    /**
+     * 基数排序(升序)，对缓冲区[position, limit)排序，辅助缓冲区分配在直接内存中
+     *
+     * @param a 待排序缓冲区
+     * @return 排序的元素个数
+     */
+    public static int radixSort(LongBuffer a) {
+        return radixSort(a, allocateLongs(a.remaining()));
+    }
+
+    /**
+     * 基数排序(升序)，使用调用方提供的辅助缓冲区，共8位
+     *
+     * @param a      待排序缓冲区
+     * @param buffer 辅助缓冲区，使用其[position, limit)，剩余元素个数不小于a.remaining()
+     * @return 排序的元素个数
+     */
+    public static int radixSort(LongBuffer a, LongBuffer buffer) {
+        LongBuffer s = a.slice();
+        radixSortHelp(s, slice(buffer, s.capacity()), null, null, Long.BYTES);
+        return s.capacity();
+    }
+
+    /**
+     * long基数排序，可带一个随键移动的int附属值（记录序号）
+     *
+     * @param keys        键，从0开始
+     * @param keyBuffer   键的辅助缓冲区
+     * @param values      附属值，可以为null
+     * @param valueBuffer 附属值的辅助缓冲区，values为null时为null
+     * @param keyBytes    参与排序的低位字节数，最高一个字节按有符号处理：int键符号扩展为long后只排低4字节
+     */
+    private static void radixSortHelp(LongBuffer keys, LongBuffer keyBuffer, IntBuffer values, IntBuffer valueBuffer,
+                                      int keyBytes) {
+        int length = keys.capacity();
+        if (length < 2) {
+            return;
+        }
+        int passes = keyBytes * Byte.SIZE / RADIX_BITS;
+        int signFlip = RADIX_BUCKETS >>> 1;
+        int[] count = new int[passes * RADIX_BUCKETS];
+        for (int i = 0; i < length; i++) {
+            long value = keys.get(i);
+            for (int pass = 0; pass < passes; pass++) {
+                int digit = (int) (value >>> (pass * RADIX_BITS)) & (RADIX_BUCKETS - 1);
+                if (pass == passes - 1) {
+                    digit ^= signFlip;
+                }
+                count[pass * RADIX_BUCKETS + digit]++;
+            }
+        }
+        LongBuffer src = keys;
+        LongBuffer dst = keyBuffer;
+        IntBuffer valueSrc = values;
+        IntBuffer valueDst = valueBuffer;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS;
+            int flip = pass == passes - 1 ? signFlip : 0;
+            int base = pass * RADIX_BUCKETS;
+            //所有数在这一位上相同，跳过
+            if (count[base + (((int) (src.get(0) >>> shift) & (RADIX_BUCKETS - 1)) ^ flip)] == length) {
+                continue;
+            }
+            prefixSum(count, base);
+            for (int i = 0; i < length; i++) {
+                long value = src.get(i);
+                int position = count[base + (((int) (value >>> shift) & (RADIX_BUCKETS - 1)) ^ flip)]++;
+                dst.put(position, value);
+                if (valueSrc != null) {
+                    valueDst.put(position, valueSrc.get(i));
+                }
+            }
+            LongBuffer temp = src;
+            src = dst;
+            dst = temp;
+            IntBuffer valueTemp = valueSrc;
+            valueSrc = valueDst;
+            valueDst = valueTemp;
+        }
+        if (src != keys) {
+            copy(src, 0, keys, 0, length);
+            if (values != null) {
+                copy(valueSrc, 0, values, 0, length);
+            }
+        }
+    }
+
+    /**
+     * 定长记录排序(升序)，对records的[position, limit)中的记录按键原地排序，稳定
+     * 记录连续存放，每条recordSize字节，键位于记录内keyOffset处，为有符号int或long，按records的字节序读取
+     * 算法步骤：1.取出每条记录的键和序号，放入直接内存  2.键和序号一起基数排序（稳定）
+     * 3.按排好的序号沿置换环原地移动记录，每条记录只移动一次，只需一条记录大小的临时空间
+     * 记录越长，只移动键和序号比直接交换记录越划算
+     *
+     * @param records    记录缓冲区
+     * @param recordSize 每条记录的字节数
+     * @param keyOffset  键在记录内的字节偏移
+     * @param keyBytes   键的字节数，Integer.BYTES或Long.BYTES
+     * @return 记录条数
+     */
+    public static int sortRecords(ByteBuffer records, int recordSize, int keyOffset, int keyBytes) {
+        if (keyBytes != Integer.BYTES && keyBytes != Long.BYTES) {
+            throw new IllegalArgumentException("key bytes must be 4 or 8: " + keyBytes);
+        }
+        if (recordSize < keyBytes || keyOffset < 0 || keyOffset > recordSize - keyBytes) {
+            throw new IllegalArgumentException("key [" + keyOffset + ", " + (keyOffset + keyBytes)
+                    + ") out of record size " + recordSize);
+        }
+        if (records.remaining() % recordSize != 0) {
+            throw new IllegalArgumentException("remaining " + records.remaining()
+                    + " is not a multiple of record size " + recordSize);
+        }
+        ByteBuffer data = records.slice().order(records.order());
+        int count = data.capacity() / recordSize;
+        LongBuffer keys = allocateLongs(count);
+        IntBuffer order = allocateInts(count);
+        for (int i = 0; i < count; i++) {
+            int keyPosition = i * recordSize + keyOffset;
+            keys.put(i, keyBytes == Integer.BYTES ? data.getInt(keyPosition) : data.getLong(keyPosition));
+            order.put(i, i);
+        }
+        radixSortHelp(keys, allocateLongs(count), order, allocateInts(count), keyBytes);
+        permute(data, recordSize, order);
+        return count;
+    }
+
+    /**
+     * 按置换原地移动记录：排序后第i个位置的记录来自order[i]，处理过的位置标记为-1
+     *
+     * @param data       记录，从0开始
+     * @param recordSize 每条记录的字节数
+     * @param order      每个位置的来源序号，处理后被破坏
+     */
+    private static void permute(ByteBuffer data, int recordSize, IntBuffer order) {
+        int count = order.capacity();
+        byte[] temp = new byte[recordSize];
+        ByteBuffer from = data.duplicate();
+        ByteBuffer to = data.duplicate();
+        for (int start = 0; start < count; start++) {
+            int source = order.get(start);
+            if (source < 0 || source == start) {
+                continue;
+            }
+            //环的起点先存入临时空间，沿环把来源记录逐个移到目标位置，最后把临时空间放入环的终点
+            select(from, start, recordSize).get(temp);
+            int target = start;
+            while (source != start) {
+                select(to, target, recordSize).put(select(from, source, recordSize));
+                order.put(target, -1);
+                target = source;
+                source = order.get(target);
+            }
+            select(to, target, recordSize).put(temp);
+            order.put(target, -1);
+        }
+    }
+
+    /**
+     * 把视图定位到第index条记录
+     *
+     * @param view       记录缓冲区的副本
+     * @param index      记录序号
+     * @param recordSize 每条记录的字节数
+     * @return view
+     */
+    private static ByteBuffer select(ByteBuffer view, int index, int recordSize) {
+        int position = index * recordSize;
+        view.clear();
+        view.position(position);
+        view.limit(position + recordSize);
+        return view;
+    }
+
+    /**
+     * 前缀和：count[base, base + RADIX_BUCKETS)变为每个桶的起始位置
+     *
+     * @param count 桶计数
+     * @param base  本位的起始下标
+     */
+    private static void prefixSum(int[] count, int base) {
+        int sum = 0;
+        for (int digit = 0; digit < RADIX_BUCKETS; digit++) {
+            int c = count[base + digit];
+            count[base + digit] = sum;
+            sum += c;
+        }
+    }
+
+    /**
+     * 快速排序(升序)，对缓冲区[position, limit)原地排序，position和limit不变
+     * 内省排序实现，与SortUtil.quickSort相同，只用绝对位置的get/put，不分配与数据量相关的内存
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(logn)  3、非稳定排序  4、原地排序
+     *
+     * @param a 待排序缓冲区，可以是直接内存或内存映射文件的视图
+     * @return 排序的元素个数
+     */
+    public static int quickSort(IntBuffer a) {
+        IntBuffer s = a.slice();
+        int length = s.capacity();
+        introSort(s, 0, length - 1);
+        return length;
+    }
+
+    /**
+     * 内省排序（非递归），对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序缓冲区
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void introSort(IntBuffer a, int leftIndex, int rightIndex) {
+        if (leftIndex >= rightIndex) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(rightIndex - leftIndex + 1));
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        while (true) {
+            if (rightIndex - leftIndex < SortUtil.INSERTION_SORT_THRESHOLD) {
+                insertSort(a, leftIndex, rightIndex);
+            } else if (depthLimit == 0) {
+                heapSort(a, leftIndex, rightIndex);
+            } else {
+                depthLimit--;
+                int pivotIndex = partition(a, leftIndex, rightIndex);
+                if (pivotIndex - leftIndex < rightIndex - pivotIndex) {
+                    stack[top++] = pivotIndex + 1;
+                    stack[top++] = rightIndex;
+                    stack[top++] = depthLimit;
+                    rightIndex = pivotIndex - 1;
+                } else {
+                    stack[top++] = leftIndex;
+                    stack[top++] = pivotIndex - 1;
+                    stack[top++] = depthLimit;
+                    leftIndex = pivotIndex + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
+                return;
+            }
+            depthLimit = stack[--top];
+            rightIndex = stack[--top];
+            leftIndex = stack[--top];
+        }
+    }
+
+    /**
+     * 快速排序划分，三数取中，与轴值相等的数均匀分到两边
+     *
+     * @param a          待排序缓冲区
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引，要求leftIndex + 2 <= rightIndex
+     * @return 轴值最终所在索引
+     */
+    private static int partition(IntBuffer a, int leftIndex, int rightIndex) {
+        int pivotIndex = (leftIndex + rightIndex) >>> 1;
+        if (a.get(rightIndex) < a.get(leftIndex)) {
+            swap(a, leftIndex, rightIndex);
+        }
+        if (a.get(rightIndex) < a.get(pivotIndex)) {
+            swap(a, pivotIndex, rightIndex);
+        }
+        if (a.get(pivotIndex) < a.get(leftIndex)) {
+            swap(a, leftIndex, pivotIndex);
+        }
+        int pivotValue = a.get(pivotIndex);
+        swap(a, pivotIndex, rightIndex - 1);
+        int i = leftIndex;
+        int j = rightIndex - 1;
+        while (true) {
+            while (a.get(++i) < pivotValue) {
+            }
+            while (pivotValue < a.get(--j)) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(a, i, j);
+        }
+        swap(a, i, rightIndex - 1);
+        return i;
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序缓冲区
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(IntBuffer a, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            int value = a.get(i);
+            int j = i - 1;
+            while (j >= leftIndex && value < a.get(j)) {
+                a.put(j + 1, a.get(j));
+                j--;
+            }
+            a.put(j + 1, value);
+        }
+    }
+
+    /**
+     * 堆排序，对a[leftIndex, rightIndex]排序，作为内省排序的兜底算法
+     *
+     * @param a          待排序缓冲区
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void heapSort(IntBuffer a, int leftIndex, int rightIndex) {
+        int count = rightIndex - leftIndex + 1;
+        for (int parentIndex = (count - 2) >>> 1; parentIndex >= 0; parentIndex--) {
+            siftDown(a, leftIndex, count, parentIndex);
+        }
+        for (int last = count - 1; last > 0; last--) {
+            swap(a, leftIndex, leftIndex + last);
+            siftDown(a, leftIndex, last, 0);
+        }
+    }
+
+    /**
+     * 最大堆节点下沉（非递归）
+     *
+     * @param a           缓冲区
+     * @param offset      堆在缓冲区中的起始位置
+     * @param count       节点个数
+     * @param parentIndex 节点索引（相对offset）
+     */
+    private static void siftDown(IntBuffer a, int offset, int count, int parentIndex) {
+        int value = a.get(offset + parentIndex);
+        int childIndex;
+        while ((childIndex = 2 * parentIndex + 1) < count) {
+            if (childIndex + 1 < count && a.get(offset + childIndex) < a.get(offset + childIndex + 1)) {
+                childIndex++;
+            }
+            if (value >= a.get(offset + childIndex)) {
+                break;
+            }
+            a.put(offset + parentIndex, a.get(offset + childIndex));
+            parentIndex = childIndex;
+        }
+        a.put(offset + parentIndex, value);
+    }
+
+    /**
+     * 归并排序(升序)，对缓冲区[position, limit)排序，辅助缓冲区分配在直接内存中
+     *
+     * @param a 待排序缓冲区
+     * @return 排序的元素个数
+     */
+    public static int mergeSort(IntBuffer a) {
+        return mergeSort(a, allocateInts(a.remaining()));
+    }
+
+    /**
+     * 归并排序(升序)，使用调用方提供的辅助缓冲区，可在多次排序间复用
+     * 与SortUtil.mergeSort相同：原缓冲区与辅助缓冲区交替归并，左右已整体有序时跳过归并
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(n)（辅助缓冲区）  3、稳定排序 4、非原地排序
+     *
+     * @param a      待排序缓冲区
+     * @param buffer 辅助缓冲区，使用其[position, limit)，剩余元素个数不小于a.remaining()
+     * @return 排序的元素个数
+     */
+    public static int mergeSort(IntBuffer a, IntBuffer buffer) {
+        IntBuffer s = a.slice();
+        IntBuffer w = slice(buffer, s.capacity());
+        int length = s.capacity();
+        copy(s, 0, w, 0, length);
+        mergeSortHelp(w, s, 0, length);
+        return length;
+    }
+
+    /**
+     * 归并排序递归，将[low, high)排好序放入dest，调用前src与dest在[low, high)内的数据相同
+     *
+     * @param src  源缓冲区
+     * @param dest 目标缓冲区
+     * @param low  起始索引(包含)
+     * @param high 结束索引(不包含)
+     */
+    private static void mergeSortHelp(IntBuffer src, IntBuffer dest, int low, int high) {
+        if (high - low < SortUtil.INSERTION_SORT_THRESHOLD) {
+            insertSort(dest, low, high - 1);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSortHelp(dest, src, low, mid);
+        mergeSortHelp(dest, src, mid, high);
+        if (src.get(mid - 1) <= src.get(mid)) {
+            copy(src, low, dest, low, high - low);
+            return;
+        }
+        int i = low;
+        int j = mid;
+        int k = low;
+        //相等时取左边的数，保证稳定
+        while (i < mid && j < high) {
+            if (src.get(j) < src.get(i)) {
+                dest.put(k++, src.get(j++));
+            } else {
+                dest.put(k++, src.get(i++));
+            }
+        }
+        if (i < mid) {
+            copy(src, i, dest, k, mid - i);
+        } else if (j < high) {
+            copy(src, j, dest, k, high - j);
+        }
+    }
+
+    /**
+     * 交换位置
+     *
+     * @param a 缓冲区
+     * @param i 第一个数索引
+     * @param j 第二个数索引
+     */
+    private static void swap(IntBuffer a, int i, int j) {
+        int temp = a.get(i);
+        a.put(i, a.get(j));
+        a.put(j, temp);
+    }
+
+    /**
+     * 批量复制，两边字节序相同时为一次内存复制
+     *
+     * @param src     源缓冲区
+     * @param srcPos  源起始索引
+     * @param dest    目标缓冲区
+     * @param destPos 目标起始索引
+     * @param length  个数
+     */
+    private static void copy(IntBuffer src, int srcPos, IntBuffer dest, int destPos, int length) {
+        IntBuffer from = src.duplicate();
+        from.limit(srcPos + length);
+        from.position(srcPos);
+        IntBuffer to = dest.duplicate();
+        to.position(destPos);
+        to.put(from);
+    }
+
+    /**
+     * 取缓冲区[position, position + length)作为从0开始的视图
+     *
+     * @param buffer 缓冲区
+     * @param length 需要的元素个数
+     * @return 视图
+     */
+    private static IntBuffer slice(IntBuffer buffer, int length) {
+        if (buffer.remaining() < length) {
+            throw new IllegalArgumentException("buffer remaining " + buffer.remaining() + " < " + length);
+        }
+        IntBuffer s = buffer.slice();
+        s.limit(length);
+        return s;
+    }
+
+    /**
+     * 在直接内存中分配缓冲区，使用本机字节序
+     *
+     * @param length 元素个数
+     * @return 缓冲区
+     */
+    private static IntBuffer allocateInts(int length) {
+        long bytes = (long) length * Integer.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(length + " elements exceed one direct buffer");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * 快速排序(升序)，对缓冲区[position, limit)原地排序，position和limit不变
+     * 内省排序实现，与SortUtil.quickSort相同，只用绝对位置的get/put，不分配与数据量相关的内存
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(logn)  3、非稳定排序  4、原地排序
+     *
+     * @param a 待排序缓冲区，可以是直接内存或内存映射文件的视图
+     * @return 排序的元素个数
+     */
+    public static int quickSort(LongBuffer a) {
+        LongBuffer s = a.slice();
+        int length = s.capacity();
+        introSort(s, 0, length - 1);
+        return length;
+    }
+
+    /**
+     * 内省排序（非递归），对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序缓冲区
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void introSort(LongBuffer a, int leftIndex, int rightIndex) {
+        if (leftIndex >= rightIndex) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(rightIndex - leftIndex + 1));
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        while (true) {
+            if (rightIndex - leftIndex < SortUtil.INSERTION_SORT_THRESHOLD) {
+                insertSort(a, leftIndex, rightIndex);
+            } else if (depthLimit == 0) {
+                heapSort(a, leftIndex, rightIndex);
+            } else {
+                depthLimit--;
+                int pivotIndex = partition(a, leftIndex, rightIndex);
+                if (pivotIndex - leftIndex < rightIndex - pivotIndex) {
+                    stack[top++] = pivotIndex + 1;
+                    stack[top++] = rightIndex;
+                    stack[top++] = depthLimit;
+                    rightIndex = pivotIndex - 1;
+                } else {
+                    stack[top++] = leftIndex;
+                    stack[top++] = pivotIndex - 1;
+                    stack[top++] = depthLimit;
+                    leftIndex = pivotIndex + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
+                return;
+            }
+            depthLimit = stack[--top];
+            rightIndex = stack[--top];
+            leftIndex = stack[--top];
+        }
+    }
+
+    /**
+     * 快速排序划分，三数取中，与轴值相等的数均匀分到两边
+     *
+     * @param a          待排序缓冲区
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引，要求leftIndex + 2 <= rightIndex
+     * @return 轴值最终所在索引
+     */
+    private static int partition(LongBuffer a, int leftIndex, int rightIndex) {
+        int pivotIndex = (leftIndex + rightIndex) >>> 1;
+        if (a.get(rightIndex) < a.get(leftIndex)) {
+            swap(a, leftIndex, rightIndex);
+        }
+        if (a.get(rightIndex) < a.get(pivotIndex)) {
+            swap(a, pivotIndex, rightIndex);
+        }
+        if (a.get(pivotIndex) < a.get(leftIndex)) {
+            swap(a, leftIndex, pivotIndex);
+        }
+        long pivotValue = a.get(pivotIndex);
+        swap(a, pivotIndex, rightIndex - 1);
+        int i = leftIndex;
+        int j = rightIndex - 1;
+        while (true) {
+            while (a.get(++i) < pivotValue) {
+            }
+            while (pivotValue < a.get(--j)) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(a, i, j);
+        }
+        swap(a, i, rightIndex - 1);
+        return i;
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序缓冲区
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(LongBuffer a, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            long value = a.get(i);
+            int j = i - 1;
+            while (j >= leftIndex && value < a.get(j)) {
+                a.put(j + 1, a.get(j));
+                j--;
+            }
+            a.put(j + 1, value);
+        }
+    }
+
+    /**
+     * 堆排序，对a[leftIndex, rightIndex]排序，作为内省排序的兜底算法
+     *
+     * @param a          待排序缓冲区
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void heapSort(LongBuffer a, int leftIndex, int rightIndex) {
+        int count = rightIndex - leftIndex + 1;
+        for (int parentIndex = (count - 2) >>> 1; parentIndex >= 0; parentIndex--) {
+            siftDown(a, leftIndex, count, parentIndex);
+        }
+        for (int last = count - 1; last > 0; last--) {
+            swap(a, leftIndex, leftIndex + last);
+            siftDown(a, leftIndex, last, 0);
+        }
+    }
+
+    /**
+     * 最大堆节点下沉（非递归）
+     *
+     * @param a           缓冲区
+     * @param offset      堆在缓冲区中的起始位置
+     * @param count       节点个数
+     * @param parentIndex 节点索引（相对offset）
+     */
+    private static void siftDown(LongBuffer a, int offset, int count, int parentIndex) {
+        long value = a.get(offset + parentIndex);
+        int childIndex;
+        while ((childIndex = 2 * parentIndex + 1) < count) {
+            if (childIndex + 1 < count && a.get(offset + childIndex) < a.get(offset + childIndex + 1)) {
+                childIndex++;
+            }
+            if (value >= a.get(offset + childIndex)) {
+                break;
+            }
+            a.put(offset + parentIndex, a.get(offset + childIndex));
+            parentIndex = childIndex;
+        }
+        a.put(offset + parentIndex, value);
+    }
+
+    /**
+     * 归并排序(升序)，对缓冲区[position, limit)排序，辅助缓冲区分配在直接内存中
+     *
+     * @param a 待排序缓冲区
+     * @return 排序的元素个数
+     */
+    public static int mergeSort(LongBuffer a) {
+        return mergeSort(a, allocateLongs(a.remaining()));
+    }
+
+    /**
+     * 归并排序(升序)，使用调用方提供的辅助缓冲区，可在多次排序间复用
+     * 与SortUtil.mergeSort相同：原缓冲区与辅助缓冲区交替归并，左右已整体有序时跳过归并
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(n)（辅助缓冲区）  3、稳定排序 4、非原地排序
+     *
+     * @param a      待排序缓冲区
+     * @param buffer 辅助缓冲区，使用其[position, limit)，剩余元素个数不小于a.remaining()
+     * @return 排序的元素个数
+     */
+    public static int mergeSort(LongBuffer a, LongBuffer buffer) {
+        LongBuffer s = a.slice();
+        LongBuffer w = slice(buffer, s.capacity());
+        int length = s.capacity();
+        copy(s, 0, w, 0, length);
+        mergeSortHelp(w, s, 0, length);
+        return length;
+    }
+
+    /**
+     * 归并排序递归，将[low, high)排好序放入dest，调用前src与dest在[low, high)内的数据相同
+     *
+     * @param src  源缓冲区
+     * @param dest 目标缓冲区
+     * @param low  起始索引(包含)
+     * @param high 结束索引(不包含)
+     */
+    private static void mergeSortHelp(LongBuffer src, LongBuffer dest, int low, int high) {
+        if (high - low < SortUtil.INSERTION_SORT_THRESHOLD) {
+            insertSort(dest, low, high - 1);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSortHelp(dest, src, low, mid);
+        mergeSortHelp(dest, src, mid, high);
+        if (src.get(mid - 1) <= src.get(mid)) {
+            copy(src, low, dest, low, high - low);
+            return;
+        }
+        int i = low;
+        int j = mid;
+        int k = low;
+        //相等时取左边的数，保证稳定
+        while (i < mid && j < high) {
+            if (src.get(j) < src.get(i)) {
+                dest.put(k++, src.get(j++));
+            } else {
+                dest.put(k++, src.get(i++));
+            }
+        }
+        if (i < mid) {
+            copy(src, i, dest, k, mid - i);
+        } else if (j < high) {
+            copy(src, j, dest, k, high - j);
+        }
+    }
+
+    /**
+     * 交换位置
+     *
+     * @param a 缓冲区
+     * @param i 第一个数索引
+     * @param j 第二个数索引
+     */
+    private static void swap(LongBuffer a, int i, int j) {
+        long temp = a.get(i);
+        a.put(i, a.get(j));
+        a.put(j, temp);
+    }
+
+    /**
+     * 批量复制，两边字节序相同时为一次内存复制
+     *
+     * @param src     源缓冲区
+     * @param srcPos  源起始索引
+     * @param dest    目标缓冲区
+     * @param destPos 目标起始索引
+     * @param length  个数
+     */
+    private static void copy(LongBuffer src, int srcPos, LongBuffer dest, int destPos, int length) {
+        LongBuffer from = src.duplicate();
+        from.limit(srcPos + length);
+        from.position(srcPos);
+        LongBuffer to = dest.duplicate();
+        to.position(destPos);
+        to.put(from);
+    }
+
+    /**
+     * 取缓冲区[position, position + length)作为从0开始的视图
+     *
+     * @param buffer 缓冲区
+     * @param length 需要的元素个数
+     * @return 视图
+     */
+    private static LongBuffer slice(LongBuffer buffer, int length) {
+        if (buffer.remaining() < length) {
+            throw new IllegalArgumentException("buffer remaining " + buffer.remaining() + " < " + length);
+        }
+        LongBuffer s = buffer.slice();
+        s.limit(length);
+        return s;
+    }
+
+    /**
+     * 在直接内存中分配缓冲区，使用本机字节序
+     *
+     * @param length 元素个数
+     * @return 缓冲区
+     */
+    private static LongBuffer allocateLongs(int length) {
+        long bytes = (long) length * Long.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(length + " elements exceed one direct buffer");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+}
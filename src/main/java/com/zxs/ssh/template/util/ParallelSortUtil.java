@@ -0,0 +1,420 @@
+package com.zxs.ssh.template.util;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Project Name:sort-alg
+ * File Name:ParallelSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:基于ForkJoinPool的并行排序（归并排序、快速排序）
+ */
+
+
+public class ParallelSortUtil {
+
+    /**
+     * 默认串行阈值，子数组长度不超过该值时不再拆分任务，直接串行排序
+     */
+    public static final int DEFAULT_CUTOFF = 1 << 13;
+
+    /**
+     * 并行归并排序(升序)，使用公共线程池和默认串行阈值
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @return 数组长度
+     */
+    public static int parallelMergeSort(int[] a, int length) {
+        return parallelMergeSort(a, length, ForkJoinPool.commonPool(), DEFAULT_CUTOFF);
+    }
+
+    /**
+     * 并行归并排序(升序)
+     * 算法步骤：1.左右两半并行排序  2.两个有序段并行归并（取较长段的中值，二分查找其在另一段中的位置，拆成两个独立的归并任务）
+     * 整个排序只分配一个长度为n的辅助数组，每一层在原数组和辅助数组之间交替归并
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(n)  3、稳定排序  4、非原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param pool   调用方提供的线程池
+     * @param cutoff 串行阈值，必须大于0
+     * @return 数组长度
+     */
+    public static int parallelMergeSort(int[] a, int length, ForkJoinPool pool, int cutoff) {
+        checkArguments(a, length, pool, cutoff);
+        if (length < 2) {
+            return length;
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("PARALLEL_MERGE", length);
+        }
+        try {
+            int[] w = new int[length];
+            if (SortMetrics.ENABLED) {
+                SortMetrics.buffer((long) Integer.BYTES * length);
+            }
+            pool.invoke(new MergeSortTask(a, w, 0, length, false, cutoff));
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 并行快速排序(升序)，使用公共线程池和默认串行阈值
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @return 数组长度
+     */
+    public static int parallelQuickSort(int[] a, int length) {
+        return parallelQuickSort(a, length, ForkJoinPool.commonPool(), DEFAULT_CUTOFF);
+    }
+
+    /**
+     * 并行快速排序(升序)
+     * 划分后左右两部分互不相关，作为两个子任务并行排序；子数组长度不超过串行阈值或划分层数超过2logn时交给串行内省排序
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(logn)  3、非稳定排序  4、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param pool   调用方提供的线程池
+     * @param cutoff 串行阈值，必须大于0
+     * @return 数组长度
+     */
+    public static int parallelQuickSort(int[] a, int length, ForkJoinPool pool, int cutoff) {
+        checkArguments(a, length, pool, cutoff);
+        if (length < 2) {
+            return length;
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("PARALLEL_QUICK", length);
+        }
+        try {
+            int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(length));
+            pool.invoke(new QuickSortTask(a, 0, length - 1, depthLimit, cutoff));
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 并行快速排序，对a[fromIndex, toIndex)排序，其余部分不变，使用公共线程池和默认串行阈值
+     * 降序时先按位取反，升序排序后再取反回来，见SortUtil.complement
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
+     */
+    public static int parallelQuickSort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        SortUtil.checkRange(a.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        if (length < 2) {
+            return length;
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("PARALLEL_QUICK", length);
+        }
+        try {
+            if (!asc) {
+                SortUtil.complement(a, fromIndex, toIndex);
+            }
+            int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(length));
+            ForkJoinPool.commonPool().invoke(new QuickSortTask(a, fromIndex, toIndex - 1, depthLimit, DEFAULT_CUTOFF));
+            if (!asc) {
+                SortUtil.complement(a, fromIndex, toIndex);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 参数校验
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param pool   线程池
+     * @param cutoff 串行阈值
+     */
+    private static void checkArguments(int[] a, int length, ForkJoinPool pool, int cutoff) {
+        Objects.requireNonNull(a, "a");
+        Objects.requireNonNull(pool, "pool");
+        if (length < 0 || length > a.length) {
+            throw new IllegalArgumentException("length " + length + " out of range [0, " + a.length + "]");
+        }
+        if (cutoff < 1) {
+            throw new IllegalArgumentException("cutoff must be positive: " + cutoff);
+        }
+    }
+
+    /**
+     * 归并排序任务
+     * 对a[fromIndex, toIndex)排序，结果存放在a(toWork为false)或w(toWork为true)的同一区间
+     */
+    private static final class MergeSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int[] w;
+        private final int fromIndex;
+        private final int toIndex;
+        private final boolean toWork;
+        private final int cutoff;
+
+        MergeSortTask(int[] a, int[] w, int fromIndex, int toIndex, boolean toWork, int cutoff) {
+            this.a = a;
+            this.w = w;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.toWork = toWork;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int n = toIndex - fromIndex;
+            if (n <= cutoff) {
+                System.arraycopy(a, fromIndex, w, fromIndex, n);
+                if (toWork) {
+                    SortUtil.mergeSortHelp(a, w, fromIndex, toIndex);
+                } else {
+                    SortUtil.mergeSortHelp(w, a, fromIndex, toIndex);
+                }
+                return;
+            }
+            int midIndex = (fromIndex + toIndex) >>> 1;
+            //子任务的结果放在另一个数组中，本层再归并回目标数组
+            invokeAll(new MergeSortTask(a, w, fromIndex, midIndex, !toWork, cutoff),
+                    new MergeSortTask(a, w, midIndex, toIndex, !toWork, cutoff));
+            int[] src = toWork ? a : w;
+            int[] dst = toWork ? w : a;
+            new MergeTask(src, dst, fromIndex, midIndex, midIndex, toIndex, fromIndex, cutoff).compute();
+        }
+    }
+
+    /**
+     * 并行归并任务
+     * 将src[leftFrom, leftTo)与src[rightFrom, rightTo)两个有序段归并到dst[outIndex, ...)
+     */
+    private static final class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+        private final int[] dst;
+        private final int leftFrom;
+        private final int leftTo;
+        private final int rightFrom;
+        private final int rightTo;
+        private final int outIndex;
+        private final int cutoff;
+
+        MergeTask(int[] src, int[] dst, int leftFrom, int leftTo, int rightFrom, int rightTo, int outIndex, int cutoff) {
+            this.src = src;
+            this.dst = dst;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.outIndex = outIndex;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLength = leftTo - leftFrom;
+            int rightLength = rightTo - rightFrom;
+            if (leftLength + rightLength <= cutoff || leftLength == 0 || rightLength == 0) {
+                mergeSequential();
+                return;
+            }
+            //取较长段的中值作为分割值，单独放到最终位置，其余部分拆成两个互不相关的归并任务
+            if (leftLength >= rightLength) {
+                //左段中值之前的数、右段中严格小于中值的数归入前半部分（相等时左段在前，保证稳定）
+                int leftSplit = (leftFrom + leftTo) >>> 1;
+                int rightSplit = lowerBound(src, rightFrom, rightTo, src[leftSplit]);
+                int splitOut = outIndex + (leftSplit - leftFrom) + (rightSplit - rightFrom);
+                dst[splitOut] = src[leftSplit];
+                invokeAll(new MergeTask(src, dst, leftFrom, leftSplit, rightFrom, rightSplit, outIndex, cutoff),
+                        new MergeTask(src, dst, leftSplit + 1, leftTo, rightSplit, rightTo, splitOut + 1, cutoff));
+            } else {
+                //右段中值之前的数、左段中小于等于中值的数归入前半部分
+                int rightSplit = (rightFrom + rightTo) >>> 1;
+                int leftSplit = upperBound(src, leftFrom, leftTo, src[rightSplit]);
+                int splitOut = outIndex + (leftSplit - leftFrom) + (rightSplit - rightFrom);
+                dst[splitOut] = src[rightSplit];
+                invokeAll(new MergeTask(src, dst, leftFrom, leftSplit, rightFrom, rightSplit, outIndex, cutoff),
+                        new MergeTask(src, dst, leftSplit, leftTo, rightSplit + 1, rightTo, splitOut + 1, cutoff));
+            }
+        }
+
+        /**
+         * 串行归并
+         */
+        private void mergeSequential() {
+            int i = leftFrom;
+            int j = rightFrom;
+            int k = outIndex;
+            while (i < leftTo && j < rightTo) {
+                if (src[j] < src[i]) {
+                    dst[k++] = src[j++];
+                } else {
+                    dst[k++] = src[i++];
+                }
+            }
+            if (i < leftTo) {
+                System.arraycopy(src, i, dst, k, leftTo - i);
+            } else if (j < rightTo) {
+                System.arraycopy(src, j, dst, k, rightTo - j);
+            }
+        }
+    }
+
+    /**
+     * 快速排序任务，对a[leftIndex, rightIndex]排序
+     */
+    private static final class QuickSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int leftIndex;
+        private final int rightIndex;
+        private final int depthLimit;
+        private final int cutoff;
+
+        QuickSortTask(int[] a, int leftIndex, int rightIndex, int depthLimit, int cutoff) {
+            this.a = a;
+            this.leftIndex = leftIndex;
+            this.rightIndex = rightIndex;
+            this.depthLimit = depthLimit;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (rightIndex - leftIndex < cutoff || depthLimit == 0) {
+                SortUtil.introSort(a, leftIndex, rightIndex);
+                return;
+            }
+            int pivotIndex = SortUtil.partition(a, leftIndex, rightIndex);
+            invokeAll(new QuickSortTask(a, leftIndex, pivotIndex - 1, depthLimit - 1, cutoff),
+                    new QuickSortTask(a, pivotIndex + 1, rightIndex, depthLimit - 1, cutoff));
+        }
+    }
+
+    /**
+     * 有序段中第一个大于等于value的索引
+     *
+     * @param a         有序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param value     查找值
+     * @return 索引，不存在时返回toIndex
+     */
+    private static int lowerBound(int[] a, int fromIndex, int toIndex, int value) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 有序段中第一个大于value的索引
+     *
+     * @param a         有序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param value     查找值
+     * @return 索引，不存在时返回toIndex
+     */
+    private static int upperBound(int[] a, int fromIndex, int toIndex, int value) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 并行排序与串行排序耗时对比，分别在1百万、1千万、5千万数据量下运行
+     * 运行参数建议：-Xmx8g
+     *
+     * @param args 系统参数
+     */
+    public static void main(String[] args) {
+        int[] lengths = {1000000, 10000000, 50000000};
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int length : lengths) {
+            int[] origin = Distribution.RANDOM.generate(length, System.nanoTime());
+            System.out.println("数组大小：" + length);
+            int[] a = origin.clone();
+            long startTime = System.nanoTime();
+            SortUtil.mergeSort(a, length);
+            printExecuteTime(startTime, "串行归并排序", a);
+            a = origin.clone();
+            startTime = System.nanoTime();
+            SortUtil.quickSort(a, length);
+            printExecuteTime(startTime, "串行快速排序", a);
+            for (int parallelism = 1; parallelism <= processors; parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    a = origin.clone();
+                    startTime = System.nanoTime();
+                    parallelMergeSort(a, length, pool, DEFAULT_CUTOFF);
+                    printExecuteTime(startTime, "并行归并排序 parallelism=" + parallelism, a);
+                    a = origin.clone();
+                    startTime = System.nanoTime();
+                    parallelQuickSort(a, length, pool, DEFAULT_CUTOFF);
+                    printExecuteTime(startTime, "并行快速排序 parallelism=" + parallelism, a);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    /**
+     * 打印执行时间及排序结果校验
+     *
+     * @param startTime 开始时间
+     * @param title     标题
+     * @param a         排序后的数组
+     */
+    private static void printExecuteTime(long startTime, String title, int[] a) {
+        double executeTime = (System.nanoTime() - startTime) / 1000000d;
+        boolean sorted = true;
+        for (int i = 0; i < a.length - 1; i++) {
+            if (a[i + 1] < a[i]) {
+                sorted = false;
+                break;
+            }
+        }
+        System.out.println("【" + title + "】执行时间：" + executeTime + "ms  isSorted:" + sorted);
+    }
+}
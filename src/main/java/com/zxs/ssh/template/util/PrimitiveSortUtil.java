@@ -0,0 +1,990 @@
+package com.zxs.ssh.template.util;
+
+/**
+ * Project Name:sort-alg
+ * File Name:PrimitiveSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:long、float、double、short、char、byte数组排序，不转换为int、不装箱
+ * long/float/double：快速排序（内省排序）、归并排序，基数排序见SortUtil.radixSort；
+ * 浮点数按Double.compare/Float.compare的全序排序，比较前转换为可按有符号整数比较的位序列
+ * short/char/byte：取值范围不超过65536，使用计数排序，取值范围相对数组长度过宽时改用两趟基数排序
+ */
+
+
+public class PrimitiveSortUtil {
+
+    /**
+     * short/char/byte数组长度小于该值时直接插入排序，计数排序的直方图开销不划算
+     */
+    private static final int COUNTING_MIN_LENGTH = 48;
+
+    /**
+     * 计数排序(升序)，byte数组，O(n + 256)
+     * 性质：1、时间复杂度：O(n + range)  2、空间复杂度：O(range)  3、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int countingSort(byte[] a, int length) {
+        if (length < COUNTING_MIN_LENGTH) {
+            insertSort(a, 0, length - 1);
+            return length;
+        }
+        int[] count = new int[1 << 8];
+        for (int i = 0; i < length; i++) {
+            count[a[i] - Byte.MIN_VALUE]++;
+        }
+        int index = 0;
+        for (int bin = 0; bin < count.length; bin++) {
+            for (int c = count[bin]; c > 0; c--) {
+                a[index++] = (byte) (bin + Byte.MIN_VALUE);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 计数排序(升序)，short数组
+     * 算法步骤：1.一次遍历求最小值、最大值  2.取值范围适合计数排序（见CountingSortUtil.isCountable）时统计直方图后写回
+     * 3.否则按value - min的低8位、高8位做两趟基数排序，需要一个长度为n的辅助数组
+     * 性质：1、时间复杂度：O(n + range)  2、空间复杂度：O(range)或O(n)  3、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int countingSort(short[] a, int length) {
+        if (length < COUNTING_MIN_LENGTH) {
+            insertSort(a, 0, length - 1);
+            return length;
+        }
+        int min = a[0];
+        int max = a[0];
+        for (int i = 1; i < length; i++) {
+            int value = a[i];
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        int range = max - min + 1;
+        if (CountingSortUtil.isCountable(range, length)) {
+            int[] count = new int[range];
+            for (int i = 0; i < length; i++) {
+                count[a[i] - min]++;
+            }
+            int index = 0;
+            for (int bin = 0; bin < range; bin++) {
+                for (int c = count[bin]; c > 0; c--) {
+                    a[index++] = (short) (bin + min);
+                }
+            }
+            return length;
+        }
+        //两趟基数排序：第一趟a -> buffer，第二趟buffer -> a
+        short[] buffer = new short[length];
+        int[] lowCount = new int[(1 << 8) + 1];
+        int[] highCount = new int[(1 << 8) + 1];
+        for (int i = 0; i < length; i++) {
+            int key = a[i] - min;
+            lowCount[(key & 0xFF) + 1]++;
+            highCount[(key >>> 8) + 1]++;
+        }
+        for (int bin = 1; bin <= 1 << 8; bin++) {
+            lowCount[bin] += lowCount[bin - 1];
+            highCount[bin] += highCount[bin - 1];
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[lowCount[(a[i] - min) & 0xFF]++] = a[i];
+        }
+        for (int i = 0; i < length; i++) {
+            a[highCount[(buffer[i] - min) >>> 8]++] = buffer[i];
+        }
+        return length;
+    }
+
+    /**
+     * 计数排序(升序)，char数组，与short数组相同，按无符号值排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int countingSort(char[] a, int length) {
+        if (length < COUNTING_MIN_LENGTH) {
+            insertSort(a, 0, length - 1);
+            return length;
+        }
+        int min = a[0];
+        int max = a[0];
+        for (int i = 1; i < length; i++) {
+            int value = a[i];
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        int range = max - min + 1;
+        if (CountingSortUtil.isCountable(range, length)) {
+            int[] count = new int[range];
+            for (int i = 0; i < length; i++) {
+                count[a[i] - min]++;
+            }
+            int index = 0;
+            for (int bin = 0; bin < range; bin++) {
+                for (int c = count[bin]; c > 0; c--) {
+                    a[index++] = (char) (bin + min);
+                }
+            }
+            return length;
+        }
+        char[] buffer = new char[length];
+        int[] lowCount = new int[(1 << 8) + 1];
+        int[] highCount = new int[(1 << 8) + 1];
+        for (int i = 0; i < length; i++) {
+            int key = a[i] - min;
+            lowCount[(key & 0xFF) + 1]++;
+            highCount[(key >>> 8) + 1]++;
+        }
+        for (int bin = 1; bin <= 1 << 8; bin++) {
+            lowCount[bin] += lowCount[bin - 1];
+            highCount[bin] += highCount[bin - 1];
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[lowCount[(a[i] - min) & 0xFF]++] = a[i];
+        }
+        for (int i = 0; i < length; i++) {
+            a[highCount[(buffer[i] - min) >>> 8]++] = buffer[i];
+        }
+        return length;
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(byte[] a, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            byte value = a[i];
+            int j = i - 1;
+            while (j >= leftIndex && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(short[] a, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            short value = a[i];
+            int j = i - 1;
+            while (j >= leftIndex && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(char[] a, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            char value = a[i];
+            int j = i - 1;
+            while (j >= leftIndex && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    /**
+     * float转换为可按有符号int比较的位序列：负数翻转除符号位外的全部位，非负数不变
+     * -0.0f转换后为-1，排在0.0f前面；调用前NaN已移到末尾，因此直接取原始位，不做NaN规整
+     *
+     * @param value 浮点数，不是NaN
+     * @return 排序键
+     */
+    private static int key(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+    }
+
+    /**
+     * double转换为可按有符号long比较的位序列，方式与float相同
+     *
+     * @param value 浮点数，不是NaN
+     * @return 排序键
+     */
+    private static long key(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * 快速排序(升序)，long数组
+     * 内省排序实现，与SortUtil.quickSort相同：三数取中划分、显式栈、划分层数超过2logn时改用堆排序、短段插入排序
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(logn)  3、非稳定排序  4、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int quickSort(long[] a, int length) {
+        introSort(a, 0, length - 1);
+        return length;
+    }
+
+    /**
+     * 内省排序（非递归），对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    static void introSort(long[] a, int leftIndex, int rightIndex) {
+        if (leftIndex >= rightIndex) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(rightIndex - leftIndex + 1));
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        while (true) {
+            if (rightIndex - leftIndex < SortUtil.INSERTION_SORT_THRESHOLD) {
+                insertSort(a, leftIndex, rightIndex);
+            } else if (depthLimit == 0) {
+                heapSort(a, leftIndex, rightIndex);
+            } else {
+                depthLimit--;
+                int pivotIndex = partition(a, leftIndex, rightIndex);
+                if (pivotIndex - leftIndex < rightIndex - pivotIndex) {
+                    stack[top++] = pivotIndex + 1;
+                    stack[top++] = rightIndex;
+                    stack[top++] = depthLimit;
+                    rightIndex = pivotIndex - 1;
+                } else {
+                    stack[top++] = leftIndex;
+                    stack[top++] = pivotIndex - 1;
+                    stack[top++] = depthLimit;
+                    leftIndex = pivotIndex + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
+                return;
+            }
+            depthLimit = stack[--top];
+            rightIndex = stack[--top];
+            leftIndex = stack[--top];
+        }
+    }
+
+    /**
+     * 快速排序划分，三数取中，与轴值相等的数均匀分到两边
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引，要求leftIndex + 2 <= rightIndex
+     * @return 轴值最终所在索引
+     */
+    private static int partition(long[] a, int leftIndex, int rightIndex) {
+        int pivotIndex = (leftIndex + rightIndex) >>> 1;
+        if (a[rightIndex] < a[leftIndex]) {
+            swap(a, leftIndex, rightIndex);
+        }
+        if (a[rightIndex] < a[pivotIndex]) {
+            swap(a, pivotIndex, rightIndex);
+        }
+        if (a[pivotIndex] < a[leftIndex]) {
+            swap(a, leftIndex, pivotIndex);
+        }
+        long pivotValue = a[pivotIndex];
+        swap(a, pivotIndex, rightIndex - 1);
+        int i = leftIndex;
+        int j = rightIndex - 1;
+        while (true) {
+            while (a[++i] < pivotValue) {
+            }
+            while (pivotValue < a[--j]) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(a, i, j);
+        }
+        swap(a, i, rightIndex - 1);
+        return i;
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(long[] a, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            long value = a[i];
+            int j = i - 1;
+            while (j >= leftIndex && value < a[j]) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    /**
+     * 堆排序，对a[leftIndex, rightIndex]排序，作为内省排序的兜底算法
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void heapSort(long[] a, int leftIndex, int rightIndex) {
+        int count = rightIndex - leftIndex + 1;
+        for (int parentIndex = (count - 2) >>> 1; parentIndex >= 0; parentIndex--) {
+            siftDown(a, leftIndex, count, parentIndex);
+        }
+        for (int last = count - 1; last > 0; last--) {
+            swap(a, leftIndex, leftIndex + last);
+            siftDown(a, leftIndex, last, 0);
+        }
+    }
+
+    /**
+     * 最大堆节点下沉（非递归）
+     *
+     * @param a           数组
+     * @param offset      堆在数组中的起始位置
+     * @param count       节点个数
+     * @param parentIndex 节点索引（相对offset）
+     */
+    private static void siftDown(long[] a, int offset, int count, int parentIndex) {
+        long value = a[offset + parentIndex];
+        int childIndex;
+        while ((childIndex = 2 * parentIndex + 1) < count) {
+            if (childIndex + 1 < count && a[offset + childIndex] < a[offset + childIndex + 1]) {
+                childIndex++;
+            }
+            if (value >= a[offset + childIndex]) {
+                break;
+            }
+            a[offset + parentIndex] = a[offset + childIndex];
+            parentIndex = childIndex;
+        }
+        a[offset + parentIndex] = value;
+    }
+
+    /**
+     * 归并排序(升序)，long数组
+     * 与SortUtil.mergeSort相同：只分配一个辅助数组，原数组与辅助数组交替归并，左右已整体有序时跳过归并
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(n)  3、稳定排序 4、非原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int mergeSort(long[] a, int length) {
+        return mergeSort(a, length, new long[length]);
+    }
+
+    /**
+     * 归并排序(升序)，使用调用方提供的辅助数组，排序过程中不分配内存
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param buffer 辅助数组，长度不小于length
+     */
+    public static int mergeSort(long[] a, int length, long[] buffer) {
+        if (buffer.length < length) {
+            throw new IllegalArgumentException("buffer length " + buffer.length + " < " + length);
+        }
+        System.arraycopy(a, 0, buffer, 0, length);
+        mergeSortHelp(buffer, a, 0, length);
+        return length;
+    }
+
+    /**
+     * 归并排序递归，将[low, high)排好序放入dest，调用前src与dest在[low, high)内的数据相同
+     *
+     * @param src  源数组
+     * @param dest 目标数组
+     * @param low  起始索引(包含)
+     * @param high 结束索引(不包含)
+     */
+    private static void mergeSortHelp(long[] src, long[] dest, int low, int high) {
+        if (high - low < SortUtil.INSERTION_SORT_THRESHOLD) {
+            insertSort(dest, low, high - 1);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSortHelp(dest, src, low, mid);
+        mergeSortHelp(dest, src, mid, high);
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+        int i = low;
+        int j = mid;
+        int k = low;
+        //相等时取左边的数，保证稳定
+        while (i < mid && j < high) {
+            if (src[j] < src[i]) {
+                dest[k++] = src[j++];
+            } else {
+                dest[k++] = src[i++];
+            }
+        }
+        if (i < mid) {
+            System.arraycopy(src, i, dest, k, mid - i);
+        } else if (j < high) {
+            System.arraycopy(src, j, dest, k, high - j);
+        }
+    }
+
+    /**
+     * 数组交换位置
+     *
+     * @param a 数组
+     * @param i 第一个数索引
+     * @param j 第二个数索引
+     */
+    private static void swap(long[] a, int i, int j) {
+        long temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    /**
+     * 快速排序(升序)，float数组
+     * 内省排序实现，与SortUtil.quickSort相同：三数取中划分、显式栈、划分层数超过2logn时改用堆排序、短段插入排序
+     * 按Float.compare的全序排序：-0.0f排在0.0f前面，NaN排在最后（先移到末尾）；
+     * 比较的是key()转换后的整数，不装箱、不用Comparator
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(logn)  3、非稳定排序  4、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int quickSort(float[] a, int length) {
+        //NaN先移到末尾，其余部分不含NaN，比较时可以直接使用原始位
+        int end = length;
+        for (int i = length - 1; i >= 0; i--) {
+            if (a[i] != a[i]) {
+                swap(a, i, --end);
+            }
+        }
+        introSort(a, 0, end - 1);
+        return length;
+    }
+
+    /**
+     * 内省排序（非递归），对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    static void introSort(float[] a, int leftIndex, int rightIndex) {
+        if (leftIndex >= rightIndex) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(rightIndex - leftIndex + 1));
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        while (true) {
+            if (rightIndex - leftIndex < SortUtil.INSERTION_SORT_THRESHOLD) {
+                insertSort(a, leftIndex, rightIndex);
+            } else if (depthLimit == 0) {
+                heapSort(a, leftIndex, rightIndex);
+            } else {
+                depthLimit--;
+                int pivotIndex = partition(a, leftIndex, rightIndex);
+                if (pivotIndex - leftIndex < rightIndex - pivotIndex) {
+                    stack[top++] = pivotIndex + 1;
+                    stack[top++] = rightIndex;
+                    stack[top++] = depthLimit;
+                    rightIndex = pivotIndex - 1;
+                } else {
+                    stack[top++] = leftIndex;
+                    stack[top++] = pivotIndex - 1;
+                    stack[top++] = depthLimit;
+                    leftIndex = pivotIndex + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
+                return;
+            }
+            depthLimit = stack[--top];
+            rightIndex = stack[--top];
+            leftIndex = stack[--top];
+        }
+    }
+
+    /**
+     * 快速排序划分，三数取中，与轴值相等的数均匀分到两边
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引，要求leftIndex + 2 <= rightIndex
+     * @return 轴值最终所在索引
+     */
+    private static int partition(float[] a, int leftIndex, int rightIndex) {
+        int pivotIndex = (leftIndex + rightIndex) >>> 1;
+        if (key(a[rightIndex]) < key(a[leftIndex])) {
+            swap(a, leftIndex, rightIndex);
+        }
+        if (key(a[rightIndex]) < key(a[pivotIndex])) {
+            swap(a, pivotIndex, rightIndex);
+        }
+        if (key(a[pivotIndex]) < key(a[leftIndex])) {
+            swap(a, leftIndex, pivotIndex);
+        }
+        int pivotKey = key(a[pivotIndex]);
+        swap(a, pivotIndex, rightIndex - 1);
+        int i = leftIndex;
+        int j = rightIndex - 1;
+        while (true) {
+            while (key(a[++i]) < pivotKey) {
+            }
+            while (pivotKey < key(a[--j])) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(a, i, j);
+        }
+        swap(a, i, rightIndex - 1);
+        return i;
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(float[] a, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            float value = a[i];
+            int j = i - 1;
+            while (j >= leftIndex && key(value) < key(a[j])) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    /**
+     * 堆排序，对a[leftIndex, rightIndex]排序，作为内省排序的兜底算法
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void heapSort(float[] a, int leftIndex, int rightIndex) {
+        int count = rightIndex - leftIndex + 1;
+        for (int parentIndex = (count - 2) >>> 1; parentIndex >= 0; parentIndex--) {
+            siftDown(a, leftIndex, count, parentIndex);
+        }
+        for (int last = count - 1; last > 0; last--) {
+            swap(a, leftIndex, leftIndex + last);
+            siftDown(a, leftIndex, last, 0);
+        }
+    }
+
+    /**
+     * 最大堆节点下沉（非递归）
+     *
+     * @param a           数组
+     * @param offset      堆在数组中的起始位置
+     * @param count       节点个数
+     * @param parentIndex 节点索引（相对offset）
+     */
+    private static void siftDown(float[] a, int offset, int count, int parentIndex) {
+        float value = a[offset + parentIndex];
+        int childIndex;
+        while ((childIndex = 2 * parentIndex + 1) < count) {
+            if (childIndex + 1 < count && key(a[offset + childIndex]) < key(a[offset + childIndex + 1])) {
+                childIndex++;
+            }
+            if (key(value) >= key(a[offset + childIndex])) {
+                break;
+            }
+            a[offset + parentIndex] = a[offset + childIndex];
+            parentIndex = childIndex;
+        }
+        a[offset + parentIndex] = value;
+    }
+
+    /**
+     * 归并排序(升序)，float数组
+     * 与SortUtil.mergeSort相同：只分配一个辅助数组，原数组与辅助数组交替归并，左右已整体有序时跳过归并
+     * 按Float.compare的全序排序：-0.0f排在0.0f前面，NaN排在最后（先移到末尾，NaN之间保持原顺序）；
+     * 比较的是key()转换后的整数，不装箱、不用Comparator
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(n)  3、稳定排序 4、非原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int mergeSort(float[] a, int length) {
+        return mergeSort(a, length, new float[length]);
+    }
+
+    /**
+     * 归并排序(升序)，使用调用方提供的辅助数组，排序过程中不分配内存
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param buffer 辅助数组，长度不小于length
+     */
+    public static int mergeSort(float[] a, int length, float[] buffer) {
+        if (buffer.length < length) {
+            throw new IllegalArgumentException("buffer length " + buffer.length + " < " + length);
+        }
+        //NaN按原顺序移到末尾（借用辅助数组，保持稳定），其余部分不含NaN，比较时可以直接使用原始位
+        int count = 0;
+        int nanCount = 0;
+        for (int i = 0; i < length; i++) {
+            float value = a[i];
+            if (value != value) {
+                buffer[nanCount++] = value;
+            } else {
+                a[count++] = value;
+            }
+        }
+        System.arraycopy(buffer, 0, a, count, nanCount);
+        System.arraycopy(a, 0, buffer, 0, count);
+        mergeSortHelp(buffer, a, 0, count);
+        return length;
+    }
+
+    /**
+     * 归并排序递归，将[low, high)排好序放入dest，调用前src与dest在[low, high)内的数据相同
+     *
+     * @param src  源数组
+     * @param dest 目标数组
+     * @param low  起始索引(包含)
+     * @param high 结束索引(不包含)
+     */
+    private static void mergeSortHelp(float[] src, float[] dest, int low, int high) {
+        if (high - low < SortUtil.INSERTION_SORT_THRESHOLD) {
+            insertSort(dest, low, high - 1);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSortHelp(dest, src, low, mid);
+        mergeSortHelp(dest, src, mid, high);
+        if (key(src[mid - 1]) <= key(src[mid])) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+        int i = low;
+        int j = mid;
+        int k = low;
+        //相等时取左边的数，保证稳定
+        while (i < mid && j < high) {
+            if (key(src[j]) < key(src[i])) {
+                dest[k++] = src[j++];
+            } else {
+                dest[k++] = src[i++];
+            }
+        }
+        if (i < mid) {
+            System.arraycopy(src, i, dest, k, mid - i);
+        } else if (j < high) {
+            System.arraycopy(src, j, dest, k, high - j);
+        }
+    }
+
+    /**
+     * 数组交换位置
+     *
+     * @param a 数组
+     * @param i 第一个数索引
+     * @param j 第二个数索引
+     */
+    private static void swap(float[] a, int i, int j) {
+        float temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+
+    /**
+     * 快速排序(升序)，double数组
+     * 内省排序实现，与SortUtil.quickSort相同：三数取中划分、显式栈、划分层数超过2logn时改用堆排序、短段插入排序
+     * 按Double.compare的全序排序：-0.0排在0.0前面，NaN排在最后（先移到末尾）；
+     * 比较的是key()转换后的整数，不装箱、不用Comparator
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(logn)  3、非稳定排序  4、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int quickSort(double[] a, int length) {
+        //NaN先移到末尾，其余部分不含NaN，比较时可以直接使用原始位
+        int end = length;
+        for (int i = length - 1; i >= 0; i--) {
+            if (a[i] != a[i]) {
+                swap(a, i, --end);
+            }
+        }
+        introSort(a, 0, end - 1);
+        return length;
+    }
+
+    /**
+     * 内省排序（非递归），对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    static void introSort(double[] a, int leftIndex, int rightIndex) {
+        if (leftIndex >= rightIndex) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(rightIndex - leftIndex + 1));
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        while (true) {
+            if (rightIndex - leftIndex < SortUtil.INSERTION_SORT_THRESHOLD) {
+                insertSort(a, leftIndex, rightIndex);
+            } else if (depthLimit == 0) {
+                heapSort(a, leftIndex, rightIndex);
+            } else {
+                depthLimit--;
+                int pivotIndex = partition(a, leftIndex, rightIndex);
+                if (pivotIndex - leftIndex < rightIndex - pivotIndex) {
+                    stack[top++] = pivotIndex + 1;
+                    stack[top++] = rightIndex;
+                    stack[top++] = depthLimit;
+                    rightIndex = pivotIndex - 1;
+                } else {
+                    stack[top++] = leftIndex;
+                    stack[top++] = pivotIndex - 1;
+                    stack[top++] = depthLimit;
+                    leftIndex = pivotIndex + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
+                return;
+            }
+            depthLimit = stack[--top];
+            rightIndex = stack[--top];
+            leftIndex = stack[--top];
+        }
+    }
+
+    /**
+     * 快速排序划分，三数取中，与轴值相等的数均匀分到两边
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引，要求leftIndex + 2 <= rightIndex
+     * @return 轴值最终所在索引
+     */
+    private static int partition(double[] a, int leftIndex, int rightIndex) {
+        int pivotIndex = (leftIndex + rightIndex) >>> 1;
+        if (key(a[rightIndex]) < key(a[leftIndex])) {
+            swap(a, leftIndex, rightIndex);
+        }
+        if (key(a[rightIndex]) < key(a[pivotIndex])) {
+            swap(a, pivotIndex, rightIndex);
+        }
+        if (key(a[pivotIndex]) < key(a[leftIndex])) {
+            swap(a, leftIndex, pivotIndex);
+        }
+        long pivotKey = key(a[pivotIndex]);
+        swap(a, pivotIndex, rightIndex - 1);
+        int i = leftIndex;
+        int j = rightIndex - 1;
+        while (true) {
+            while (key(a[++i]) < pivotKey) {
+            }
+            while (pivotKey < key(a[--j])) {
+            }
+            if (i >= j) {
+                break;
+            }
+            swap(a, i, j);
+        }
+        swap(a, i, rightIndex - 1);
+        return i;
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void insertSort(double[] a, int leftIndex, int rightIndex) {
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            double value = a[i];
+            int j = i - 1;
+            while (j >= leftIndex && key(value) < key(a[j])) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    /**
+     * 堆排序，对a[leftIndex, rightIndex]排序，作为内省排序的兜底算法
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    private static void heapSort(double[] a, int leftIndex, int rightIndex) {
+        int count = rightIndex - leftIndex + 1;
+        for (int parentIndex = (count - 2) >>> 1; parentIndex >= 0; parentIndex--) {
+            siftDown(a, leftIndex, count, parentIndex);
+        }
+        for (int last = count - 1; last > 0; last--) {
+            swap(a, leftIndex, leftIndex + last);
+            siftDown(a, leftIndex, last, 0);
+        }
+    }
+
+    /**
+     * 最大堆节点下沉（非递归）
+     *
+     * @param a           数组
+     * @param offset      堆在数组中的起始位置
+     * @param count       节点个数
+     * @param parentIndex 节点索引（相对offset）
+     */
+    private static void siftDown(double[] a, int offset, int count, int parentIndex) {
+        double value = a[offset + parentIndex];
+        int childIndex;
+        while ((childIndex = 2 * parentIndex + 1) < count) {
+            if (childIndex + 1 < count && key(a[offset + childIndex]) < key(a[offset + childIndex + 1])) {
+                childIndex++;
+            }
+            if (key(value) >= key(a[offset + childIndex])) {
+                break;
+            }
+            a[offset + parentIndex] = a[offset + childIndex];
+            parentIndex = childIndex;
+        }
+        a[offset + parentIndex] = value;
+    }
+
+    /**
+     * 归并排序(升序)，double数组
+     * 与SortUtil.mergeSort相同：只分配一个辅助数组，原数组与辅助数组交替归并，左右已整体有序时跳过归并
+     * 按Double.compare的全序排序：-0.0排在0.0前面，NaN排在最后（先移到末尾，NaN之间保持原顺序）；
+     * 比较的是key()转换后的整数，不装箱、不用Comparator
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(n)  3、稳定排序 4、非原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int mergeSort(double[] a, int length) {
+        return mergeSort(a, length, new double[length]);
+    }
+
+    /**
+     * 归并排序(升序)，使用调用方提供的辅助数组，排序过程中不分配内存
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param buffer 辅助数组，长度不小于length
+     */
+    public static int mergeSort(double[] a, int length, double[] buffer) {
+        if (buffer.length < length) {
+            throw new IllegalArgumentException("buffer length " + buffer.length + " < " + length);
+        }
+        //NaN按原顺序移到末尾（借用辅助数组，保持稳定），其余部分不含NaN，比较时可以直接使用原始位
+        int count = 0;
+        int nanCount = 0;
+        for (int i = 0; i < length; i++) {
+            double value = a[i];
+            if (value != value) {
+                buffer[nanCount++] = value;
+            } else {
+                a[count++] = value;
+            }
+        }
+        System.arraycopy(buffer, 0, a, count, nanCount);
+        System.arraycopy(a, 0, buffer, 0, count);
+        mergeSortHelp(buffer, a, 0, count);
+        return length;
+    }
+
+    /**
+     * 归并排序递归，将[low, high)排好序放入dest，调用前src与dest在[low, high)内的数据相同
+     *
+     * @param src  源数组
+     * @param dest 目标数组
+     * @param low  起始索引(包含)
+     * @param high 结束索引(不包含)
+     */
+    private static void mergeSortHelp(double[] src, double[] dest, int low, int high) {
+        if (high - low < SortUtil.INSERTION_SORT_THRESHOLD) {
+            insertSort(dest, low, high - 1);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSortHelp(dest, src, low, mid);
+        mergeSortHelp(dest, src, mid, high);
+        if (key(src[mid - 1]) <= key(src[mid])) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+        int i = low;
+        int j = mid;
+        int k = low;
+        //相等时取左边的数，保证稳定
+        while (i < mid && j < high) {
+            if (key(src[j]) < key(src[i])) {
+                dest[k++] = src[j++];
+            } else {
+                dest[k++] = src[i++];
+            }
+        }
+        if (i < mid) {
+            System.arraycopy(src, i, dest, k, mid - i);
+        } else if (j < high) {
+            System.arraycopy(src, j, dest, k, high - j);
+        }
+    }
+
+    /**
+     * 数组交换位置
+     *
+     * @param a 数组
+     * @param i 第一个数索引
+     * @param j 第二个数索引
+     */
+    private static void swap(double[] a, int i, int j) {
+        double temp = a[i];
+        a[i] = a[j];
+        a[j] = temp;
+    }
+}
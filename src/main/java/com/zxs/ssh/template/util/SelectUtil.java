@@ -0,0 +1,247 @@
+package com.zxs.ssh.template.util;
+
+import java.util.Arrays;
+
+/**
+ * Project Name:sort-alg
+ * File Name:SelectUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:快速选择（内省选择），求第k小的数、中位数、百分位数，平均O(n)，不需要完整排序
+ */
+
+
+public class SelectUtil {
+
+    /**
+     * 第k小的数（k从0开始）
+     * 选择后a[k]即为结果，a[0, k)都不大于a[k]，a(k, length)都不小于a[k]
+     * 算法步骤：1.用SortUtil.partition三数取中划分，只继续处理包含k的一侧  2.划分层数超过2logn时改用中位数的中位数作轴值，
+     * 保证最坏O(n)  3.长度小于插入排序阈值时直接插入排序
+     * 性质：1、时间复杂度：O(n)  2、空间复杂度：O(1)  3、原地
+     *
+     * @param a      数组
+     * @param length 数组长度
+     * @param k      名次，0 <= k < length
+     * @return 第k小的数
+     */
+    public static int select(int[] a, int length, int k) {
+        checkRank(length, k);
+        selectHelp(a, 0, length - 1, k, depthLimit(length));
+        return a[k];
+    }
+
+    /**
+     * 中位数，数组长度为偶数时取较小的一个
+     *
+     * @param a      数组
+     * @param length 数组长度，大于0
+     * @return 中位数
+     */
+    public static int median(int[] a, int length) {
+        return select(a, length, (length - 1) / 2);
+    }
+
+    /**
+     * 同时选择多个名次，各名次共用划分：每次划分后按轴值位置把名次分到两边，只处理含有名次的一侧
+     * 选择后每个a[ranks[i]]都等于完整排序后该位置上的数
+     *
+     * @param a      数组
+     * @param length 数组长度
+     * @param ranks  名次，0 <= ranks[i] < length，可以无序、可以重复
+     * @return 与ranks一一对应的数
+     */
+    public static int[] select(int[] a, int length, int[] ranks) {
+        int[] sortedRanks = ranks.clone();
+        Arrays.sort(sortedRanks);
+        for (int rank : sortedRanks) {
+            checkRank(length, rank);
+        }
+        if (sortedRanks.length > 0) {
+            multiSelect(a, 0, length - 1, sortedRanks, 0, sortedRanks.length - 1, depthLimit(length));
+        }
+        int[] result = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            result[i] = a[ranks[i]];
+        }
+        return result;
+    }
+
+    /**
+     * 百分位数（最近名次法）：第ceil(p/100 * n)小的数
+     *
+     * @param a          数组
+     * @param length     数组长度，大于0
+     * @param percentile 百分位，[0, 100]
+     * @return 百分位数
+     */
+    public static int percentile(int[] a, int length, double percentile) {
+        return select(a, length, percentileRank(length, percentile));
+    }
+
+    /**
+     * 同时计算多个百分位数，例如percentiles(a, n, 50, 95, 99)
+     *
+     * @param a           数组
+     * @param length      数组长度，大于0
+     * @param percentiles 百分位，[0, 100]
+     * @return 与percentiles一一对应的百分位数
+     */
+    public static int[] percentiles(int[] a, int length, double... percentiles) {
+        int[] ranks = new int[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            ranks[i] = percentileRank(length, percentiles[i]);
+        }
+        return select(a, length, ranks);
+    }
+
+    /**
+     * 百分位对应的名次
+     *
+     * @param length     数组长度
+     * @param percentile 百分位
+     * @return 名次
+     */
+    private static int percentileRank(int length, double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("percentile out of range [0, 100]: " + percentile);
+        }
+        int rank = (int) Math.ceil(percentile / 100 * length) - 1;
+        return Math.max(0, Math.min(length - 1, rank));
+    }
+
+    /**
+     * 校验名次
+     *
+     * @param length 数组长度
+     * @param k      名次
+     */
+    private static void checkRank(int length, int k) {
+        if (k < 0 || k >= length) {
+            throw new IllegalArgumentException("rank " + k + " out of range [0, " + length + ")");
+        }
+    }
+
+    /**
+     * 三数取中划分的层数上限
+     *
+     * @param length 数组长度
+     * @return 2logn
+     */
+    private static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /**
+     * 内省选择（非递归），使a[k]就位
+     *
+     * @param a          数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     * @param k          名次
+     * @param depthLimit 三数取中划分的剩余层数，为0时使用中位数的中位数
+     */
+    private static void selectHelp(int[] a, int leftIndex, int rightIndex, int k, int depthLimit) {
+        while (rightIndex - leftIndex >= SortUtil.INSERTION_SORT_THRESHOLD) {
+            int lowerIndex;
+            int upperIndex;
+            if (depthLimit > 0) {
+                depthLimit--;
+                lowerIndex = SortUtil.partition(a, leftIndex, rightIndex);
+                upperIndex = lowerIndex;
+            } else {
+                long range = SortUtil.partition3(a, leftIndex, rightIndex, medianOfMedians(a, leftIndex, rightIndex));
+                lowerIndex = (int) (range >>> 32);
+                upperIndex = (int) range;
+            }
+            if (k < lowerIndex) {
+                rightIndex = lowerIndex - 1;
+            } else if (k > upperIndex) {
+                leftIndex = upperIndex + 1;
+            } else {
+                return;
+            }
+        }
+        SortUtil.insertSort(a, leftIndex, rightIndex);
+    }
+
+    /**
+     * 多名次选择递归
+     *
+     * @param a          数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     * @param ranks      升序名次
+     * @param rankFrom   本段负责的第一个名次下标
+     * @param rankTo     本段负责的最后一个名次下标
+     * @param depthLimit 三数取中划分的剩余层数
+     */
+    private static void multiSelect(int[] a, int leftIndex, int rightIndex, int[] ranks, int rankFrom, int rankTo,
+                                    int depthLimit) {
+        while (rankFrom <= rankTo) {
+            if (rankFrom == rankTo) {
+                selectHelp(a, leftIndex, rightIndex, ranks[rankFrom], depthLimit);
+                return;
+            }
+            if (rightIndex - leftIndex < SortUtil.INSERTION_SORT_THRESHOLD) {
+                SortUtil.insertSort(a, leftIndex, rightIndex);
+                return;
+            }
+            int lowerIndex;
+            int upperIndex;
+            if (depthLimit > 0) {
+                depthLimit--;
+                lowerIndex = SortUtil.partition(a, leftIndex, rightIndex);
+                upperIndex = lowerIndex;
+            } else {
+                long range = SortUtil.partition3(a, leftIndex, rightIndex, medianOfMedians(a, leftIndex, rightIndex));
+                lowerIndex = (int) (range >>> 32);
+                upperIndex = (int) range;
+            }
+            //名次按轴值位置分成三部分：左边、落在轴值区间内（已就位）、右边
+            int split = rankFrom;
+            while (split <= rankTo && ranks[split] < lowerIndex) {
+                split++;
+            }
+            int rightFrom = split;
+            while (rightFrom <= rankTo && ranks[rightFrom] <= upperIndex) {
+                rightFrom++;
+            }
+            //先递归名次较少的一侧，较多的一侧继续循环
+            if (split - rankFrom < rankTo - rightFrom + 1) {
+                multiSelect(a, leftIndex, lowerIndex - 1, ranks, rankFrom, split - 1, depthLimit);
+                leftIndex = upperIndex + 1;
+                rankFrom = rightFrom;
+            } else {
+                multiSelect(a, upperIndex + 1, rightIndex, ranks, rightFrom, rankTo, depthLimit);
+                rightIndex = lowerIndex - 1;
+                rankTo = split - 1;
+            }
+        }
+    }
+
+    /**
+     * 中位数的中位数：每5个数一组取中位数，移到区间前部，再递归选出这些中位数的中位数
+     * 以它为轴值，两边都至少有约3n/10个数，保证线性时间
+     *
+     * @param a          数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     * @return 轴值索引
+     */
+    private static int medianOfMedians(int[] a, int leftIndex, int rightIndex) {
+        if (rightIndex - leftIndex < 5) {
+            SortUtil.insertSort(a, leftIndex, rightIndex);
+            return (leftIndex + rightIndex) >>> 1;
+        }
+        int store = leftIndex;
+        for (int i = leftIndex; i <= rightIndex; i += 5) {
+            int end = Math.min(i + 4, rightIndex);
+            SortUtil.insertSort(a, i, end);
+            SortUtil.swap(a, (i + end) >>> 1, store++);
+        }
+        int mid = (leftIndex + store - 1) >>> 1;
+        selectHelp(a, leftIndex, store - 1, mid, 0);
+        return mid;
+    }
+}
@@ -0,0 +1,229 @@
+package com.zxs.ssh.template.util;
+
+import java.util.Arrays;
+
+/**
+ * Project Name:sort-alg
+ * File Name:ShellSortUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:希尔排序，可选步长序列，排序过程中不分配内存，适合不允许分配内存的场合
+ */
+
+
+public class ShellSortUtil {
+
+    /**
+     * 步长序列
+     */
+    public enum GapSequence {
+        /**
+         * Shell原始序列：n/2、n/4、...、1，步长可能都是偶数，奇偶位置互不比较，最坏O(n²)
+         */
+        HALVING(null),
+        /**
+         * Ciura实验得出的序列1, 4, 10, 23, 57, 132, 301, 701, 1750，之后按2.25倍延伸，实测比较次数最少
+         */
+        CIURA(ciuraGaps()),
+        /**
+         * Tokuda序列：h(k) = ceil(h'(k))，h'(k) = 2.25 * h'(k-1) + 1，h'(1) = 1
+         */
+        TOKUDA(tokudaGaps()),
+        /**
+         * Sedgewick(1986)序列：9 * 4^k - 9 * 2^k + 1与4^k - 3 * 2^k + 1交替，最坏O(n的4/3次方)
+         */
+        SEDGEWICK(sedgewickGaps());
+
+        /**
+         * 升序步长表，HALVING为null
+         */
+        private final int[] gaps;
+
+        GapSequence(int[] gaps) {
+            this.gaps = gaps;
+        }
+
+        /**
+         * 第一个步长：表中小于length的最大步长
+         *
+         * @param length 数组长度
+         * @return 步长，length < 2时为0
+         */
+        int firstGap(int length) {
+            if (gaps == null) {
+                return length / 2;
+            }
+            if (length < 2) {
+                return 0;
+            }
+            int index = Arrays.binarySearch(gaps, length - 1);
+            return gaps[index >= 0 ? index : -index - 2];
+        }
+
+        /**
+         * 下一个（更小的）步长
+         *
+         * @param gap 当前步长
+         * @return 下一个步长，当前步长为1时为0
+         */
+        int nextGap(int gap) {
+            if (gaps == null) {
+                return gap / 2;
+            }
+            int index = Arrays.binarySearch(gaps, gap);
+            return index > 0 ? gaps[index - 1] : 0;
+        }
+    }
+
+    /**
+     * 希尔排序(升序)，使用Ciura步长序列
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int shellSort(int[] a, int length) {
+        return shellSort(a, length, GapSequence.CIURA);
+    }
+
+    /**
+     * 希尔排序(升序)
+     * 算法步骤：按步长从大到小，对每个步长做一遍间隔为该步长的插入排序，最后一遍步长为1即普通插入排序
+     * 插入时先保存待插入的数，比它大的数依次后移一个步长，不做交换
+     * 性质：1、时间复杂度：与步长序列有关，Ciura/Tokuda/Sedgewick约O(n的4/3次方)  2、空间复杂度：O(1)  3、非稳定排序  4、原地排序
+     *
+     * @param a           待排序数组
+     * @param length      数组长度
+     * @param gapSequence 步长序列
+     */
+    public static int shellSort(int[] a, int length, GapSequence gapSequence) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("SHELL_" + gapSequence, length);
+        }
+        try {
+            shellSortHelp(a, 0, length, gapSequence);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 希尔排序，对a[fromIndex, toIndex)排序，其余部分不变
+     * 降序时先按位取反，升序排序后再取反回来，见SortUtil.complement
+     *
+     * @param a           待排序数组
+     * @param fromIndex   起始索引(包含)
+     * @param toIndex     结束索引(不包含)
+     * @param asc         true升序，false降序
+     * @param gapSequence 步长序列
+     * @return 排序的元素个数
+     */
+    public static int shellSort(int[] a, int fromIndex, int toIndex, boolean asc, GapSequence gapSequence) {
+        SortUtil.checkRange(a.length, fromIndex, toIndex);
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("SHELL_" + gapSequence, toIndex - fromIndex);
+        }
+        try {
+            if (!asc) {
+                SortUtil.complement(a, fromIndex, toIndex);
+            }
+            shellSortHelp(a, fromIndex, toIndex, gapSequence);
+            if (!asc) {
+                SortUtil.complement(a, fromIndex, toIndex);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * 希尔排序(升序)，对a[fromIndex, toIndex)排序，每个步长的一遍插入排序计入一次INSERTION阶段
+     *
+     * @param a           待排序数组
+     * @param fromIndex   起始索引(包含)
+     * @param toIndex     结束索引(不包含)
+     * @param gapSequence 步长序列
+     */
+    private static void shellSortHelp(int[] a, int fromIndex, int toIndex, GapSequence gapSequence) {
+        for (int gap = gapSequence.firstGap(toIndex - fromIndex); gap > 0; gap = gapSequence.nextGap(gap)) {
+            long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+            long comparisons = 0;
+            long moves = 0;
+            int low = fromIndex + gap;
+            for (int i = low; i < toIndex; i++) {
+                int value = a[i];
+                int j = i;
+                while (j >= low && a[j - gap] > value) {
+                    a[j] = a[j - gap];
+                    j -= gap;
+                    moves++;
+                }
+                //每次后移前比较一次，没有到达区间起点时还有一次不成立的比较
+                if (SortMetrics.ENABLED && j >= low) {
+                    comparisons++;
+                }
+                a[j] = value;
+            }
+            if (SortMetrics.ENABLED) {
+                SortMetrics.record(SortMetrics.Phase.INSERTION, startNanos, comparisons + moves, 0, moves);
+            }
+        }
+    }
+
+    /**
+     * Ciura序列，1750之后按2.25倍延伸到int范围
+     *
+     * @return 升序步长表
+     */
+    private static int[] ciuraGaps() {
+        int[] base = {1, 4, 10, 23, 57, 132, 301, 701, 1750};
+        int[] gaps = Arrays.copyOf(base, 64);
+        int count = base.length;
+        for (double gap = base[base.length - 1] * 2.25; gap < Integer.MAX_VALUE; gap *= 2.25) {
+            gaps[count++] = (int) gap;
+        }
+        return Arrays.copyOf(gaps, count);
+    }
+
+    /**
+     * Tokuda序列
+     *
+     * @return 升序步长表
+     */
+    private static int[] tokudaGaps() {
+        int[] gaps = new int[64];
+        int count = 0;
+        for (double gap = 1; Math.ceil(gap) < Integer.MAX_VALUE; gap = 2.25 * gap + 1) {
+            gaps[count++] = (int) Math.ceil(gap);
+        }
+        return Arrays.copyOf(gaps, count);
+    }
+
+    /**
+     * Sedgewick(1986)序列
+     *
+     * @return 升序步长表
+     */
+    private static int[] sedgewickGaps() {
+        int[] gaps = new int[64];
+        int count = 0;
+        for (int k = 0; ; k++) {
+            long even = 9L * (1L << 2 * k) - 9L * (1L << k) + 1;
+            if (even >= Integer.MAX_VALUE) {
+                break;
+            }
+            gaps[count++] = (int) even;
+            long odd = (1L << 2 * (k + 2)) - 3L * (1L << (k + 2)) + 1;
+            if (odd >= Integer.MAX_VALUE) {
+                break;
+            }
+            gaps[count++] = (int) odd;
+        }
+        return Arrays.copyOf(gaps, count);
+    }
+}
@@ -0,0 +1,184 @@
+package com.zxs.ssh.template.util;
+
+/**
+ * Project Name:sort-alg
+ * File Name:SortAlgorithm
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:已有排序算法的Sorter实现
+ */
+
+
+public enum SortAlgorithm implements Sorter {
+    /**
+     * 冒泡排序
+     */
+    BUBBLE {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.bubbleSort(a, length);
+        }
+    },
+    /**
+     * 选择排序
+     */
+    SELECT {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.selectSort(a, length);
+        }
+    },
+    /**
+     * 插入排序
+     */
+    INSERT {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.insertSort(a, length);
+        }
+    },
+    /**
+     * 快速排序（内省排序）
+     */
+    QUICK {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.quickSort(a, length);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            SortUtil.quickSort(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 三路快速排序，适合大量重复值
+     */
+    QUICK_3WAY {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.quickSort3Way(a, 0, length, true);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            SortUtil.quickSort3Way(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 归并排序
+     */
+    MERGE {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.mergeSort(a, length);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            SortUtil.mergeSort(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 希尔排序
+     */
+    SHELL {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.shellSort(a, length);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            SortUtil.shellSort(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 堆排序
+     */
+    HEAP {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.heapSort(a, length);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            SortUtil.heapSort(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 基数排序
+     */
+    RADIX {
+        @Override
+        public void sort(int[] a, int length) {
+            SortUtil.radixSort(a, length);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            SortUtil.radixSort(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 计数排序，取值范围过大时退化为基数排序
+     */
+    COUNTING {
+        @Override
+        public void sort(int[] a, int length) {
+            CountingSortUtil.countingSort(a, length);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            CountingSortUtil.countingSort(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 自适应归并排序
+     */
+    ADAPTIVE {
+        @Override
+        public void sort(int[] a, int length) {
+            AdaptiveSortUtil.adaptiveSort(a, length);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            AdaptiveSortUtil.adaptiveSort(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 并行快速排序（公共线程池）
+     */
+    PARALLEL_QUICK {
+        @Override
+        public void sort(int[] a, int length) {
+            ParallelSortUtil.parallelQuickSort(a, length);
+        }
+
+        @Override
+        public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+            ParallelSortUtil.parallelQuickSort(a, fromIndex, toIndex, asc);
+        }
+    },
+    /**
+     * 并行归并排序（公共线程池）
+     */
+    PARALLEL_MERGE {
+        @Override
+        public void sort(int[] a, int length) {
+            ParallelSortUtil.parallelMergeSort(a, length);
+        }
+    },
+    /**
+     * 并行计数排序（公共线程池）
+     */
+    PARALLEL_COUNTING {
+        @Override
+        public void sort(int[] a, int length) {
+            CountingSortUtil.parallelCountingSort(a, length);
+        }
+    }
+}
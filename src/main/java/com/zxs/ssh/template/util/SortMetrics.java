@@ -0,0 +1,684 @@
+package com.zxs.ssh.template.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Project Name:sort-alg
+ * File Name:SortMetrics
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:排序度量：比较次数、交换次数、移动次数、递归深度、分配字节数、各阶段耗时，
+ * 以及基数排序的趟数（含跳过的趟数）、自适应排序的有序段数、飞奔次数、归并次数、辅助数组字节数
+ * 启动参数-Dsort.metrics=true时开启；ENABLED是static final，关闭时JIT把所有if (SortMetrics.ENABLED)分支当作死代码删除，没有任何开销
+ * 开启后每次排序结束生成一个Snapshot，通知已注册的Listener，并累计到JMX（com.zxs.ssh.template.util:type=SortMetrics）
+ * 只统计调用排序入口的线程，并行排序中工作线程的比较次数等不计入
+ */
+
+
+public final class SortMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(SortMetrics.class);
+
+    /**
+     * 是否开启度量
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("sort.metrics");
+
+    /**
+     * JMX注册名
+     */
+    public static final String OBJECT_NAME = "com.zxs.ssh.template.util:type=SortMetrics";
+
+    /**
+     * 排序阶段
+     */
+    public enum Phase {
+        PARTITION, INSERTION, MERGE, HEAP_BUILD, HEAP_SORT_DOWN, DISTRIBUTION
+    }
+
+    /**
+     * 度量监听器，在排序线程中同步调用，应尽快返回
+     */
+    public interface Listener {
+        void onSort(Snapshot snapshot);
+    }
+
+    private static final ThreadLocal<Recorder> CURRENT = new ThreadLocal<>();
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static final Statistics STATISTICS = new Statistics();
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = allocationBean();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(STATISTICS, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                logger.warn("sort metrics mbean register failed", e);
+            }
+        }
+    }
+
+    private SortMetrics() {
+    }
+
+    /**
+     * 注册监听器
+     *
+     * @param listener 监听器
+     */
+    public static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * 移除监听器
+     *
+     * @param listener 监听器
+     */
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * @return 累计统计，与JMX中的是同一个对象
+     */
+    public static SortMetricsMXBean statistics() {
+        return STATISTICS;
+    }
+
+    /**
+     * 排序入口开始，可以嵌套，只有最外层的begin/end生成一次Snapshot
+     *
+     * @param algorithm 算法名称
+     * @param length    数组长度
+     */
+    static void begin(String algorithm, int length) {
+        Recorder recorder = CURRENT.get();
+        if (recorder == null) {
+            recorder = new Recorder();
+            CURRENT.set(recorder);
+        }
+        if (recorder.nesting++ == 0) {
+            recorder.start(algorithm, length);
+        }
+    }
+
+    /**
+     * 排序入口结束，与begin成对调用（放在finally中）
+     */
+    static void end() {
+        Recorder recorder = CURRENT.get();
+        if (recorder == null || --recorder.nesting > 0) {
+            return;
+        }
+        Snapshot snapshot = recorder.finish();
+        STATISTICS.add(snapshot);
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.onSort(snapshot);
+            } catch (RuntimeException e) {
+                logger.warn("sort metrics listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * 累计一个阶段的操作次数和耗时，当前线程不在排序入口内时忽略
+     *
+     * @param phase       阶段
+     * @param startNanos  阶段开始时间System.nanoTime()
+     * @param comparisons 比较次数
+     * @param swaps       交换次数
+     * @param moves       移动次数
+     */
+    static void record(Phase phase, long startNanos, long comparisons, long swaps, long moves) {
+        Recorder recorder = CURRENT.get();
+        if (recorder == null || recorder.nesting == 0) {
+            return;
+        }
+        recorder.phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        recorder.comparisons += comparisons;
+        recorder.swaps += swaps;
+        recorder.moves += moves;
+    }
+
+    /**
+     * 只累计操作次数，不计时（调用频繁、单次很短的地方）
+     *
+     * @param comparisons 比较次数
+     * @param swaps       交换次数
+     * @param moves       移动次数
+     */
+    static void count(long comparisons, long swaps, long moves) {
+        Recorder recorder = CURRENT.get();
+        if (recorder == null || recorder.nesting == 0) {
+            return;
+        }
+        recorder.comparisons += comparisons;
+        recorder.swaps += swaps;
+        recorder.moves += moves;
+    }
+
+    /**
+     * 记录到达的递归深度
+     *
+     * @param depth 深度
+     */
+    static void depth(int depth) {
+        Recorder recorder = CURRENT.get();
+        if (recorder != null && recorder.nesting > 0 && depth > recorder.maxDepth) {
+            recorder.maxDepth = depth;
+        }
+    }
+
+    /**
+     * 记录一次内省排序改用堆排序
+     */
+    static void heapFallback() {
+        Recorder recorder = CURRENT.get();
+        if (recorder != null && recorder.nesting > 0) {
+            recorder.heapFallbacks++;
+        }
+    }
+
+    /**
+     * 记录基数排序的一趟分配
+     *
+     * @param skipped 所有数在这一位上相同，跳过了这一趟
+     */
+    static void pass(boolean skipped) {
+        Recorder recorder = CURRENT.get();
+        if (recorder != null && recorder.nesting > 0) {
+            if (skipped) {
+                recorder.skippedPasses++;
+            } else {
+                recorder.passes++;
+            }
+        }
+    }
+
+    /**
+     * 记录自适应排序识别出的一个自然有序段
+     */
+    static void run() {
+        Recorder recorder = CURRENT.get();
+        if (recorder != null && recorder.nesting > 0) {
+            recorder.runs++;
+        }
+    }
+
+    /**
+     * 记录一次进入飞奔模式
+     */
+    static void gallop() {
+        Recorder recorder = CURRENT.get();
+        if (recorder != null && recorder.nesting > 0) {
+            recorder.gallops++;
+        }
+    }
+
+    /**
+     * 记录一次两段归并
+     */
+    static void merge() {
+        Recorder recorder = CURRENT.get();
+        if (recorder != null && recorder.nesting > 0) {
+            recorder.merges++;
+        }
+    }
+
+    /**
+     * 记录使用的辅助数组（含调用方提供的），与bytesAllocated不同，不受JVM是否支持分配统计的影响
+     *
+     * @param bytes 字节数
+     */
+    static void buffer(long bytes) {
+        Recorder recorder = CURRENT.get();
+        if (recorder != null && recorder.nesting > 0) {
+            recorder.bufferBytes += bytes;
+        }
+    }
+
+    /**
+     * 当前线程已分配的字节数，JVM不支持时返回-1
+     *
+     * @return 字节数
+     */
+    private static long allocatedBytes() {
+        return THREAD_BEAN == null ? -1 : THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationBean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 单个线程一次排序的计数器，只被该线程访问
+     */
+    private static final class Recorder {
+        int nesting;
+        String algorithm;
+        int length;
+        long startNanos;
+        long startBytes;
+        long comparisons;
+        long swaps;
+        long moves;
+        int maxDepth;
+        int heapFallbacks;
+        long passes;
+        long skippedPasses;
+        long runs;
+        long gallops;
+        long merges;
+        long bufferBytes;
+        final long[] phaseNanos = new long[Phase.values().length];
+
+        void start(String algorithm, int length) {
+            this.algorithm = algorithm;
+            this.length = length;
+            comparisons = 0;
+            swaps = 0;
+            moves = 0;
+            maxDepth = 0;
+            heapFallbacks = 0;
+            passes = 0;
+            skippedPasses = 0;
+            runs = 0;
+            gallops = 0;
+            merges = 0;
+            bufferBytes = 0;
+            Arrays.fill(phaseNanos, 0);
+            startBytes = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        Snapshot finish() {
+            long totalNanos = System.nanoTime() - startNanos;
+            long bytes = startBytes < 0 ? -1 : allocatedBytes() - startBytes;
+            return new Snapshot(algorithm, length, comparisons, swaps, moves, maxDepth, heapFallbacks, passes,
+                    skippedPasses, runs, gallops, merges, bufferBytes, bytes, totalNanos, phaseNanos.clone());
+        }
+    }
+
+    /**
+     * 一次排序的度量
+     */
+    public static final class Snapshot {
+        private final String algorithm;
+        private final int length;
+        private final long comparisons;
+        private final long swaps;
+        private final long moves;
+        private final int maxDepth;
+        private final int heapFallbacks;
+        private final long passes;
+        private final long skippedPasses;
+        private final long runs;
+        private final long gallops;
+        private final long merges;
+        private final long bufferBytes;
+        private final long bytesAllocated;
+        private final long totalNanos;
+        private final long[] phaseNanos;
+
+        Snapshot(String algorithm, int length, long comparisons, long swaps, long moves, int maxDepth,
+                 int heapFallbacks, long passes, long skippedPasses, long runs, long gallops, long merges,
+                 long bufferBytes, long bytesAllocated, long totalNanos, long[] phaseNanos) {
+            this.algorithm = algorithm;
+            this.length = length;
+            this.comparisons = comparisons;
+            this.swaps = swaps;
+            this.moves = moves;
+            this.maxDepth = maxDepth;
+            this.heapFallbacks = heapFallbacks;
+            this.passes = passes;
+            this.skippedPasses = skippedPasses;
+            this.runs = runs;
+            this.gallops = gallops;
+            this.merges = merges;
+            this.bufferBytes = bufferBytes;
+            this.bytesAllocated = bytesAllocated;
+            this.totalNanos = totalNanos;
+            this.phaseNanos = phaseNanos;
+        }
+
+        /**
+         * @return 算法名称
+         */
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * @return 数组长度
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * @return 比较次数
+         */
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        /**
+         * @return 交换次数
+         */
+        public long getSwaps() {
+            return swaps;
+        }
+
+        /**
+         * @return 移动次数
+         */
+        public long getMoves() {
+            return moves;
+        }
+
+        /**
+         * @return 最大递归深度
+         */
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        /**
+         * @return 内省排序改用堆排序的次数
+         */
+        public int getHeapFallbacks() {
+            return heapFallbacks;
+        }
+
+        /**
+         * @return 基数排序执行的分配趟数
+         */
+        public long getPasses() {
+            return passes;
+        }
+
+        /**
+         * @return 基数排序因所有数在该位上相同而跳过的趟数
+         */
+        public long getSkippedPasses() {
+            return skippedPasses;
+        }
+
+        /**
+         * @return 自适应排序识别出的自然有序段数
+         */
+        public long getRuns() {
+            return runs;
+        }
+
+        /**
+         * @return 自适应排序进入飞奔模式的次数
+         */
+        public long getGallops() {
+            return gallops;
+        }
+
+        /**
+         * @return 两段归并的次数
+         */
+        public long getMerges() {
+            return merges;
+        }
+
+        /**
+         * @return 使用的辅助数组字节数
+         */
+        public long getBufferBytes() {
+            return bufferBytes;
+        }
+
+        /**
+         * @return 排序期间当前线程分配的字节数，JVM不支持时为-1
+         */
+        public long getBytesAllocated() {
+            return bytesAllocated;
+        }
+
+        /**
+         * @return 总耗时（纳秒）
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @param phase 阶段
+         * @return 该阶段耗时（纳秒）
+         */
+        public long getPhaseNanos(Phase phase) {
+            return phaseNanos[phase.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("Snapshot{algorithm=").append(algorithm)
+                    .append(", length=").append(length)
+                    .append(", comparisons=").append(comparisons)
+                    .append(", swaps=").append(swaps)
+                    .append(", moves=").append(moves)
+                    .append(", maxDepth=").append(maxDepth)
+                    .append(", heapFallbacks=").append(heapFallbacks)
+                    .append(", passes=").append(passes)
+                    .append(", skippedPasses=").append(skippedPasses)
+                    .append(", runs=").append(runs)
+                    .append(", gallops=").append(gallops)
+                    .append(", merges=").append(merges)
+                    .append(", bufferBytes=").append(bufferBytes)
+                    .append(", bytesAllocated=").append(bytesAllocated)
+                    .append(", totalNanos=").append(totalNanos);
+            for (Phase phase : Phase.values()) {
+                if (phaseNanos[phase.ordinal()] != 0) {
+                    builder.append(", ").append(phase).append("=").append(phaseNanos[phase.ordinal()]);
+                }
+            }
+            return builder.append("}").toString();
+        }
+    }
+
+    /**
+     * 累计统计，注册到JMX
+     */
+    private static final class Statistics implements SortMetricsMXBean {
+        private final LongAdder sortCount = new LongAdder();
+        private final LongAdder comparisons = new LongAdder();
+        private final LongAdder swaps = new LongAdder();
+        private final LongAdder moves = new LongAdder();
+        private final LongAdder heapFallbacks = new LongAdder();
+        private final LongAdder passes = new LongAdder();
+        private final LongAdder skippedPasses = new LongAdder();
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder gallops = new LongAdder();
+        private final LongAdder merges = new LongAdder();
+        private final LongAdder bufferBytes = new LongAdder();
+        private final LongAdder bytesAllocated = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+        private final AtomicInteger maxDepth = new AtomicInteger();
+        private final AtomicReference<Snapshot> lastSort = new AtomicReference<>();
+
+        Statistics() {
+            for (int i = 0; i < phaseNanos.length; i++) {
+                phaseNanos[i] = new LongAdder();
+            }
+        }
+
+        void add(Snapshot snapshot) {
+            sortCount.increment();
+            comparisons.add(snapshot.comparisons);
+            swaps.add(snapshot.swaps);
+            moves.add(snapshot.moves);
+            heapFallbacks.add(snapshot.heapFallbacks);
+            passes.add(snapshot.passes);
+            skippedPasses.add(snapshot.skippedPasses);
+            runs.add(snapshot.runs);
+            gallops.add(snapshot.gallops);
+            merges.add(snapshot.merges);
+            bufferBytes.add(snapshot.bufferBytes);
+            if (snapshot.bytesAllocated > 0) {
+                bytesAllocated.add(snapshot.bytesAllocated);
+            }
+            totalNanos.add(snapshot.totalNanos);
+            for (int i = 0; i < phaseNanos.length; i++) {
+                phaseNanos[i].add(snapshot.phaseNanos[i]);
+            }
+            maxDepth.accumulateAndGet(snapshot.maxDepth, Math::max);
+            lastSort.set(snapshot);
+        }
+
+        @Override
+        public long getSortCount() {
+            return sortCount.sum();
+        }
+
+        @Override
+        public long getComparisons() {
+            return comparisons.sum();
+        }
+
+        @Override
+        public long getSwaps() {
+            return swaps.sum();
+        }
+
+        @Override
+        public long getMoves() {
+            return moves.sum();
+        }
+
+        @Override
+        public long getHeapFallbacks() {
+            return heapFallbacks.sum();
+        }
+
+        @Override
+        public long getPasses() {
+            return passes.sum();
+        }
+
+        @Override
+        public long getSkippedPasses() {
+            return skippedPasses.sum();
+        }
+
+        @Override
+        public long getRuns() {
+            return runs.sum();
+        }
+
+        @Override
+        public long getGallops() {
+            return gallops.sum();
+        }
+
+        @Override
+        public long getMerges() {
+            return merges.sum();
+        }
+
+        @Override
+        public long getBufferBytes() {
+            return bufferBytes.sum();
+        }
+
+        @Override
+        public int getMaxDepth() {
+            return maxDepth.get();
+        }
+
+        @Override
+        public long getBytesAllocated() {
+            return bytesAllocated.sum();
+        }
+
+        @Override
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        @Override
+        public long getPartitionNanos() {
+            return phaseNanos[Phase.PARTITION.ordinal()].sum();
+        }
+
+        @Override
+        public long getInsertionNanos() {
+            return phaseNanos[Phase.INSERTION.ordinal()].sum();
+        }
+
+        @Override
+        public long getMergeNanos() {
+            return phaseNanos[Phase.MERGE.ordinal()].sum();
+        }
+
+        @Override
+        public long getHeapBuildNanos() {
+            return phaseNanos[Phase.HEAP_BUILD.ordinal()].sum();
+        }
+
+        @Override
+        public long getHeapSortDownNanos() {
+            return phaseNanos[Phase.HEAP_SORT_DOWN.ordinal()].sum();
+        }
+
+        @Override
+        public long getDistributionNanos() {
+            return phaseNanos[Phase.DISTRIBUTION.ordinal()].sum();
+        }
+
+        @Override
+        public String getLastSort() {
+            Snapshot snapshot = lastSort.get();
+            return snapshot == null ? null : snapshot.toString();
+        }
+
+        @Override
+        public void reset() {
+            sortCount.reset();
+            comparisons.reset();
+            swaps.reset();
+            moves.reset();
+            heapFallbacks.reset();
+            passes.reset();
+            skippedPasses.reset();
+            runs.reset();
+            gallops.reset();
+            merges.reset();
+            bufferBytes.reset();
+            bytesAllocated.reset();
+            totalNanos.reset();
+            for (LongAdder adder : phaseNanos) {
+                adder.reset();
+            }
+            maxDepth.set(0);
+            lastSort.set(null);
+        }
+    }
+}
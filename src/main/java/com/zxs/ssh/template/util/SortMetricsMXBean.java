@@ -0,0 +1,123 @@
+package com.zxs.ssh.template.util;
+
+/**
+ * Project Name:sort-alg
+ * File Name:SortMetricsMXBean
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:排序度量的JMX接口，注册名com.zxs.ssh.template.util:type=SortMetrics，各项均为开启度量以来的累计值
+ */
+
+
+public interface SortMetricsMXBean {
+
+    /**
+     * @return 排序次数
+     */
+    long getSortCount();
+
+    /**
+     * @return 比较次数
+     */
+    long getComparisons();
+
+    /**
+     * @return 交换次数
+     */
+    long getSwaps();
+
+    /**
+     * @return 移动次数（归并、插入排序、基数排序分配中的单个元素写入）
+     */
+    long getMoves();
+
+    /**
+     * @return 内省排序改用堆排序的次数
+     */
+    long getHeapFallbacks();
+
+    /**
+     * @return 基数排序执行的分配趟数
+     */
+    long getPasses();
+
+    /**
+     * @return 基数排序因所有数在该位上相同而跳过的趟数
+     */
+    long getSkippedPasses();
+
+    /**
+     * @return 自适应排序识别出的自然有序段数
+     */
+    long getRuns();
+
+    /**
+     * @return 自适应排序进入飞奔模式的次数
+     */
+    long getGallops();
+
+    /**
+     * @return 两段归并的次数
+     */
+    long getMerges();
+
+    /**
+     * @return 使用的辅助数组字节数（含调用方提供的辅助数组）
+     */
+    long getBufferBytes();
+
+    /**
+     * @return 单次排序的最大递归深度
+     */
+    int getMaxDepth();
+
+    /**
+     * @return 排序期间当前线程分配的字节数
+     */
+    long getBytesAllocated();
+
+    /**
+     * @return 排序总耗时（纳秒）
+     */
+    long getTotalNanos();
+
+    /**
+     * @return 划分耗时（纳秒）
+     */
+    long getPartitionNanos();
+
+    /**
+     * @return 插入排序耗时（纳秒）
+     */
+    long getInsertionNanos();
+
+    /**
+     * @return 归并耗时（纳秒）
+     */
+    long getMergeNanos();
+
+    /**
+     * @return 建堆耗时（纳秒）
+     */
+    long getHeapBuildNanos();
+
+    /**
+     * @return 堆排序逐个取出堆顶的耗时（纳秒）
+     */
+    long getHeapSortDownNanos();
+
+    /**
+     * @return 基数排序、计数排序分配与写回的耗时（纳秒）
+     */
+    long getDistributionNanos();
+
+    /**
+     * @return 最近一次排序的度量
+     */
+    String getLastSort();
+
+    /**
+     * 清零累计值
+     */
+    void reset();
+}
@@ -0,0 +1,323 @@
+package com.zxs.ssh.template.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Project Name:sort-alg
+ * File Name:SortPlanner
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:自适应排序算法选择
+ * 先对输入做一次廉价抽样（数据量、有序程度、取值范围、重复比例），再按规则选出最合适的算法
+ * 取值范围很大但只有少数几个不同值时不能用计数排序，按抽样中的不同值个数改用三路快速排序
+ * 选择结果以SortPlan返回，并以debug级别打印日志
+ */
+
+
+public class SortPlanner implements Sorter {
+    private static final Logger logger = LoggerFactory.getLogger(SortPlanner.class);
+
+    /**
+     * 数据量小于该值时直接插入排序
+     */
+    static final int SMALL_THRESHOLD = 48;
+
+    /**
+     * 数据量不小于该值时使用基数排序，更小时基数排序的桶计数开销不划算
+     */
+    static final int RADIX_THRESHOLD = 1 << 12;
+
+    /**
+     * 数据量不小于该值且CPU核数足够时使用并行排序
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 22;
+
+    /**
+     * 使用并行排序的最少CPU核数
+     */
+    static final int PARALLEL_MIN_PROCESSORS = 4;
+
+    /**
+     * 升序（或降序）相邻对比例不低于该值时视为基本有序
+     */
+    static final double PRESORTED_RATIO = 0.97;
+
+    /**
+     * 抽样中不同值不超过该个数时使用三路快速排序：d个不同值只需约log2(d)层划分
+     * 实测（单核）数据量不小于RADIX_THRESHOLD时只有不超过8个不同值才比基数排序快，
+     * 更小的数据量与快速排序比较，不超过16个不同值时三路快速排序快一倍左右，更多时反而慢
+     */
+    static final int FEW_DISTINCT_VALUES = 8;
+    static final int FEW_DISTINCT_VALUES_SMALL = 16;
+
+    /**
+     * 取值抽样个数
+     */
+    private static final int VALUE_SAMPLES = 1024;
+
+    /**
+     * 有序程度抽样的窗口个数和窗口长度，窗口内检查相邻对是否升序
+     */
+    private static final int ORDER_WINDOWS = 16;
+    private static final int ORDER_WINDOW_LENGTH = 64;
+
+    private final int processors;
+
+    public SortPlanner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param processors 可用于并行排序的CPU核数
+     */
+    public SortPlanner(int processors) {
+        this.processors = processors;
+    }
+
+    @Override
+    public String name() {
+        return "AUTO";
+    }
+
+    /**
+     * 选择算法并排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    @Override
+    public void sort(int[] a, int length) {
+        execute(a, length);
+    }
+
+    /**
+     * 选择算法并排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @return 本次使用的排序计划
+     */
+    public SortPlan execute(int[] a, int length) {
+        SortPlan plan = plan(a, length);
+        if (logger.isDebugEnabled()) {
+            logger.debug("sort plan: {}", plan);
+        }
+        plan.getAlgorithm().sort(a, length);
+        return plan;
+    }
+
+    /**
+     * 选择算法并对a[fromIndex, toIndex)排序
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     */
+    @Override
+    public void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        execute(a, fromIndex, toIndex, asc);
+    }
+
+    /**
+     * 选择算法并对a[fromIndex, toIndex)排序，抽样只在该区间内进行
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 本次使用的排序计划
+     */
+    public SortPlan execute(int[] a, int fromIndex, int toIndex, boolean asc) {
+        SortUtil.checkRange(a.length, fromIndex, toIndex);
+        SortPlan plan = plan(a, fromIndex, toIndex);
+        if (logger.isDebugEnabled()) {
+            logger.debug("sort plan: {}, range [{}, {}), asc {}", plan, fromIndex, toIndex, asc);
+        }
+        plan.getAlgorithm().sort(a, fromIndex, toIndex, asc);
+        return plan;
+    }
+
+    /**
+     * 只抽样和选择算法，不排序
+     * 抽样代价：最多VALUE_SAMPLES个等间隔取值（排序后统计不同值个数）和ORDER_WINDOWS个连续窗口
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @return 排序计划
+     */
+    public SortPlan plan(int[] a, int length) {
+        return plan(a, 0, length);
+    }
+
+    /**
+     * 只对a[fromIndex, toIndex)抽样和选择算法，不排序
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @return 排序计划
+     */
+    public SortPlan plan(int[] a, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        if (length < SMALL_THRESHOLD) {
+            return new SortPlan(SortAlgorithm.INSERT, length, 0, Double.NaN, Double.NaN, 0, 0,
+                    "length < " + SMALL_THRESHOLD);
+        }
+        //有序程度：若干个等间隔窗口内升序相邻对的比例
+        int pairs = 0;
+        int ascendingPairs = 0;
+        int windows = Math.min(ORDER_WINDOWS, length / ORDER_WINDOW_LENGTH);
+        if (windows == 0) {
+            windows = 1;
+        }
+        long windowStride = (long) length / windows;
+        for (int w = 0; w < windows; w++) {
+            int from = fromIndex + (int) (w * windowStride);
+            int to = Math.min(toIndex, from + ORDER_WINDOW_LENGTH);
+            for (int i = from + 1; i < to; i++) {
+                pairs++;
+                if (a[i - 1] <= a[i]) {
+                    ascendingPairs++;
+                }
+            }
+        }
+        double ascendingRatio = (double) ascendingPairs / pairs;
+        //取值范围和重复比例：等间隔取值
+        int samples = Math.min(VALUE_SAMPLES, length);
+        int[] sample = new int[samples];
+        long sampleStride = (long) length / samples;
+        for (int i = 0; i < samples; i++) {
+            sample[i] = a[fromIndex + (int) (i * sampleStride)];
+        }
+        SortUtil.introSort(sample, 0, samples - 1);
+        int distinct = 1;
+        for (int i = 1; i < samples; i++) {
+            if (sample[i] != sample[i - 1]) {
+                distinct++;
+            }
+        }
+        double distinctRatio = (double) distinct / samples;
+        int sampledMin = sample[0];
+        int sampledMax = sample[samples - 1];
+
+        SortAlgorithm algorithm;
+        String reason;
+        if (ascendingRatio >= PRESORTED_RATIO || ascendingRatio <= 1 - PRESORTED_RATIO) {
+            algorithm = SortAlgorithm.ADAPTIVE;
+            reason = "presorted, ascending ratio " + ascendingRatio;
+        } else if (CountingSortUtil.isCountable((long) sampledMax - sampledMin + 1, length)) {
+            //抽样可能漏掉极值，计数排序自己会再求一次精确的取值范围，不适合时退化
+            if (length >= PARALLEL_THRESHOLD && processors >= PARALLEL_MIN_PROCESSORS) {
+                algorithm = SortAlgorithm.PARALLEL_COUNTING;
+            } else {
+                algorithm = SortAlgorithm.COUNTING;
+            }
+            reason = "sampled range " + ((long) sampledMax - sampledMin + 1) + " countable";
+        } else if (length >= PARALLEL_THRESHOLD && processors >= PARALLEL_MIN_PROCESSORS) {
+            algorithm = SortAlgorithm.PARALLEL_QUICK;
+            reason = "length >= " + PARALLEL_THRESHOLD + " on " + processors + " processors";
+        } else if (distinct <= (length >= RADIX_THRESHOLD ? FEW_DISTINCT_VALUES : FEW_DISTINCT_VALUES_SMALL)) {
+            //取值范围大但只有少数几个不同值（如大编号上的枚举、状态），计数排序不适用
+            algorithm = SortAlgorithm.QUICK_3WAY;
+            reason = distinct + " distinct values in " + samples + " samples";
+        } else if (length >= RADIX_THRESHOLD) {
+            algorithm = SortAlgorithm.RADIX;
+            reason = "length >= " + RADIX_THRESHOLD;
+        } else {
+            algorithm = SortAlgorithm.QUICK;
+            reason = "general case";
+        }
+        return new SortPlan(algorithm, length, samples, ascendingRatio, distinctRatio, sampledMin, sampledMax, reason);
+    }
+
+    /**
+     * 排序计划：选中的算法及抽样特征
+     */
+    public static final class SortPlan {
+        private final Sorter algorithm;
+        private final int length;
+        private final int sampleSize;
+        private final double ascendingRatio;
+        private final double distinctRatio;
+        private final int sampledMin;
+        private final int sampledMax;
+        private final String reason;
+
+        SortPlan(Sorter algorithm, int length, int sampleSize, double ascendingRatio, double distinctRatio,
+                 int sampledMin, int sampledMax, String reason) {
+            this.algorithm = algorithm;
+            this.length = length;
+            this.sampleSize = sampleSize;
+            this.ascendingRatio = ascendingRatio;
+            this.distinctRatio = distinctRatio;
+            this.sampledMin = sampledMin;
+            this.sampledMax = sampledMax;
+            this.reason = reason;
+        }
+
+        /**
+         * @return 选中的算法
+         */
+        public Sorter getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * @return 数组长度
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * @return 取值抽样个数
+         */
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        /**
+         * @return 抽样窗口内升序相邻对的比例
+         */
+        public double getAscendingRatio() {
+            return ascendingRatio;
+        }
+
+        /**
+         * @return 抽样中不同值的比例
+         */
+        public double getDistinctRatio() {
+            return distinctRatio;
+        }
+
+        /**
+         * @return 抽样最小值
+         */
+        public int getSampledMin() {
+            return sampledMin;
+        }
+
+        /**
+         * @return 抽样最大值
+         */
+        public int getSampledMax() {
+            return sampledMax;
+        }
+
+        /**
+         * @return 选择原因
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "SortPlan{algorithm=" + algorithm.name() + ", length=" + length + ", sampleSize=" + sampleSize
+                    + ", ascendingRatio=" + ascendingRatio + ", distinctRatio=" + distinctRatio
+                    + ", sampledRange=[" + sampledMin + ", " + sampledMax + "], reason=" + reason + "}";
+        }
+    }
+}
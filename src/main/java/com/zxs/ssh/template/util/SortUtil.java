@@ -93,174 +93,540 @@ public class SortUtil {
 
     /**
      * 快速排序(升序)
-     * 数组长度为2百万时，抛异常java.lang.StackOverflowError
+     * 内省排序实现：1、三数取中划分，与轴值相等的数均匀分到两边，全部相等或管风琴形数据也能均分
+     * 2、显式栈代替递归，先处理较短的一段，栈深度不超过logn  3、划分层数超过2logn时该段改用堆排序，最坏情况O(nlogn)
+     * 4、长度小于INSERTION_SORT_THRESHOLD的段使用插入排序
      * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(logn)  3、非稳定排序  4、原地排序
      *
      * @param a      待排序数组
      * @param length 数组长度
      */
     public static int quickSort(int[] a, int length) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("QUICK", length);
+        }
         try {
-            int leftIndex = 0;
-            int rightIndex = length - 1;
-            quickSortHelp(a, leftIndex, rightIndex);
-        } catch (Exception e) {
-            logger.info("快速排序异常", e);
+            introSort(a, 0, length - 1);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
         }
         return length;
     }
 
     /**
-     * 快速排序递归
+     * 快速排序，对a[fromIndex, toIndex)排序，其余部分不变
+     * 降序时先把区间内每个数按位取反（~x的升序即x的降序，且取反不会溢出），升序排序后再取反回来，
+     * 比较逻辑不变，也不需要复制或翻转
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
+     */
+    public static int quickSort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        checkRange(a.length, fromIndex, toIndex);
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("QUICK", toIndex - fromIndex);
+        }
+        try {
+            if (!asc) {
+                complement(a, fromIndex, toIndex);
+            }
+            introSort(a, fromIndex, toIndex - 1);
+            if (!asc) {
+                complement(a, fromIndex, toIndex);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * 插入排序阈值，长度小于该值的段直接使用插入排序
+     */
+    static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * 内省排序（非递归），对a[leftIndex, rightIndex]排序
      *
      * @param a          待排序数组
      * @param leftIndex  左索引
      * @param rightIndex 右索引
      */
-    private static void quickSortHelp(int[] a, int leftIndex, int rightIndex) {
-        try {
-            if (leftIndex >= rightIndex) {
+    static void introSort(int[] a, int leftIndex, int rightIndex) {
+        if (leftIndex >= rightIndex) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(rightIndex - leftIndex + 1));
+        int maxDepthLimit = depthLimit;
+        //每次只压入较长的一段，栈中最多logn段，每段保存左索引、右索引、剩余深度
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        while (true) {
+            if (rightIndex - leftIndex < INSERTION_SORT_THRESHOLD) {
+                insertSort(a, leftIndex, rightIndex);
+            } else if (depthLimit == 0) {
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.heapFallback();
+                }
+                heapSort(a, leftIndex, rightIndex);
+            } else {
+                depthLimit--;
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.depth(maxDepthLimit - depthLimit);
+                }
+                int pivotIndex = partition(a, leftIndex, rightIndex);
+                if (pivotIndex - leftIndex < rightIndex - pivotIndex) {
+                    stack[top++] = pivotIndex + 1;
+                    stack[top++] = rightIndex;
+                    stack[top++] = depthLimit;
+                    rightIndex = pivotIndex - 1;
+                } else {
+                    stack[top++] = leftIndex;
+                    stack[top++] = pivotIndex - 1;
+                    stack[top++] = depthLimit;
+                    leftIndex = pivotIndex + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
                 return;
             }
-            //取最左边、最右边、中间三数的第二大值作为轴值
-            int pivotIndex = (leftIndex + rightIndex + 1) / 2;
+            depthLimit = stack[--top];
+            rightIndex = stack[--top];
+            leftIndex = stack[--top];
+        }
+    }
+
+    /**
+     * 快速排序划分
+     * 划分后，轴值左边都是比轴值小的(或者相等)，轴值右边都是比轴值大的(或者相等)
+     * 左右扫描遇到与轴值相等的数都会停下交换，因此大量重复值时两边仍然均衡
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引，要求leftIndex <= rightIndex
+     * @return 轴值最终所在索引
+     */
+    static int partition(int[] a, int leftIndex, int rightIndex) {
+        if (rightIndex - leftIndex < 2) {
             if (a[rightIndex] < a[leftIndex]) {
                 swap(a, leftIndex, rightIndex);
             }
-            if (a[rightIndex] < a[pivotIndex]) {
-                swap(a, pivotIndex, rightIndex);
+            return leftIndex;
+        }
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        int swaps = 2;
+        //取最左边、最右边、中间三数的第二大值作为轴值，排序后a[leftIndex] <= 轴值 <= a[rightIndex]，两端充当哨兵
+        int pivotIndex = (leftIndex + rightIndex) >>> 1;
+        if (a[rightIndex] < a[leftIndex]) {
+            swap(a, leftIndex, rightIndex);
+            swaps++;
+        }
+        if (a[rightIndex] < a[pivotIndex]) {
+            swap(a, pivotIndex, rightIndex);
+            swaps++;
+        }
+        if (a[pivotIndex] < a[leftIndex]) {
+            swap(a, leftIndex, pivotIndex);
+            swaps++;
+        }
+        //将轴值移到右边第二个位置
+        int pivotValue = a[pivotIndex];
+        swap(a, pivotIndex, rightIndex - 1);
+        int i = leftIndex;
+        int j = rightIndex - 1;
+        while (true) {
+            while (a[++i] < pivotValue) {
             }
-            if (a[pivotIndex] < a[leftIndex]) {
-                swap(a, leftIndex, pivotIndex);
+            while (pivotValue < a[--j]) {
             }
-            int pivotValue = a[pivotIndex];
-            //将轴值移到最右边
-            swap(a, rightIndex, pivotIndex);
-            int leftOrigin = leftIndex;
-            int rightOrigin = rightIndex;
-            while (leftIndex < rightIndex) {
-                while (leftIndex < rightIndex && a[leftIndex] <= pivotValue) {
-                    leftIndex++;
-                }
-                while (leftIndex < rightIndex && a[rightIndex] >= pivotValue) {
-                    rightIndex--;
-                }
-                if (leftIndex < rightIndex) {
-                    swap(a, leftIndex, rightIndex);
-                }
+            if (i >= j) {
+                break;
             }
-            //将轴值移到左索引和右索引相交处，移完后，轴值左边都是比轴值小的，轴值右边都是比轴值大的(或者相等)
-            swap(a, rightOrigin, rightIndex);
-            quickSortHelp(a, leftOrigin, rightIndex - 1);
-            quickSortHelp(a, rightIndex + 1, rightOrigin);
-        } catch (Exception e) {
-            logger.info("快速排序异常", e);
+            swap(a, i, j);
+            swaps++;
         }
-
+        //将轴值移到左索引和右索引相交处
+        swap(a, i, rightIndex - 1);
+        if (SortMetrics.ENABLED) {
+            //i、j每移动一步比较一次，另加三数取中的3次
+            SortMetrics.record(SortMetrics.Phase.PARTITION, startNanos,
+                    3 + (i - leftIndex) + (rightIndex - 1 - j), swaps, 0);
+        }
+        return i;
     }
 
     /**
-     * 归并排序(升序)
-     * 数组长度为5千万时，抛异常java.lang.OutOfMemoryError: Java heap space
-     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(n)  3、稳定排序 4、非原地排序
+     * 三路快速排序，对a[fromIndex, toIndex)排序，其余部分不变
+     * 每次划分把等于轴值的数一次性归位，不再参与后续划分，d个不同值时时间复杂度为O(nlogd)，适合大量重复值
      *
-     * @param a      待排序数组
-     * @param length 数组长度
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
      */
-    public static int mergeSort(int[] a, int length) {
+    public static int quickSort3Way(int[] a, int fromIndex, int toIndex, boolean asc) {
+        checkRange(a.length, fromIndex, toIndex);
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("QUICK_3WAY", toIndex - fromIndex);
+        }
         try {
-            int leftIndex = 0;
-            int rightIndex = length - 1;
-            mergeSortHelp(a, leftIndex, rightIndex);
-        } catch (Exception e) {
-            logger.info("归并排序异常", e);
+            if (!asc) {
+                complement(a, fromIndex, toIndex);
+            }
+            introSort3Way(a, fromIndex, toIndex - 1);
+            if (!asc) {
+                complement(a, fromIndex, toIndex);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
         }
-        return length;
+        return toIndex - fromIndex;
     }
 
     /**
-     * 归并排序递归
+     * 三路划分的内省排序（非递归），对a[leftIndex, rightIndex]排序
+     * 轴值取三数中值，深度超限时改用堆排序
      *
      * @param a          待排序数组
      * @param leftIndex  左索引
      * @param rightIndex 右索引
      */
-    private static void mergeSortHelp(int[] a, int leftIndex, int rightIndex) {
-        int midIndex = (leftIndex + rightIndex) / 2;
-        if (leftIndex < rightIndex) {
-            mergeSortHelp(a, leftIndex, midIndex);
-            mergeSortHelp(a, midIndex + 1, rightIndex);
-            merge(a, leftIndex, rightIndex);
+    static void introSort3Way(int[] a, int leftIndex, int rightIndex) {
+        if (leftIndex >= rightIndex) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(rightIndex - leftIndex + 1));
+        int maxDepthLimit = depthLimit;
+        int[] stack = new int[3 * 32];
+        int top = 0;
+        while (true) {
+            if (rightIndex - leftIndex < INSERTION_SORT_THRESHOLD) {
+                if (leftIndex < rightIndex) {
+                    insertSort(a, leftIndex, rightIndex);
+                }
+            } else if (depthLimit == 0) {
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.heapFallback();
+                }
+                heapSort(a, leftIndex, rightIndex);
+            } else {
+                depthLimit--;
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.depth(maxDepthLimit - depthLimit);
+                }
+                long range = partition3(a, leftIndex, rightIndex, medianOf3(a, leftIndex, rightIndex));
+                int lt = (int) (range >>> 32);
+                int gt = (int) range;
+                //等于轴值的[lt, gt]已归位，只压入较长的一段
+                if (lt - leftIndex < rightIndex - gt) {
+                    stack[top++] = gt + 1;
+                    stack[top++] = rightIndex;
+                    stack[top++] = depthLimit;
+                    rightIndex = lt - 1;
+                } else {
+                    stack[top++] = leftIndex;
+                    stack[top++] = lt - 1;
+                    stack[top++] = depthLimit;
+                    leftIndex = gt + 1;
+                }
+                continue;
+            }
+            if (top == 0) {
+                return;
+            }
+            depthLimit = stack[--top];
+            rightIndex = stack[--top];
+            leftIndex = stack[--top];
         }
     }
 
     /**
-     * 归并，对部分有序的数组排序
+     * 三数取中
      *
-     * @param a          待排序数组
+     * @param a          数组
      * @param leftIndex  左索引
      * @param rightIndex 右索引
+     * @return 左、中、右三个数中值的索引
      */
-    private static void merge(int[] a, int leftIndex, int rightIndex) {
-        int[] temp = new int[rightIndex - leftIndex + 1];
-        int mid = (leftIndex + rightIndex) / 2;
+    static int medianOf3(int[] a, int leftIndex, int rightIndex) {
+        int midIndex = (leftIndex + rightIndex) >>> 1;
+        int left = a[leftIndex];
+        int mid = a[midIndex];
+        int right = a[rightIndex];
+        if (left < mid) {
+            return mid < right ? midIndex : (left < right ? rightIndex : leftIndex);
+        }
+        return left < right ? leftIndex : (mid < right ? rightIndex : midIndex);
+    }
+
+    /**
+     * 三路划分（Dijkstra）：小于轴值、等于轴值、大于轴值
+     *
+     * @param a          数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     * @param pivotIndex 轴值索引
+     * @return 等于轴值区间的左右索引，左索引在高32位，右索引在低32位
+     */
+    static long partition3(int[] a, int leftIndex, int rightIndex, int pivotIndex) {
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        int pivotValue = a[pivotIndex];
+        int lt = leftIndex;
+        int gt = rightIndex;
         int i = leftIndex;
-        int j = mid + 1;
-        int k = 0;
-        //将较小的数移到新数组中
-        while (i <= mid && j <= rightIndex) {
-            if (a[i] < a[j]) {
-                temp[k++] = a[i++];
+        while (i <= gt) {
+            if (a[i] < pivotValue) {
+                swap(a, lt++, i++);
+            } else if (a[i] > pivotValue) {
+                swap(a, i, gt--);
             } else {
-                temp[k++] = a[j++];
+                i++;
             }
         }
-        //将左边剩余的数移到新数组中
-        while (i <= mid) {
-            temp[k++] = a[i++];
+        if (SortMetrics.ENABLED) {
+            //每个数比较一到两次，小于和大于轴值的各交换一次
+            int length = rightIndex - leftIndex + 1;
+            int swaps = length - (gt - lt + 1);
+            SortMetrics.record(SortMetrics.Phase.PARTITION, startNanos, length + swaps, swaps, 0);
         }
-        //将右边剩余的数移到新数组中
-        while (j <= rightIndex) {
-            temp[k++] = a[j++];
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 插入排序，对a[leftIndex, rightIndex]排序
+     * 先保存待插入的数，比它大的数依次后移，不做交换
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    static void insertSort(int[] a, int leftIndex, int rightIndex) {
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        long comparisons = 0;
+        long moves = 0;
+        for (int i = leftIndex + 1; i <= rightIndex; i++) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= leftIndex && a[j] > value) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+            if (SortMetrics.ENABLED) {
+                comparisons += i - j - (j < leftIndex ? 1 : 0);
+                moves += i - j;
+            }
         }
-        //将新数组覆盖原数组
-        k = 0;
-        for (int m = leftIndex; m <= rightIndex; m++) {
-            a[m] = temp[k++];
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.INSERTION, startNanos, comparisons, 0, moves);
         }
     }
 
     /**
-     * 希尔排序(升序)
-     * 本质是插入排序
-     * 数组长度为5千万时，抛异常java.lang.OutOfMemoryError: Java heap space
-     * 性质：1、时间复杂度：O(n的1.3次方)  2、空间复杂度：O(1)  3、非稳定排序  4、原地排序
+     * 归并排序(升序)
+     * 整个排序只分配一个长度为n的辅助数组，每一层在原数组和辅助数组之间交替归并，不再为每次归并分配临时数组
+     * 左半部分最大值不大于右半部分最小值时跳过归并，有序数据只需O(n)次比较
+     * 性质：1、时间复杂度：O(nlogn)  2、空间复杂度：O(n)  3、稳定排序 4、非原地排序
      *
      * @param a      待排序数组
      * @param length 数组长度
      */
-    public static int shellSort(int[] a, int length) {
+    public static int mergeSort(int[] a, int length) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("MERGE", length);
+        }
         try {
-            //分组,确定步长和组数，初始步长为length / 2，组数为stepLength
-            //假如数组长度为8，步长 = 4，组数 = 4
-            for (int stepLength = length / 2; stepLength > 0; stepLength /= 2) {
-                //插入排序
-                for (int i = 0; i < length - stepLength; i++) {
-                    for (int j = i + stepLength; j >= stepLength; j -= stepLength) {
-                        if (a[j] < a[j - stepLength]) {
-                            swap(a, j, j - stepLength);
-                        } else {
-                            break;
-                        }
-                    }
+            return mergeSort(a, length, new int[length]);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+    }
+
+    /**
+     * 归并排序(升序)，使用调用方提供的辅助数组，排序过程中不分配内存
+     * 辅助数组可在多次排序间复用，排序后其内容无意义
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param buffer 辅助数组，长度不小于length
+     */
+    public static int mergeSort(int[] a, int length, int[] buffer) {
+        if (buffer.length < length) {
+            throw new IllegalArgumentException("buffer length " + buffer.length + " < " + length);
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("MERGE", length);
+        }
+        try {
+            System.arraycopy(a, 0, buffer, 0, length);
+            mergeSortHelp(buffer, a, 0, length);
+            if (SortMetrics.ENABLED) {
+                //递归深度：长度减半直到小于插入排序阈值的次数
+                int depth = 0;
+                for (int n = length; n >= INSERTION_SORT_THRESHOLD; n = (n + 1) >>> 1) {
+                    depth++;
                 }
+                SortMetrics.depth(depth);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
             }
-        } catch (Exception e) {
-            logger.info("希尔排序异常", e);
         }
         return length;
     }
 
+    /**
+     * 归并排序，对a[fromIndex, toIndex)排序，其余部分不变，辅助数组只需区间长度
+     * 降序时按位取反后升序排序再取反，相等的数仍保持原来的先后顺序（稳定）
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
+     */
+    public static int mergeSort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        checkRange(a.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("MERGE", length);
+        }
+        try {
+            if (!asc) {
+                complement(a, fromIndex, toIndex);
+            }
+            int[] buffer = new int[length];
+            System.arraycopy(a, fromIndex, buffer, 0, length);
+            mergeSortHelp(buffer, 0, a, fromIndex, 0, length);
+            if (!asc) {
+                complement(a, fromIndex, toIndex);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 归并排序递归，将[low, high)排好序放入dest
+     * 调用前src与dest在[low, high)内的数据相同，子问题交换src与dest的角色，使每一层的归并方向交替
+     *
+     * @param src  源数组
+     * @param dest 目标数组
+     * @param low  起始索引(包含)
+     * @param high 结束索引(不包含)
+     */
+    static void mergeSortHelp(int[] src, int[] dest, int low, int high) {
+        mergeSortHelp(src, 0, dest, 0, low, high);
+    }
+
+    /**
+     * 归并排序递归，src与dest可以从不同位置开始存放：区间内第i个数分别位于src[srcBase + i]和dest[destBase + i]
+     * 对子数组排序时辅助数组只需要子数组的长度
+     *
+     * @param src      源数组
+     * @param srcBase  源数组起始位置
+     * @param dest     目标数组
+     * @param destBase 目标数组起始位置
+     * @param low      起始索引(包含，相对起始位置)
+     * @param high     结束索引(不包含，相对起始位置)
+     */
+    private static void mergeSortHelp(int[] src, int srcBase, int[] dest, int destBase, int low, int high) {
+        if (high - low < INSERTION_SORT_THRESHOLD) {
+            insertSort(dest, destBase + low, destBase + high - 1);
+            return;
+        }
+        int mid = (low + high) >>> 1;
+        mergeSortHelp(dest, destBase, src, srcBase, low, mid);
+        mergeSortHelp(dest, destBase, src, srcBase, mid, high);
+        //左右两部分已经整体有序，直接复制
+        if (src[srcBase + mid - 1] <= src[srcBase + mid]) {
+            System.arraycopy(src, srcBase + low, dest, destBase + low, high - low);
+            if (SortMetrics.ENABLED) {
+                SortMetrics.count(1, 0, high - low);
+            }
+            return;
+        }
+        merge(src, srcBase + low, srcBase + mid, srcBase + high, dest, destBase + low);
+    }
+
+    /**
+     * 归并，将src中有序的[low, mid)与[mid, high)合并到dest中从destLow开始的位置
+     *
+     * @param src     源数组
+     * @param low     左半部分起始索引
+     * @param mid     右半部分起始索引
+     * @param high    结束索引(不包含)
+     * @param dest    目标数组
+     * @param destLow 目标起始索引
+     */
+    private static void merge(int[] src, int low, int mid, int high, int[] dest, int destLow) {
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        int i = low;
+        int j = mid;
+        int k = destLow;
+        //将较小的数移到目标数组中，相等时取左边的数，保证稳定
+        while (i < mid && j < high) {
+            if (src[j] < src[i]) {
+                dest[k++] = src[j++];
+            } else {
+                dest[k++] = src[i++];
+            }
+        }
+        if (SortMetrics.ENABLED) {
+            //循环每次比较一次，另加mergeSortHelp中是否跳过归并的1次
+            SortMetrics.record(SortMetrics.Phase.MERGE, startNanos, k - destLow + 1, 0, high - low);
+        }
+        //将左边或右边剩余的数移到目标数组中
+        if (i < mid) {
+            System.arraycopy(src, i, dest, k, mid - i);
+        } else if (j < high) {
+            System.arraycopy(src, j, dest, k, high - j);
+        }
+    }
+
+    /**
+     * 希尔排序(升序)
+     * 本质是插入排序，使用Ciura步长序列，插入时移动而不交换，见ShellSortUtil
+     * 原来的n/2、n/4、...步长序列在步长都为偶数时奇偶位置互不比较，最坏O(n²)
+     * 性质：1、时间复杂度：约O(n的4/3次方)  2、空间复杂度：O(1)  3、非稳定排序  4、原地排序
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int shellSort(int[] a, int length) {
+        return ShellSortUtil.shellSort(a, length, ShellSortUtil.GapSequence.CIURA);
+    }
+
+    /**
+     * 希尔排序，对a[fromIndex, toIndex)排序，其余部分不变
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
+     */
+    public static int shellSort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        return ShellSortUtil.shellSort(a, fromIndex, toIndex, asc, ShellSortUtil.GapSequence.CIURA);
+    }
+
     /**
      * 堆排序(升序)
      * 算法步骤：1.构造最大堆  2.将根结点与最后一个节点交换（即去除根节点）  3.将剩余节点调整为最大堆  4.重复2和3
@@ -271,25 +637,88 @@ public class SortUtil {
      * @param length 数组长度
      */
     public static int heapSort(int[] a, int length) {
-        //构造最大堆
-        buildMaxHeap(a, length);
-        //将根结点与最后一个节点交换
-        swap(a, 0, length - 1);
-        for (int count = length - 1; count > 1; count--) {
-            buildMaxHeapHelp(a, count, 0);  //此时只有根节点不满足最大堆特性
-            swap(a, 0, count - 1);
+        if (length < 2) {
+            return length;
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("HEAP", length);
+            SortMetrics.depth(31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+        }
+        try {
+            long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+            //构造最大堆
+            buildMaxHeap(a, length);
+            if (SortMetrics.ENABLED) {
+                SortMetrics.record(SortMetrics.Phase.HEAP_BUILD, startNanos, 0, 0, 0);
+                startNanos = System.nanoTime();
+            }
+            //将根结点与最后一个节点交换
+            swap(a, 0, length - 1);
+            for (int count = length - 1; count > 1; count--) {
+                buildMaxHeapHelp(a, count, 0);  //此时只有根节点不满足最大堆特性
+                swap(a, 0, count - 1);
+            }
+            if (SortMetrics.ENABLED) {
+                SortMetrics.record(SortMetrics.Phase.HEAP_SORT_DOWN, startNanos, 0, length - 1, 0);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
         }
         return length;
     }
 
 
+    /**
+     * 堆排序，对a[fromIndex, toIndex)排序，其余部分不变，使用HeapSortUtil中的四叉堆
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
+     */
+    public static int heapSort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        checkRange(a.length, fromIndex, toIndex);
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("HEAP_QUATERNARY", toIndex - fromIndex);
+        }
+        try {
+            if (!asc) {
+                complement(a, fromIndex, toIndex);
+            }
+            HeapSortUtil.quaternaryHeapSort(a, fromIndex, toIndex - 1);
+            if (!asc) {
+                complement(a, fromIndex, toIndex);
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * 堆排序，对a[leftIndex, rightIndex]排序，作为内省排序的兜底算法
+     * 使用HeapSortUtil中的四叉堆，大数组上比二叉堆快约三成
+     *
+     * @param a          待排序数组
+     * @param leftIndex  左索引
+     * @param rightIndex 右索引
+     */
+    static void heapSort(int[] a, int leftIndex, int rightIndex) {
+        HeapSortUtil.quaternaryHeapSort(a, leftIndex, rightIndex);
+    }
+
     /**
      * 构造节点个数为count的最大堆
      *
      * @param a     堆（完全二叉树）
      * @param count 节点个数
      */
-    private static void buildMaxHeap(int[] a, int count) {
+    static void buildMaxHeap(int[] a, int count) {
         //完全二叉树特性：最后一个节点的索引为count-1,其父节点索引为(count-1-1)/2
         //最后一层都为叶子节点，所以从倒数第二层的最后一个节点开始构造最大堆
         for (int parentIndex = (count - 1 - 1) / 2; parentIndex >= 0; parentIndex--) {
@@ -298,81 +727,410 @@ public class SortUtil {
     }
 
     /**
-     * 构建最大堆递归
+     * 节点下沉，使以parentIndex为根的子树满足最大堆特性（非递归）
      * 最大堆：父节点比左右两个子节点都大
+     * 先暂存该节点的值，较大的子节点依次上移，最后把暂存值放入空出的位置，每层一次赋值代替一次交换
      *
      * @param a           堆（完全二叉树）
      * @param count       节点个数
      * @param parentIndex 节点索引
      */
-    private static void buildMaxHeapHelp(int[] a, int count, int parentIndex) {
+    static void buildMaxHeapHelp(int[] a, int count, int parentIndex) {
+        int value = a[parentIndex];
+        int comparisons = 0;
+        int moves = 0;
         //完全二叉树特性：左边子节点位置 = 当前父节点的两倍 + 1，右边子节点位置 = 当前父节点的两倍 + 2
-        int leftIndex = 2 * parentIndex + 1;
-        int rightIndex = 2 * parentIndex + 2;
-        //计算父节点、左子节点、右子节点最大者索引
-        int maxValueIndex = parentIndex;
-        if (leftIndex <= count - 1 && a[leftIndex] > a[maxValueIndex]) {
-            maxValueIndex = leftIndex;
-        }
-        if (rightIndex <= count - 1 && a[rightIndex] > a[maxValueIndex]) {
-            maxValueIndex = rightIndex;
+        int childIndex;
+        while ((childIndex = 2 * parentIndex + 1) < count) {
+            //取左右子节点中较大者
+            if (childIndex + 1 < count && a[childIndex + 1] > a[childIndex]) {
+                childIndex++;
+            }
+            if (SortMetrics.ENABLED) {
+                comparisons += childIndex + 1 < count ? 2 : 1;
+            }
+            if (a[childIndex] <= value) {
+                break;
+            }
+            a[parentIndex] = a[childIndex];
+            parentIndex = childIndex;  //子节点也可能为其他节点的父节点
+            if (SortMetrics.ENABLED) {
+                moves++;
+            }
         }
-        if (parentIndex != maxValueIndex) {
-            swap(a, parentIndex, maxValueIndex);
-            buildMaxHeapHelp(a, count, maxValueIndex);  //子节点也可能为其他节点的父节点
+        a[parentIndex] = value;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.count(comparisons, 0, moves);
         }
     }
 
     /**
      * 基数排序(升序)
-     * 数组长度为3千万时，抛异常java.lang.OutOfMemoryError: Java heap space
-     * 性质：1、时间复杂度：O(kn)  2、空间复杂度：O(n+k)  3、稳定排序  4、非原地排序
+     * 低位优先，每次按8位（256个桶）分配：先一次遍历统计每一位上各桶的数量，再用前缀和算出各桶的起始位置，
+     * 在原数组和一个长度为n的辅助数组之间交替分配；所有数在某一位上相同时跳过该位
+     * 最高位翻转符号位，负数排在正数前面
+     * 性质：1、时间复杂度：O(kn)，k=4  2、空间复杂度：O(n+k)  3、稳定排序  4、非原地排序
      *
      * @param a      待排序数组
      * @param length 数组长度
      */
     public static int radixSort(int[] a, int length) {
-        int currentLength = 1;//当前位数
-        int maxNumberLength = getMaxNumberLength(a, length);//最大位数
-        int[][] bucket = new int[10][length];//排序桶用于保存每次排序后的结果，这一位上排序结果相同的数字放在同一个桶里
-        int[] order = new int[10];//用于保存每个桶里有多少个数字
-        while (currentLength <= maxNumberLength) {
+        return radixSort(a, length, new int[length]);
+    }
+
+    /**
+     * 基数排序(升序)，使用调用方提供的辅助数组
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param buffer 辅助数组，长度不小于length
+     */
+    public static int radixSort(int[] a, int length, int[] buffer) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("RADIX", length);
+        }
+        try {
+            radixSortHelp(a, length, buffer, RADIX_SIGN_FLIP);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 基数排序，对a[fromIndex, toIndex)排序，其余部分不变，辅助数组只需区间长度
+     * 降序时每一位的桶号取反（255 - digit），桶按从大到小的顺序分配，不需要额外的翻转，仍是稳定排序
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     * @return 排序的元素个数
+     */
+    public static int radixSort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        checkRange(a.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("RADIX", length);
+        }
+        try {
+            radixSortHelp(a, fromIndex, toIndex, new int[length], RADIX_SIGN_FLIP, asc ? 0 : RADIX_BUCKETS - 1);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 基数排序(升序)，long数组，共8位
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int radixSort(long[] a, int length) {
+        return radixSort(a, length, new long[length]);
+    }
+
+    /**
+     * 基数排序(升序)，long数组，使用调用方提供的辅助数组
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     * @param buffer 辅助数组，长度不小于length
+     */
+    public static int radixSort(long[] a, int length, long[] buffer) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("RADIX", length);
+        }
+        try {
+            radixSortHelp(a, length, buffer, RADIX_SIGN_FLIP);
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 基数排序(升序)，float数组
+     * 浮点数转换为可按无符号整数比较的位序列后排序：负数翻转全部位，非负数只翻转符号位
+     * 结果与Arrays.sort一致：-0.0f排在0.0f前面，NaN排在最后（NaN统一为Float.NaN）
+     * 需要两个长度为n的int辅助数组
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    public static int radixSort(float[] a, int length) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("RADIX", length);
+        }
+        try {
+            int[] keys = new int[length];
             for (int i = 0; i < length; i++) {
-                int digit = (a[i] / ((int) (Math.pow(10, currentLength - 1)))) % 10;
-                bucket[digit][order[digit]] = a[i];
-                order[digit]++;
-            }
-            int currentIndex = 0;
-            for (int j = 0; j < 10; j++) {  //共有10个桶
-                for (int k = 0; k < order[j]; k++) { //每个桶里有order[j]个数
-                    a[currentIndex] = bucket[j][k]; //从第j个桶中取第k个数
-                    currentIndex++;
-                }
-                order[j] = 0;
+                int bits = Float.floatToIntBits(a[i]);
+                keys[i] = bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+            }
+            if (SortMetrics.ENABLED) {
+                SortMetrics.buffer((long) Integer.BYTES * length);
+            }
+            radixSortHelp(keys, length, new int[length], 0);
+            for (int i = 0; i < length; i++) {
+                int key = keys[i];
+                a[i] = Float.intBitsToFloat(key ^ ((~key >> 31) | Integer.MIN_VALUE));
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
             }
-            currentLength++;
         }
         return length;
     }
 
     /**
-     * 获取数组中最大数的长度（即位数）
-     * 条件：a[i] >= 0
+     * 基数排序(升序)，double数组
+     * 转换方式与float相同，-0.0排在0.0前面，NaN排在最后（NaN统一为Double.NaN）
+     * 需要两个长度为n的long辅助数组
      *
      * @param a      待排序数组
      * @param length 数组长度
-     * @return 数组中最大数的长度（即位数）
      */
-    private static int getMaxNumberLength(int[] a, int length) {
-        int res = 0;
-        int maxValue = a[0];
-        for (int i = 1; i < length; i++) {
-            if (a[i] > maxValue) {
-                maxValue = a[i];
+    public static int radixSort(double[] a, int length) {
+        if (SortMetrics.ENABLED) {
+            SortMetrics.begin("RADIX", length);
+        }
+        try {
+            long[] keys = new long[length];
+            for (int i = 0; i < length; i++) {
+                long bits = Double.doubleToLongBits(a[i]);
+                keys[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+            }
+            if (SortMetrics.ENABLED) {
+                SortMetrics.buffer((long) Long.BYTES * length);
+            }
+            radixSortHelp(keys, length, new long[length], 0);
+            for (int i = 0; i < length; i++) {
+                long key = keys[i];
+                a[i] = Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+            }
+        } finally {
+            if (SortMetrics.ENABLED) {
+                SortMetrics.end();
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 基数排序每位的位数
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * 基数排序桶个数
+     */
+    private static final int RADIX_BUCKETS = 1 << RADIX_BITS;
+
+    /**
+     * 最高位的符号位翻转掩码，有符号数排序时使用，无符号数排序时为0
+     */
+    private static final int RADIX_SIGN_FLIP = RADIX_BUCKETS >>> 1;
+
+    /**
+     * int基数排序
+     *
+     * @param a        待排序数组
+     * @param length   数组长度
+     * @param buffer   辅助数组，长度不小于length
+     * @param signFlip 最高位翻转掩码，有符号数为RADIX_SIGN_FLIP，无符号数为0
+     */
+    static void radixSortHelp(int[] a, int length, int[] buffer, int signFlip) {
+        radixSortHelp(a, 0, length, buffer, signFlip, 0);
+    }
+
+    /**
+     * int基数排序，对a[fromIndex, toIndex)排序，在a的该区间与buffer[0, toIndex - fromIndex)之间交替分配
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param buffer    辅助数组，长度不小于区间长度
+     * @param signFlip  最高位翻转掩码，有符号数为RADIX_SIGN_FLIP，无符号数为0
+     * @param digitFlip 每一位的翻转掩码，升序为0，降序为RADIX_BUCKETS - 1
+     */
+    private static void radixSortHelp(int[] a, int fromIndex, int toIndex, int[] buffer, int signFlip, int digitFlip) {
+        int length = toIndex - fromIndex;
+        if (buffer.length < length) {
+            throw new IllegalArgumentException("buffer length " + buffer.length + " < " + length);
+        }
+        if (length < 2) {
+            return;
+        }
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        int passes = Integer.SIZE / RADIX_BITS;
+        //一次遍历统计所有位的桶计数
+        int[] count = new int[passes * RADIX_BUCKETS];
+        for (int i = fromIndex; i < toIndex; i++) {
+            int value = a[i];
+            for (int pass = 0; pass < passes; pass++) {
+                int digit = ((value >>> (pass * RADIX_BITS)) & (RADIX_BUCKETS - 1)) ^ digitFlip;
+                if (pass == passes - 1) {
+                    digit ^= signFlip;
+                }
+                count[pass * RADIX_BUCKETS + digit]++;
+            }
+        }
+        long moves = 0;
+        int[] src = a;
+        int srcBase = fromIndex;
+        int[] dst = buffer;
+        int dstBase = 0;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS;
+            int flip = pass == passes - 1 ? signFlip ^ digitFlip : digitFlip;
+            int base = pass * RADIX_BUCKETS;
+            //所有数在这一位上相同，跳过
+            if (count[base + ((((src[srcBase] >>> shift) & (RADIX_BUCKETS - 1)) ^ flip))] == length) {
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.pass(true);
+                }
+                continue;
+            }
+            if (SortMetrics.ENABLED) {
+                SortMetrics.pass(false);
+                moves += length;
+            }
+            //前缀和：count变为每个桶的起始位置
+            int sum = dstBase;
+            for (int digit = 0; digit < RADIX_BUCKETS; digit++) {
+                int c = count[base + digit];
+                count[base + digit] = sum;
+                sum += c;
+            }
+            for (int i = srcBase; i < srcBase + length; i++) {
+                int value = src[i];
+                int digit = ((value >>> shift) & (RADIX_BUCKETS - 1)) ^ flip;
+                dst[count[base + digit]++] = value;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempBase = srcBase;
+            srcBase = dstBase;
+            dstBase = tempBase;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcBase, a, fromIndex, length);
+            moves += length;
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.DISTRIBUTION, startNanos, 0, 0, moves);
+            SortMetrics.buffer((long) Integer.BYTES * (length + count.length));
+        }
+    }
+
+    /**
+     * long基数排序
+     *
+     * @param a        待排序数组
+     * @param length   数组长度
+     * @param buffer   辅助数组，长度不小于length
+     * @param signFlip 最高位翻转掩码，有符号数为RADIX_SIGN_FLIP，无符号数为0
+     */
+    static void radixSortHelp(long[] a, int length, long[] buffer, int signFlip) {
+        if (buffer.length < length) {
+            throw new IllegalArgumentException("buffer length " + buffer.length + " < " + length);
+        }
+        if (length < 2) {
+            return;
+        }
+        long startNanos = SortMetrics.ENABLED ? System.nanoTime() : 0L;
+        int passes = Long.SIZE / RADIX_BITS;
+        //一次遍历统计所有位的桶计数
+        int[] count = new int[passes * RADIX_BUCKETS];
+        for (int i = 0; i < length; i++) {
+            long value = a[i];
+            for (int pass = 0; pass < passes; pass++) {
+                int digit = (int) (value >>> (pass * RADIX_BITS)) & (RADIX_BUCKETS - 1);
+                if (pass == passes - 1) {
+                    digit ^= signFlip;
+                }
+                count[pass * RADIX_BUCKETS + digit]++;
             }
         }
-        res = (maxValue + "").length();
-        return res;
+        long moves = 0;
+        long[] src = a;
+        long[] dst = buffer;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS;
+            int flip = pass == passes - 1 ? signFlip : 0;
+            int base = pass * RADIX_BUCKETS;
+            //所有数在这一位上相同，跳过
+            if (count[base + (((int) (src[0] >>> shift) & (RADIX_BUCKETS - 1)) ^ flip)] == length) {
+                if (SortMetrics.ENABLED) {
+                    SortMetrics.pass(true);
+                }
+                continue;
+            }
+            if (SortMetrics.ENABLED) {
+                SortMetrics.pass(false);
+                moves += length;
+            }
+            //前缀和：count变为每个桶的起始位置
+            int sum = 0;
+            for (int digit = 0; digit < RADIX_BUCKETS; digit++) {
+                int c = count[base + digit];
+                count[base + digit] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < length; i++) {
+                long value = src[i];
+                int digit = ((int) (value >>> shift) & (RADIX_BUCKETS - 1)) ^ flip;
+                dst[count[base + digit]++] = value;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != a) {
+            System.arraycopy(src, 0, a, 0, length);
+            moves += length;
+        }
+        if (SortMetrics.ENABLED) {
+            SortMetrics.record(SortMetrics.Phase.DISTRIBUTION, startNanos, 0, 0, moves);
+            SortMetrics.buffer((long) Long.BYTES * length + (long) Integer.BYTES * count.length);
+        }
+    }
+
+    /**
+     * 校验区间[fromIndex, toIndex)，各排序入口只在开始时校验一次
+     *
+     * @param arrayLength 数组长度
+     * @param fromIndex   起始索引(包含)
+     * @param toIndex     结束索引(不包含)
+     */
+    static void checkRange(int arrayLength, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > arrayLength || fromIndex > toIndex) {
+            throw new IllegalArgumentException("range [" + fromIndex + ", " + toIndex + ") out of range [0, "
+                    + arrayLength + "]");
+        }
+    }
+
+    /**
+     * 区间内每个数按位取反，~x = -x - 1是单调递减的一一映射，用于把降序排序转换为升序排序
+     *
+     * @param a         数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     */
+    static void complement(int[] a, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            a[i] = ~a[i];
+        }
     }
 
     /**
@@ -382,19 +1140,22 @@ public class SortUtil {
      * @param i 第一个数索引
      * @param j 第二个数索引
      */
-    private static void swap(int[] a, int i, int j) {
+    static void swap(int[] a, int i, int j) {
         int temp = a[i];
         a[i] = a[j];
         a[j] = temp;
     }
 
     /**
-     * Math.random()取值[0，1）左闭右开
+     * 在同一份数据上运行8种排序
      *
-     * @param args 系统参数
+     * @param args 系统参数：[数组长度，默认10000] [数据分布Distribution，默认FEW_UNIQUE] [随机种子，默认当前时间]
      */
     public static void main(String[] args) {
-        OriginData originData = buildOriginData();
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        Distribution distribution = args.length > 1 ? Distribution.valueOf(args[1]) : Distribution.FEW_UNIQUE;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        OriginData originData = buildOriginData(length, distribution, seed);
 
         printExecuteTime(System.nanoTime(),bubbleSort(originData.a[0], originData.length),"冒泡排序");
         System.out.println("isSorted:"+isSorted(originData.a[0],true));
@@ -414,16 +1175,9 @@ public class SortUtil {
         System.out.println("isSorted:"+isSorted(originData.a[7],true));
     }
 
-    private static OriginData buildOriginData() {
+    private static OriginData buildOriginData(int length, Distribution distribution, long seed) {
         OriginData originData = new OriginData();
-        int length = 10000;
-        int[][] a = new int[8][length];//8种排序算法的初始数据
-        for (int i = 0; i < length; i++) {
-            a[0][i] = (new Double(Math.random() * 100)).intValue();
-            for (int j = 1; j < 8; j++) {
-                a[j][i] = a[0][i];
-            }
-        }
+        int[][] a = DataGenerator.copies(distribution, length, seed, 8);//8种排序算法的初始数据
         originData.a = a;
         originData.length = length;
         originData.value = 0;
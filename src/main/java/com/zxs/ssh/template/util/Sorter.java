@@ -0,0 +1,56 @@
+package com.zxs.ssh.template.util;
+
+/**
+ * Project Name:sort-alg
+ * File Name:Sorter
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:排序策略接口，SortAlgorithm中的各排序算法和SortPlanner都实现该接口
+ */
+
+
+public interface Sorter {
+
+    /**
+     * 算法名称，用于日志
+     *
+     * @return 名称
+     */
+    String name();
+
+    /**
+     * 排序(升序)
+     *
+     * @param a      待排序数组
+     * @param length 数组长度
+     */
+    void sort(int[] a, int length);
+
+    /**
+     * 对a[fromIndex, toIndex)排序，其余部分不变
+     * 默认实现把区间复制到临时数组排序后写回（降序时倒序写回），支持区间和降序的算法应覆盖该方法
+     *
+     * @param a         待排序数组
+     * @param fromIndex 起始索引(包含)
+     * @param toIndex   结束索引(不包含)
+     * @param asc       true升序，false降序
+     */
+    default void sort(int[] a, int fromIndex, int toIndex, boolean asc) {
+        SortUtil.checkRange(a.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        if (fromIndex == 0 && asc) {
+            sort(a, length);
+            return;
+        }
+        int[] slice = new int[length];
+        System.arraycopy(a, fromIndex, slice, 0, length);
+        sort(slice, length);
+        if (asc) {
+            System.arraycopy(slice, 0, a, fromIndex, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                a[toIndex - 1 - i] = slice[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.zxs.ssh.template.util;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Project Name:sort-alg
+ * File Name:TopKUtil
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:Top-K与部分排序，用大小为k的最大堆保留最小的k个数，复用SortUtil的建堆逻辑
+ */
+
+
+public class TopKUtil {
+
+    /**
+     * 最小的k个数(升序)，原数组不变
+     * 算法步骤：1.前k个数构造最大堆  2.后面的数比堆顶小时替换堆顶并调整堆  3.对堆排序
+     * 性质：1、时间复杂度：O(nlogk)  2、空间复杂度：O(k)
+     *
+     * @param a      数组
+     * @param length 数组长度
+     * @param k      个数，大于length时取length
+     * @return 最小的k个数，升序
+     */
+    public static int[] topK(int[] a, int length, int k) {
+        checkK(k);
+        k = Math.min(k, length);
+        if (k == 0) {
+            return new int[0];
+        }
+        int[] heap = Arrays.copyOf(a, k);
+        SortUtil.buildMaxHeap(heap, k);
+        for (int i = k; i < length; i++) {
+            if (a[i] < heap[0]) {
+                heap[0] = a[i];
+                SortUtil.buildMaxHeapHelp(heap, k, 0);
+            }
+        }
+        sortHeap(heap, k);
+        return heap;
+    }
+
+    /**
+     * 部分排序(升序)，排序后a[0, k)为最小的k个数且升序，a[k, length)为其余的数，顺序不定
+     * 原地进行：a[0, k)作为最大堆，后面的数比堆顶小时与堆顶交换
+     * 性质：1、时间复杂度：O(nlogk)  2、空间复杂度：O(1)  3、非稳定排序  4、原地排序
+     *
+     * @param a      数组
+     * @param length 数组长度
+     * @param k      个数，大于length时取length
+     * @return 实际排好的个数
+     */
+    public static int partialSort(int[] a, int length, int k) {
+        checkK(k);
+        k = Math.min(k, length);
+        if (k == 0) {
+            return 0;
+        }
+        SortUtil.buildMaxHeap(a, k);
+        for (int i = k; i < length; i++) {
+            if (a[i] < a[0]) {
+                SortUtil.swap(a, 0, i);
+                SortUtil.buildMaxHeapHelp(a, k, 0);
+            }
+        }
+        sortHeap(a, k);
+        return k;
+    }
+
+    /**
+     * 最大堆原地排序为升序
+     *
+     * @param heap  最大堆
+     * @param count 节点个数
+     */
+    private static void sortHeap(int[] heap, int count) {
+        for (int last = count - 1; last > 0; last--) {
+            SortUtil.swap(heap, 0, last);
+            SortUtil.buildMaxHeapHelp(heap, last, 0);
+        }
+    }
+
+    /**
+     * 校验k
+     *
+     * @param k 个数
+     */
+    private static void checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+    }
+
+    /**
+     * 流式Top-K：逐个或分批接收数据，只保留最小的k个数，内存O(k)
+     * 非线程安全
+     */
+    public static final class IntTopK {
+        private final int k;
+        private final int[] heap;
+        private int size;
+
+        /**
+         * @param k 保留个数
+         */
+        public IntTopK(int k) {
+            checkK(k);
+            this.k = k;
+            this.heap = new int[k];
+        }
+
+        /**
+         * 接收一个数
+         * 未满k个时直接追加，满k个时建堆，之后比堆顶小才替换堆顶
+         *
+         * @param value 数
+         */
+        public void offer(int value) {
+            if (size < k) {
+                heap[size++] = value;
+                if (size == k) {
+                    SortUtil.buildMaxHeap(heap, k);
+                }
+            } else if (k > 0 && value < heap[0]) {
+                heap[0] = value;
+                SortUtil.buildMaxHeapHelp(heap, k, 0);
+            }
+        }
+
+        /**
+         * 接收a[fromIndex, toIndex)
+         *
+         * @param a         数据块
+         * @param fromIndex 起始索引(包含)
+         * @param toIndex   结束索引(不包含)
+         */
+        public void offer(int[] a, int fromIndex, int toIndex) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                offer(a[i]);
+            }
+        }
+
+        /**
+         * 接收一个IntStream中的所有数
+         *
+         * @param stream 数据流
+         */
+        public void offer(IntStream stream) {
+            stream.sequential().forEach(this::offer);
+        }
+
+        /**
+         * @return 当前保留的个数，不超过k
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * 当前保留的最小k个数(升序)，不影响后续接收
+         *
+         * @return 升序数组
+         */
+        public int[] toSortedArray() {
+            int[] result = Arrays.copyOf(heap, size);
+            if (size < k) {
+                SortUtil.buildMaxHeap(result, size);
+            }
+            sortHeap(result, size);
+            return result;
+        }
+    }
+}
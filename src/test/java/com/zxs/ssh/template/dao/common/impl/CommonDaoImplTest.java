@@ -0,0 +1,257 @@
+package com.zxs.ssh.template.dao.common.impl;
+
+import com.zxs.ssh.template.dao.common.api.BatchResult;
+import com.zxs.ssh.template.dao.common.api.CacheStatistics;
+import com.zxs.ssh.template.dao.common.api.Condition;
+import com.zxs.ssh.template.dao.common.api.ICommonDao;
+import com.zxs.ssh.template.dao.common.api.KeysetPage;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:CommonDaoImplTest
+ * Package Name:com.zxs.ssh.template.dao.common.impl
+ * Date:2026/10/18
+ * Description:CommonDaoImpl在H2内存库上的测试：分批写入的事务语义、键集分页、计数缓存和查询缓存的失效、流式查询
+ */
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:spring-test.xml")
+public class CommonDaoImplTest {
+    private static final long BASE_TIME = 1500000000000L;
+
+    @Resource(name = "commonDao")
+    private ICommonDao commonDao;
+
+    @Resource(name = "sessionFactory")
+    private SessionFactory sessionFactory;
+
+    @Resource(name = "transactionManager")
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Before
+    public void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        transaction.execute(status -> sessionFactory.getCurrentSession()
+                .createQuery("delete from " + SampleModel.class.getName()).executeUpdate());
+        commonDao.clearCache();
+        sessionFactory.getCache().evictAllRegions();
+        sessionFactory.getStatistics().clear();
+    }
+
+    @Test
+    public void saveAllCommitsEachBatchWithoutTransaction() {
+        BatchResult result = commonDao.saveAll(models(23), 5);
+        assertTrue(result.isSuccess());
+        assertEquals(5, result.getBatches().size());
+        assertEquals(3, result.getBatches().get(4).getSize());
+        assertEquals(23, count());
+    }
+
+    @Test
+    public void saveAllStopsAtFailedBatchWithoutTransaction() {
+        List<SampleModel> models = models(23);
+        models.get(12).setName(null);
+        BatchResult result = commonDao.saveAll(models, 5);
+        assertFalse(result.isSuccess());
+        assertEquals(10, result.getSucceeded());
+        assertEquals(5, result.getFailed());
+        assertEquals(8, result.getSkipped());
+        assertFalse(result.getBatches().get(2).isSuccess());
+        assertEquals(10, count());
+    }
+
+    @Test
+    public void saveAllJoinsCallerTransaction() {
+        transaction.execute(status -> {
+            BatchResult result = commonDao.saveAll(models(23), 5);
+            assertTrue(result.isSuccess());
+            assertEquals(23, commonDao.queryTotalCount(SampleModel.class));
+            status.setRollbackOnly();
+            return null;
+        });
+        //调用方回滚撤销全部批次
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void saveAllFailureRollsBackCallerTransaction() {
+        List<SampleModel> models = models(23);
+        models.get(12).setName(null);
+        try {
+            transaction.execute(status -> commonDao.saveAll(models, 5));
+            fail("failed batch should propagate to the caller's transaction");
+        } catch (RuntimeException expected) {
+            //批次失败时抛出，调用方事务回滚
+        }
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void keysetPagesCoverAllRowsInOrder() {
+        List<SampleModel> models = models(25);
+        commonDao.saveAll(models, 10);
+        List<Long> expected = models.stream()
+                .sorted(Comparator.comparing(SampleModel::getCreateTime).thenComparing(SampleModel::getId).reversed())
+                .map(SampleModel::getId)
+                .collect(Collectors.toList());
+
+        List<Long> actual = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        String token = null;
+        do {
+            String pageToken = token;
+            KeysetPage<SampleModel> page = readOnlyTransaction.execute(status ->
+                    commonDao.queryKeysetPage(null, pageToken, 7, SampleModel.class));
+            sizes.add(page.getModels().size());
+            page.getModels().forEach(model -> actual.add(model.getId()));
+            token = page.getNextToken();
+        } while (token != null);
+        assertEquals(expected, actual);
+        assertEquals("[7, 7, 7, 4]", sizes.toString());
+    }
+
+    @Test
+    public void keysetPageWithConditionAndLastPage() {
+        commonDao.saveAll(models(10), 10);
+        KeysetPage<SampleModel> page = readOnlyTransaction.execute(status ->
+                commonDao.queryKeysetPage("model.name like 'model-1%'", null, 5, SampleModel.class));
+        assertEquals(1, page.getModels().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextToken());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keysetPageRejectsInvalidToken() {
+        commonDao.queryKeysetPage(null, "not-a-token", 5, SampleModel.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void keysetPageRejectsNonPositiveLimit() {
+        commonDao.queryKeysetPage(null, null, 0, SampleModel.class);
+    }
+
+    @Test
+    public void countCacheIsInvalidatedByWrites() {
+        commonDao.saveAll(models(3), 10);
+        assertEquals(3, count());
+        assertEquals(3, count());
+        CacheStatistics statistics = commonDao.getCacheStatistics();
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getSize());
+
+        assertTrue(commonDao.save(new SampleModel("extra", new Date(BASE_TIME))));
+        assertEquals(4, count());
+        Condition condition = Condition.and().eq("name", "extra");
+        assertEquals(1, countBy(condition));
+
+        SampleModel extra = readOnlyTransaction.execute(status -> commonDao.queryModelBy(condition, SampleModel.class));
+        assertTrue(commonDao.delete(extra));
+        assertEquals(3, count());
+        assertEquals(0, countBy(condition));
+    }
+
+    @Test
+    public void countInReadWriteTransactionBypassesCache() {
+        commonDao.saveAll(models(3), 10);
+        transaction.execute(status -> {
+            sessionFactory.getCurrentSession().save(new SampleModel("uncommitted", new Date(BASE_TIME)));
+            assertEquals(4, commonDao.queryTotalCount(SampleModel.class));
+            status.setRollbackOnly();
+            return null;
+        });
+        assertEquals(0, commonDao.getCacheStatistics().getSize());
+        assertEquals(3, count());
+    }
+
+    @Test
+    public void cacheableEntityQueriesUseQueryCache() {
+        commonDao.saveAll(models(5), 10);
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(5, readOnlyTransaction.execute(status -> commonDao.queryModels(null, SampleModel.class)).size());
+        }
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+
+        //通过DAO更新后hibernate使该表上的查询结果失效，重新查询数据库
+        Condition condition = Condition.and().eq("name", "model-3");
+        SampleModel model = readOnlyTransaction.execute(status -> commonDao.queryModelBy(condition, SampleModel.class));
+        model.setName("renamed");
+        assertTrue(commonDao.update(model));
+        assertTrue(readOnlyTransaction.execute(status -> commonDao.queryModelsBy(condition, SampleModel.class)).isEmpty());
+        assertEquals(1, readOnlyTransaction.execute(status ->
+                commonDao.queryModelsBy(Condition.and().eq("name", "renamed"), SampleModel.class)).size());
+    }
+
+    @Test
+    public void streamsAllRowsAndSeesOnlyCommittedData() {
+        commonDao.saveAll(models(30), 10);
+        try (Stream<SampleModel> models = commonDao.streamModels(null, SampleModel.class, 7)) {
+            assertEquals(30, models.count());
+        }
+        List<String> names = new ArrayList<>();
+        //model-2、model-20 ~ model-29
+        assertEquals(11, commonDao.forEachModel("model.name like 'model-2%'", SampleModel.class, 2,
+                model -> names.add(model.getName())));
+        assertEquals(11, names.size());
+
+        transaction.execute(status -> {
+            sessionFactory.getCurrentSession().save(new SampleModel("uncommitted", new Date(BASE_TIME)));
+            sessionFactory.getCurrentSession().flush();
+            try (Stream<SampleModel> models = commonDao.streamModels(null, SampleModel.class, 7)) {
+                assertEquals(30, models.count());
+            }
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    /**
+     * @param count 实体个数
+     * @return 名称为model-序号的实体，每3个的创建时间相同，用于检查键集分页在创建时间相同时按id排序
+     */
+    private static List<SampleModel> models(int count) {
+        List<SampleModel> models = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            models.add(new SampleModel("model-" + i, new Date(BASE_TIME + i / 3 * 1000L)));
+        }
+        return models;
+    }
+
+    private long count() {
+        return readOnlyTransaction.execute(status -> commonDao.queryTotalCount(SampleModel.class));
+    }
+
+    private long countBy(Condition condition) {
+        return readOnlyTransaction.execute(status -> commonDao.queryTotalCountBy(condition, SampleModel.class));
+    }
+}
@@ -0,0 +1,58 @@
+package com.zxs.ssh.template.dao.common.impl;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import java.util.Date;
+
+/**
+ * Project Name:log-analysis-platform
+ * File Name:SampleModel
+ * Package Name:com.zxs.ssh.template.dao.common.impl
+ * Date:2026/10/18
+ * Description:CommonDaoImpl测试用实体，启用二级缓存，主键使用序列以便批量insert
+ */
+
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+public class SampleModel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    private Date createTime;
+
+    @Column(nullable = false)
+    private String name;
+
+    public SampleModel() {
+    }
+
+    public SampleModel(String name, Date createTime) {
+        this.name = name;
+        this.createTime = createTime;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
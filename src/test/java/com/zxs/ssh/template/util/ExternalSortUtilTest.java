@@ -0,0 +1,158 @@
+package com.zxs.ssh.template.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Project Name:sort-alg
+ * File Name:ExternalSortUtilTest
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:外部排序的正确性测试：单块、多块（多个有序段归并）、输出覆盖输入文件，结果与Arrays.sort比较
+ */
+
+public class ExternalSortUtilTest {
+    /**
+     * 最小内存预算，int分块为512K个数，long分块为256K个数
+     */
+    private static final long MEMORY_BUDGET = 4L << 20;
+
+    /**
+     * 超过一块的数据个数，分成三块
+     */
+    private static final int MULTI_CHUNK_LENGTH = 1300000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sortsEmptyIntFile() throws IOException {
+        assertSortsInts(new int[0], false);
+    }
+
+    @Test
+    public void sortsSingleInt() throws IOException {
+        assertSortsInts(new int[]{-5}, false);
+    }
+
+    @Test
+    public void sortsSingleChunkIntFile() throws IOException {
+        assertSortsInts(randomInts(10000, 1), false);
+    }
+
+    @Test
+    public void sortsMultiChunkIntFile() throws IOException {
+        assertSortsInts(randomInts(MULTI_CHUNK_LENGTH, 2), false);
+    }
+
+    @Test
+    public void sortsSingleChunkIntFileInPlace() throws IOException {
+        assertSortsInts(randomInts(10000, 3), true);
+    }
+
+    @Test
+    public void sortsMultiChunkIntFileInPlace() throws IOException {
+        assertSortsInts(randomInts(MULTI_CHUNK_LENGTH, 4), true);
+    }
+
+    @Test
+    public void sortsMultiChunkLongFile() throws IOException {
+        long[] a = randomLongs(MULTI_CHUNK_LENGTH / 2, 5);
+        Path input = writeLongs(a, ByteOrder.BIG_ENDIAN);
+        Path output = folder.getRoot().toPath().resolve("sorted.bin");
+        assertEquals(a.length, ExternalSortUtil.sortLongFile(input, output, MEMORY_BUDGET));
+        Arrays.sort(a);
+        assertArrayEquals(a, readLongs(output, ByteOrder.BIG_ENDIAN));
+    }
+
+    @Test
+    public void sortsLongFileInPlaceLittleEndian() throws IOException {
+        long[] a = randomLongs(MULTI_CHUNK_LENGTH / 2, 6);
+        Path file = writeLongs(a, ByteOrder.LITTLE_ENDIAN);
+        Path tempDir = folder.newFolder().toPath();
+        ExternalSortUtil.sortLongFile(file, file, MEMORY_BUDGET, tempDir, ByteOrder.LITTLE_ENDIAN);
+        Arrays.sort(a);
+        assertArrayEquals(a, readLongs(file, ByteOrder.LITTLE_ENDIAN));
+        assertEquals("临时有序段应已删除", 0, tempDir.toFile().list().length);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedFile() throws IOException {
+        Path input = folder.newFile().toPath();
+        Files.write(input, new byte[]{1, 2, 3, 4, 5, 6});
+        ExternalSortUtil.sortIntFile(input, folder.getRoot().toPath().resolve("out.bin"), MEMORY_BUDGET);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSmallMemoryBudget() throws IOException {
+        Path input = writeInts(new int[]{1});
+        ExternalSortUtil.sortIntFile(input, input, MEMORY_BUDGET - 1);
+    }
+
+    private void assertSortsInts(int[] a, boolean inPlace) throws IOException {
+        Path input = writeInts(a);
+        Path output = inPlace ? input : folder.getRoot().toPath().resolve("sorted.bin");
+        assertEquals(a.length, ExternalSortUtil.sortIntFile(input, output, MEMORY_BUDGET));
+        Arrays.sort(a);
+        assertArrayEquals(a, readInts(output));
+        assertEquals("临时有序段应已删除", inPlace ? 1 : 2, folder.getRoot().list().length);
+    }
+
+    private Path writeInts(int[] a) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(a.length * Integer.BYTES);
+        buffer.asIntBuffer().put(a);
+        Path file = folder.newFile().toPath();
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    private static int[] readInts(Path file) throws IOException {
+        int[] a = new int[(int) (Files.size(file) / Integer.BYTES)];
+        ByteBuffer.wrap(Files.readAllBytes(file)).asIntBuffer().get(a);
+        return a;
+    }
+
+    private Path writeLongs(long[] a, ByteOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(a.length * Long.BYTES).order(order);
+        buffer.asLongBuffer().put(a);
+        Path file = folder.newFile().toPath();
+        Files.write(file, buffer.array());
+        return file;
+    }
+
+    private static long[] readLongs(Path file, ByteOrder order) throws IOException {
+        long[] a = new long[(int) (Files.size(file) / Long.BYTES)];
+        ByteBuffer.wrap(Files.readAllBytes(file)).order(order).asLongBuffer().get(a);
+        return a;
+    }
+
+    private static int[] randomInts(int length, long seed) {
+        Random random = new Random(seed);
+        int[] a = new int[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = random.nextInt();
+        }
+        return a;
+    }
+
+    private static long[] randomLongs(int length, long seed) {
+        Random random = new Random(seed);
+        long[] a = new long[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = random.nextLong();
+        }
+        return a;
+    }
+}
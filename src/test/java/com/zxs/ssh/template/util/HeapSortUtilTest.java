@@ -0,0 +1,64 @@
+package com.zxs.ssh.template.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Project Name:sort-alg
+ * File Name:HeapSortUtilTest
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:二叉堆、四叉堆自底向上堆排序的正确性测试，结果与Arrays.sort比较
+ */
+
+public class HeapSortUtilTest {
+    private static final int[] LENGTHS = {0, 1, 2, 3, 4, 5, 6, 17, 20000};
+
+    @Test
+    public void bottomUpHeapSort() {
+        for (int length : LENGTHS) {
+            for (int[] a : inputs(length)) {
+                int[] expected = a.clone();
+                Arrays.sort(expected);
+                HeapSortUtil.bottomUpHeapSort(a, length);
+                assertArrayEquals(expected, a);
+            }
+        }
+    }
+
+    @Test
+    public void quaternaryHeapSort() {
+        for (int length : LENGTHS) {
+            for (int[] a : inputs(length)) {
+                int[] expected = a.clone();
+                Arrays.sort(expected);
+                HeapSortUtil.quaternaryHeapSort(a, length);
+                assertArrayEquals(expected, a);
+            }
+        }
+    }
+
+    /**
+     * 随机、有序、逆序、全部相同四种输入
+     */
+    private static int[][] inputs(int length) {
+        Random random = new Random(length);
+        int[] shuffled = new int[length];
+        for (int i = 0; i < length; i++) {
+            shuffled[i] = random.nextInt();
+        }
+        int[] sorted = shuffled.clone();
+        Arrays.sort(sorted);
+        int[] reversed = new int[length];
+        for (int i = 0; i < length; i++) {
+            reversed[i] = sorted[length - 1 - i];
+        }
+        int[] equal = new int[length];
+        Arrays.fill(equal, 5);
+        return new int[][]{shuffled, sorted, reversed, equal};
+    }
+}
@@ -0,0 +1,151 @@
+package com.zxs.ssh.template.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Project Name:sort-alg
+ * File Name:KWayMergeTest
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:多路归并的正确性测试：数组、流、通道数据源，单路、多路、含空路，结果与合并后Arrays.sort比较
+ */
+
+public class KWayMergeTest {
+
+    @Test
+    public void mergesNoWays() {
+        assertArrayEquals(new int[0], KWayMerge.merge(new int[0][]));
+        assertArrayEquals(new long[0], KWayMerge.merge(new long[0][]));
+    }
+
+    @Test
+    public void mergesSingleWay() {
+        int[] a = sortedInts(1000, 1);
+        assertArrayEquals(a, KWayMerge.merge(a.clone()));
+        assertArrayEquals(new int[]{3}, KWayMerge.merge(new int[]{3}));
+    }
+
+    @Test
+    public void mergesManyWaysWithEmptyAndDuplicateWays() {
+        int[][] ways = new int[37][];
+        for (int i = 0; i < ways.length; i++) {
+            ways[i] = i % 5 == 0 ? new int[0] : sortedInts(i * 31, i);
+        }
+        ways[7] = ways[8].clone();
+        assertArrayEquals(expected(ways), KWayMerge.merge(ways));
+    }
+
+    @Test
+    public void mergesAllEqualWays() {
+        int[] a = new int[100];
+        Arrays.fill(a, 9);
+        assertArrayEquals(expected(new int[][]{a, a, a}), KWayMerge.merge(a, a, a));
+    }
+
+    @Test
+    public void mergesLongWays() {
+        long[][] ways = new long[9][];
+        Random random = new Random(1);
+        for (int i = 0; i < ways.length; i++) {
+            ways[i] = random.longs(i * 100).sorted().toArray();
+        }
+        long[] expected = Arrays.stream(ways).flatMapToLong(Arrays::stream).sorted().toArray();
+        assertArrayEquals(expected, KWayMerge.merge(ways));
+    }
+
+    @Test
+    public void mergesStreamsAndClosesThem() throws IOException {
+        AtomicInteger closed = new AtomicInteger();
+        int[][] ways = {sortedInts(500, 1), new int[0], sortedInts(700, 2)};
+        IntStream[] streams = new IntStream[ways.length];
+        for (int i = 0; i < ways.length; i++) {
+            streams[i] = Arrays.stream(ways[i]).onClose(closed::incrementAndGet);
+        }
+        int[] merged = new int[1200];
+        try (KWayMerge merge = KWayMerge.of(streams)) {
+            assertEquals(1200, merge.drainTo(merged, 0, merged.length));
+            assertEquals(-1, merge.drainTo(merged, 0, 1));
+            assertEquals(0, merge.drainTo(merged, 0, 0));
+        }
+        assertArrayEquals(expected(ways), merged);
+        assertEquals(ways.length, closed.get());
+    }
+
+    @Test
+    public void mergesLongStreamsOneByOne() throws IOException {
+        long[] a = {Long.MIN_VALUE, -1, 5, Long.MAX_VALUE};
+        long[] b = {-2, 5, 6};
+        try (KWayMerge merge = KWayMerge.of(LongStream.of(a), LongStream.of(b))) {
+            for (long expected : new long[]{Long.MIN_VALUE, -2, -1, 5, 5, 6, Long.MAX_VALUE}) {
+                assertEquals(expected, merge.nextLong());
+            }
+            assertFalse(merge.hasNext());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nextOnExhaustedMergeThrows() {
+        KWayMerge merge = KWayMerge.of(new int[]{1}, new int[0]);
+        assertEquals(1, merge.nextInt());
+        merge.nextInt();
+    }
+
+    @Test
+    public void mergesChannelsAcrossBufferRefills() throws IOException {
+        int[][] ways = new int[6][];
+        ReadableByteChannel[] channels = new ReadableByteChannel[ways.length];
+        for (int i = 0; i < ways.length; i++) {
+            ways[i] = i == 3 ? new int[0] : sortedInts(1000 + i, i);
+            ByteBuffer bytes = ByteBuffer.allocate(ways[i].length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            bytes.asIntBuffer().put(ways[i]);
+            channels[i] = Channels.newChannel(new ByteArrayInputStream(bytes.array()));
+        }
+        int[] expected = expected(ways);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        //每路缓冲区只放4个数，归并过程中反复补充
+        try (KWayMerge merge = KWayMerge.ofChannels(ByteOrder.LITTLE_ENDIAN, 16, Integer.BYTES, channels)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(expected.length, merge.writeTo(Channels.newChannel(out), buffer));
+        }
+        int[] merged = new int[expected.length];
+        ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(merged);
+        assertArrayEquals(expected, merged);
+    }
+
+    @Test(expected = UncheckedIOException.class)
+    public void rejectsPartialElementInChannel() throws IOException {
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(new byte[]{0, 0, 0, 1, 2}));
+        try (KWayMerge merge = KWayMerge.ofInts(ByteOrder.BIG_ENDIAN, channel)) {
+            while (merge.hasNext()) {
+                merge.nextInt();
+            }
+        }
+    }
+
+    private static int[] expected(int[][] ways) {
+        return Arrays.stream(ways).flatMapToInt(Arrays::stream).sorted().toArray();
+    }
+
+    private static int[] sortedInts(int length, long seed) {
+        return new Random(seed).ints(length, -1000, 1000).sorted().toArray();
+    }
+}
@@ -0,0 +1,180 @@
+package com.zxs.ssh.template.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Project Name:sort-alg
+ * File Name:OffHeapSortUtilTest
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:直接内存缓冲区排序的正确性测试：只排序[position, limit)，position、limit和区间外的数据不变
+ */
+
+public class OffHeapSortUtilTest {
+    private static final int[] LENGTHS = {0, 1, 2, 17, 20000};
+
+    /**
+     * 区间前后各留的元素个数
+     */
+    private static final int MARGIN = 3;
+
+    @Test
+    public void sortsIntBuffers() {
+        for (int length : LENGTHS) {
+            for (int[] a : intInputs(length)) {
+                int[] expected = a.clone();
+                Arrays.sort(expected);
+                assertArrayEquals(expected, sortInts(a, 0));
+                assertArrayEquals(expected, sortInts(a, 1));
+                assertArrayEquals(expected, sortInts(a, 2));
+            }
+        }
+    }
+
+    @Test
+    public void sortsLongBuffers() {
+        for (int length : LENGTHS) {
+            for (long[] a : longInputs(length)) {
+                long[] expected = a.clone();
+                Arrays.sort(expected);
+                assertArrayEquals(expected, sortLongs(a, 0));
+                assertArrayEquals(expected, sortLongs(a, 1));
+                assertArrayEquals(expected, sortLongs(a, 2));
+            }
+        }
+    }
+
+    @Test
+    public void sortsRecordsStably() {
+        int recordSize = 16;
+        int keyOffset = 4;
+        int count = 5000;
+        Random random = new Random(1);
+        ByteBuffer records = ByteBuffer.allocateDirect(recordSize * count).order(ByteOrder.LITTLE_ENDIAN);
+        long[] expected = new long[count];
+        for (int i = 0; i < count; i++) {
+            int key = random.nextInt(100) - 50;
+            records.putInt(i * recordSize, ~i);
+            records.putInt(i * recordSize + keyOffset, key);
+            records.putLong(i * recordSize + 8, i);
+            //键在高位、原序号在低位，排序后即为稳定排序的结果
+            expected[i] = ((long) key << 32) | i;
+        }
+        Arrays.sort(expected);
+        assertEquals(count, OffHeapSortUtil.sortRecords(records, recordSize, keyOffset, Integer.BYTES));
+        for (int i = 0; i < count; i++) {
+            int key = records.getInt(i * recordSize + keyOffset);
+            long index = records.getLong(i * recordSize + 8);
+            assertEquals(expected[i], ((long) key << 32) | index);
+            assertEquals(~(int) index, records.getInt(i * recordSize));
+        }
+    }
+
+    /**
+     * 把a放入前后各留MARGIN个哨兵的直接内存缓冲区排序，校验区间外和position、limit不变
+     *
+     * @param a         数据
+     * @param algorithm 0基数排序，1快速排序，2归并排序
+     * @return 排序后的区间内数据
+     */
+    private static int[] sortInts(int[] a, int algorithm) {
+        IntBuffer buffer = ByteBuffer.allocateDirect((a.length + 2 * MARGIN) * Integer.BYTES)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.put(i, Integer.MIN_VALUE);
+        }
+        for (int i = 0; i < a.length; i++) {
+            buffer.put(MARGIN + i, a[i]);
+        }
+        buffer.position(MARGIN).limit(MARGIN + a.length);
+        int sorted = algorithm == 0 ? OffHeapSortUtil.radixSort(buffer)
+                : algorithm == 1 ? OffHeapSortUtil.quickSort(buffer) : OffHeapSortUtil.mergeSort(buffer);
+        assertEquals(a.length, sorted);
+        assertEquals(MARGIN, buffer.position());
+        assertEquals(MARGIN + a.length, buffer.limit());
+        buffer.clear();
+        for (int i = 0; i < MARGIN; i++) {
+            assertEquals(Integer.MIN_VALUE, buffer.get(i));
+            assertEquals(Integer.MIN_VALUE, buffer.get(MARGIN + a.length + i));
+        }
+        int[] result = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = buffer.get(MARGIN + i);
+        }
+        return result;
+    }
+
+    private static long[] sortLongs(long[] a, int algorithm) {
+        LongBuffer buffer = ByteBuffer.allocateDirect((a.length + 2 * MARGIN) * Long.BYTES)
+                .order(ByteOrder.nativeOrder()).asLongBuffer();
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.put(i, Long.MIN_VALUE);
+        }
+        for (int i = 0; i < a.length; i++) {
+            buffer.put(MARGIN + i, a[i]);
+        }
+        buffer.position(MARGIN).limit(MARGIN + a.length);
+        int sorted = algorithm == 0 ? OffHeapSortUtil.radixSort(buffer)
+                : algorithm == 1 ? OffHeapSortUtil.quickSort(buffer) : OffHeapSortUtil.mergeSort(buffer);
+        assertEquals(a.length, sorted);
+        assertEquals(MARGIN, buffer.position());
+        assertEquals(MARGIN + a.length, buffer.limit());
+        buffer.clear();
+        for (int i = 0; i < MARGIN; i++) {
+            assertEquals(Long.MIN_VALUE, buffer.get(i));
+            assertEquals(Long.MIN_VALUE, buffer.get(MARGIN + a.length + i));
+        }
+        long[] result = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = buffer.get(MARGIN + i);
+        }
+        return result;
+    }
+
+    /**
+     * 随机、有序、逆序、全部相同四种输入
+     */
+    private static int[][] intInputs(int length) {
+        Random random = new Random(length);
+        int[] shuffled = new int[length];
+        for (int i = 0; i < length; i++) {
+            shuffled[i] = random.nextInt();
+        }
+        int[] sorted = shuffled.clone();
+        Arrays.sort(sorted);
+        int[] reversed = new int[length];
+        for (int i = 0; i < length; i++) {
+            reversed[i] = sorted[length - 1 - i];
+        }
+        int[] equal = new int[length];
+        Arrays.fill(equal, -1);
+        return new int[][]{shuffled, sorted, reversed, equal};
+    }
+
+    private static long[][] longInputs(int length) {
+        Random random = new Random(length);
+        long[] shuffled = new long[length];
+        for (int i = 0; i < length; i++) {
+            shuffled[i] = random.nextLong();
+        }
+        long[] sorted = shuffled.clone();
+        Arrays.sort(sorted);
+        long[] reversed = new long[length];
+        for (int i = 0; i < length; i++) {
+            reversed[i] = sorted[length - 1 - i];
+        }
+        long[] equal = new long[length];
+        Arrays.fill(equal, -1L);
+        return new long[][]{shuffled, sorted, reversed, equal};
+    }
+}
@@ -0,0 +1,195 @@
+package com.zxs.ssh.template.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Project Name:sort-alg
+ * File Name:PrimitiveSortUtilTest
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:long、float、double、byte、short、char数组排序的正确性测试，结果与Arrays.sort比较，
+ * 浮点数按Float.compare、Double.compare的全序比较（-0.0在0.0前面，NaN在最后）
+ */
+
+public class PrimitiveSortUtilTest {
+    private static final int LENGTH = 20000;
+
+    private static final int[] LENGTHS = {0, 1, 2, 17, LENGTH};
+
+    @Test
+    public void sortsLongs() {
+        for (int length : LENGTHS) {
+            for (long[] a : longInputs(length)) {
+                long[] expected = a.clone();
+                Arrays.sort(expected);
+                long[] quick = a.clone();
+                PrimitiveSortUtil.quickSort(quick, length);
+                assertArrayEquals(expected, quick);
+                long[] merge = a.clone();
+                PrimitiveSortUtil.mergeSort(merge, length);
+                assertArrayEquals(expected, merge);
+                long[] radix = a.clone();
+                SortUtil.radixSort(radix, length);
+                assertArrayEquals(expected, radix);
+            }
+        }
+    }
+
+    @Test
+    public void sortsFloats() {
+        for (int length : LENGTHS) {
+            for (float[] a : floatInputs(length)) {
+                float[] expected = a.clone();
+                Arrays.sort(expected);
+                float[] quick = a.clone();
+                PrimitiveSortUtil.quickSort(quick, length);
+                assertArrayEquals(expected, quick, 0f);
+                float[] merge = a.clone();
+                PrimitiveSortUtil.mergeSort(merge, length);
+                assertArrayEquals(expected, merge, 0f);
+                float[] radix = a.clone();
+                SortUtil.radixSort(radix, length);
+                assertArrayEquals(expected, radix, 0f);
+                assertSameBits(expected, quick);
+                assertSameBits(expected, merge);
+                assertSameBits(expected, radix);
+            }
+        }
+    }
+
+    @Test
+    public void sortsDoubles() {
+        for (int length : LENGTHS) {
+            for (double[] a : doubleInputs(length)) {
+                double[] expected = a.clone();
+                Arrays.sort(expected);
+                double[] quick = a.clone();
+                PrimitiveSortUtil.quickSort(quick, length);
+                assertArrayEquals(expected, quick, 0d);
+                double[] merge = a.clone();
+                PrimitiveSortUtil.mergeSort(merge, length);
+                assertArrayEquals(expected, merge, 0d);
+                double[] radix = a.clone();
+                SortUtil.radixSort(radix, length);
+                assertArrayEquals(expected, radix, 0d);
+                assertSameBits(expected, quick);
+                assertSameBits(expected, merge);
+                assertSameBits(expected, radix);
+            }
+        }
+    }
+
+    @Test
+    public void countingSortsBytesShortsChars() {
+        Random random = new Random(1);
+        for (int length : LENGTHS) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            byte[] expectedBytes = bytes.clone();
+            Arrays.sort(expectedBytes);
+            PrimitiveSortUtil.countingSort(bytes, length);
+            assertArrayEquals(expectedBytes, bytes);
+
+            short[] shorts = new short[length];
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                shorts[i] = (short) random.nextInt();
+                chars[i] = (char) random.nextInt();
+            }
+            short[] expectedShorts = shorts.clone();
+            Arrays.sort(expectedShorts);
+            PrimitiveSortUtil.countingSort(shorts, length);
+            assertArrayEquals(expectedShorts, shorts);
+            char[] expectedChars = chars.clone();
+            Arrays.sort(expectedChars);
+            PrimitiveSortUtil.countingSort(chars, length);
+            assertArrayEquals(expectedChars, chars);
+        }
+    }
+
+    /**
+     * 随机、有序、逆序、全部相同四种输入
+     */
+    private static long[][] longInputs(int length) {
+        Random random = new Random(length);
+        long[] shuffled = new long[length];
+        for (int i = 0; i < length; i++) {
+            shuffled[i] = i % 11 == 0 ? (i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE) : random.nextLong();
+        }
+        long[] sorted = shuffled.clone();
+        Arrays.sort(sorted);
+        long[] reversed = new long[length];
+        for (int i = 0; i < length; i++) {
+            reversed[i] = sorted[length - 1 - i];
+        }
+        long[] equal = new long[length];
+        Arrays.fill(equal, -3L);
+        return new long[][]{shuffled, sorted, reversed, equal};
+    }
+
+    private static float[][] floatInputs(int length) {
+        Random random = new Random(length);
+        float[] shuffled = new float[length];
+        float[] specials = {Float.NaN, -0.0f, 0.0f, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY,
+                Float.MIN_VALUE, -Float.MAX_VALUE};
+        for (int i = 0; i < length; i++) {
+            shuffled[i] = i % 13 == 0 ? specials[(i / 13) % specials.length] : (random.nextFloat() - 0.5f) * 1e6f;
+        }
+        float[] sorted = shuffled.clone();
+        Arrays.sort(sorted);
+        float[] reversed = new float[length];
+        for (int i = 0; i < length; i++) {
+            reversed[i] = sorted[length - 1 - i];
+        }
+        float[] equal = new float[length];
+        Arrays.fill(equal, 1.5f);
+        return new float[][]{shuffled, sorted, reversed, equal};
+    }
+
+    private static double[][] doubleInputs(int length) {
+        Random random = new Random(length);
+        double[] shuffled = new double[length];
+        double[] specials = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MAX_VALUE};
+        for (int i = 0; i < length; i++) {
+            shuffled[i] = i % 13 == 0 ? specials[(i / 13) % specials.length] : random.nextGaussian() * 1e9;
+        }
+        double[] sorted = shuffled.clone();
+        Arrays.sort(sorted);
+        double[] reversed = new double[length];
+        for (int i = 0; i < length; i++) {
+            reversed[i] = sorted[length - 1 - i];
+        }
+        double[] equal = new double[length];
+        Arrays.fill(equal, -2.25);
+        return new double[][]{shuffled, sorted, reversed, equal};
+    }
+
+    /**
+     * assertArrayEquals认为-0.0与0.0相等，逐个比较位序列确认顺序
+     */
+    private static void assertSameBits(float[] expected, float[] actual) {
+        int[] expectedBits = new int[expected.length];
+        int[] actualBits = new int[actual.length];
+        for (int i = 0; i < expected.length; i++) {
+            expectedBits[i] = Float.floatToIntBits(expected[i]);
+            actualBits[i] = Float.floatToIntBits(actual[i]);
+        }
+        assertArrayEquals(expectedBits, actualBits);
+    }
+
+    private static void assertSameBits(double[] expected, double[] actual) {
+        long[] expectedBits = new long[expected.length];
+        long[] actualBits = new long[actual.length];
+        for (int i = 0; i < expected.length; i++) {
+            expectedBits[i] = Double.doubleToLongBits(expected[i]);
+            actualBits[i] = Double.doubleToLongBits(actual[i]);
+        }
+        assertArrayEquals(expectedBits, actualBits);
+    }
+}
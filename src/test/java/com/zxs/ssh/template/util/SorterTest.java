@@ -0,0 +1,179 @@
+package com.zxs.ssh.template.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Project Name:sort-alg
+ * File Name:SorterTest
+ * Package Name:com.zxs.ssh.template.util
+ * Date:2026/10/18
+ * Description:SortAlgorithm中的各排序算法和SortPlanner的正确性测试，结果与Arrays.sort比较
+ */
+
+@RunWith(Parameterized.class)
+public class SorterTest {
+    /**
+     * O(n^2)算法的测试长度
+     */
+    private static final int QUADRATIC_LENGTH = 2000;
+
+    /**
+     * 其他算法的测试长度，超过并行算法的切分阈值
+     */
+    private static final int LENGTH = 50000;
+
+    private final Sorter sorter;
+    private final int length;
+
+    public SorterTest(String name, Sorter sorter) {
+        this.sorter = sorter;
+        this.length = sorter == SortAlgorithm.BUBBLE || sorter == SortAlgorithm.SELECT
+                || sorter == SortAlgorithm.INSERT ? QUADRATIC_LENGTH : LENGTH;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> sorters() {
+        List<Object[]> sorters = new ArrayList<>();
+        for (SortAlgorithm algorithm : SortAlgorithm.values()) {
+            sorters.add(new Object[]{algorithm.name(), algorithm});
+        }
+        sorters.add(new Object[]{"PLANNER", new SortPlanner()});
+        sorters.add(new Object[]{"PLANNER_SERIAL", new SortPlanner(1)});
+        return sorters;
+    }
+
+    @Test
+    public void sortsRandom() {
+        assertSorts(random(length, new Random(1)));
+    }
+
+    @Test
+    public void sortsExtremeValues() {
+        int[] a = random(length, new Random(2));
+        for (int i = 0; i < a.length; i += 7) {
+            a[i] = i % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        }
+        assertSorts(a);
+    }
+
+    @Test
+    public void sortsSmallRange() {
+        Random random = new Random(3);
+        int[] a = new int[length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(16) - 8;
+        }
+        assertSorts(a);
+    }
+
+    @Test
+    public void sortsSorted() {
+        int[] a = random(length, new Random(4));
+        Arrays.sort(a);
+        assertSorts(a);
+    }
+
+    @Test
+    public void sortsReversed() {
+        int[] a = random(length, new Random(5));
+        Arrays.sort(a);
+        reverse(a, 0, a.length);
+        assertSorts(a);
+    }
+
+    @Test
+    public void sortsAllEqual() {
+        int[] a = new int[length];
+        Arrays.fill(a, 42);
+        assertSorts(a);
+    }
+
+    @Test
+    public void sortsEmpty() {
+        assertSorts(new int[0]);
+    }
+
+    @Test
+    public void sortsSingleElement() {
+        assertSorts(new int[]{7});
+    }
+
+    @Test
+    public void sortsPrefixOnly() {
+        int[] a = random(length, new Random(6));
+        int[] expected = a.clone();
+        int prefix = length / 2;
+        Arrays.sort(expected, 0, prefix);
+        sorter.sort(a, prefix);
+        assertArrayEquals(expected, a);
+    }
+
+    @Test
+    public void sortsRangeAscending() {
+        assertSortsRange(random(length, new Random(7)), 3, length - 5, true);
+    }
+
+    @Test
+    public void sortsRangeDescending() {
+        assertSortsRange(random(length, new Random(8)), 3, length - 5, false);
+    }
+
+    @Test
+    public void sortsWholeArrayDescending() {
+        assertSortsRange(random(length, new Random(9)), 0, length, false);
+    }
+
+    @Test
+    public void sortsEmptyAndSingleRange() {
+        assertSortsRange(random(10, new Random(10)), 4, 4, false);
+        assertSortsRange(random(10, new Random(11)), 4, 5, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvertedRange() {
+        sorter.sort(new int[10], 5, 4, true);
+    }
+
+    private void assertSorts(int[] a) {
+        int[] expected = a.clone();
+        Arrays.sort(expected);
+        sorter.sort(a, a.length);
+        assertArrayEquals(expected, a);
+    }
+
+    private void assertSortsRange(int[] a, int fromIndex, int toIndex, boolean asc) {
+        int[] expected = a.clone();
+        Arrays.sort(expected, fromIndex, toIndex);
+        if (!asc) {
+            reverse(expected, fromIndex, toIndex);
+        }
+        sorter.sort(a, fromIndex, toIndex, asc);
+        assertArrayEquals(expected, a);
+    }
+
+    private static int[] random(int length, Random random) {
+        int[] a = new int[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = random.nextInt();
+        }
+        return a;
+    }
+
+    private static void reverse(int[] a, int fromIndex, int toIndex) {
+        for (int i = fromIndex, j = toIndex - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}